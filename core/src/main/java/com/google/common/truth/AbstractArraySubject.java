@@ -16,9 +16,14 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -56,6 +61,39 @@ abstract class AbstractArraySubject<S extends AbstractArraySubject<S, T>, T> ext
     check("length").that(length()).isEqualTo(length);
   }
 
+  /**
+   * Fails if {@code scan} finds a pair of adjacent elements out of order, reporting the first such
+   * pair and its index.
+   */
+  final void checkOrdered(String expectedFact, OrderScan scan) {
+    int index = Platform.firstUnorderedPair(scan);
+    if (index >= 0) {
+      failWithoutActual(
+          simpleFact(expectedFact),
+          fact("but contained", scan.element(index)),
+          fact("followed by", scan.element(index + 1)),
+          fact("at index", index),
+          fact("full contents", actualCustomStringRepresentationForPackageMembersToCall()));
+    }
+  }
+
+  /**
+   * Fails, listing the elements which appear more than once in {@code elements}, a view of the
+   * array which is known to contain some.
+   */
+  final void failContainsDuplicates(List<?> elements) {
+    List<Multiset.Entry<?>> duplicates = new ArrayList<>();
+    for (Multiset.Entry<?> entry : LinkedHashMultiset.create(elements).entrySet()) {
+      if (entry.getCount() > 1) {
+        duplicates.add(entry);
+      }
+    }
+    failWithoutActual(
+        simpleFact("expected not to contain duplicates"),
+        fact("but contained", duplicates),
+        fact("full contents", actualCustomStringRepresentationForPackageMembersToCall()));
+  }
+
   private int length() {
     return Array.getLength(actual());
   }
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.Arrays;
+import java.util.Map;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * An immutable copy of the entries of an {@link AtomicLongMap}, taken in a single pass over the
+ * map, so that every assertion about it sees the same entries, and its sum is the sum of those
+ * entries even while other threads update the map.
+ *
+ * <p>The entries are held in parallel arrays of keys and primitive values, in the map's iteration
+ * order, and indexed by an open-addressing hash table with linear probing, at most half full. So a
+ * lookup costs a hash and usually one or two array reads, with no boxing, and the size and sum are
+ * computed once.
+ */
+final class AtomicLongMapSnapshot {
+  private final Object[] keys;
+  private final long[] values;
+  private final int size;
+  private final long sum;
+
+  /** Each slot is one more than an index into {@link #keys}, or zero if the slot is empty. */
+  private final int[] table;
+
+  private final int mask;
+
+  @NullableDecl private ImmutableMap<Object, Long> asMap;
+
+  private AtomicLongMapSnapshot(Object[] keys, long[] values, int size) {
+    this.keys = keys;
+    this.values = values;
+    int capacity = Integer.highestOneBit(Math.max(size, 1)) << 2;
+    this.table = new int[capacity];
+    this.mask = capacity - 1;
+    int distinct = 0;
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      int slot = find(keys[i]);
+      if (table[slot] == 0) {
+        keys[distinct] = keys[i];
+        values[distinct] = values[i];
+        table[slot] = ++distinct;
+      } else {
+        // The map's iterator returned the key twice, which it may if the map was updated meanwhile.
+        sum -= values[table[slot] - 1];
+        values[table[slot] - 1] = values[i];
+      }
+      sum += values[i];
+    }
+    this.size = distinct;
+    this.sum = sum;
+  }
+
+  /** Copies the current entries of {@code map}. */
+  static AtomicLongMapSnapshot of(AtomicLongMap<?> map) {
+    Map<?, Long> view = map.asMap();
+    int capacity = Math.max(view.size(), 4);
+    Object[] keys = new Object[capacity];
+    long[] values = new long[capacity];
+    int size = 0;
+    for (Map.Entry<?, Long> entry : view.entrySet()) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        values = Arrays.copyOf(values, size * 2);
+      }
+      keys[size] = entry.getKey();
+      values[size] = entry.getValue();
+      size++;
+    }
+    return new AtomicLongMapSnapshot(keys, values, size);
+  }
+
+  /** Returns the slot which holds {@code key}, or the empty slot where it would go. */
+  private int find(Object key) {
+    for (int i = spread(key.hashCode()) & mask; ; i = (i + 1) & mask) {
+      int entry = table[i];
+      if (entry == 0 || keys[entry - 1].equals(key)) {
+        return i;
+      }
+    }
+  }
+
+  /** Mixes the bits of {@code hashCode}, so that codes differing only in high bits spread out. */
+  private static int spread(int hashCode) {
+    int product = hashCode * 0x9E3779B9;
+    return product ^ (product >>> 16);
+  }
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  long sum() {
+    return sum;
+  }
+
+  boolean containsKey(Object key) {
+    return table[find(key)] != 0;
+  }
+
+  /** Returns the value for {@code key}, or zero if there is none, as {@link AtomicLongMap#get}. */
+  long get(Object key) {
+    int entry = table[find(key)];
+    return entry == 0 ? 0 : values[entry - 1];
+  }
+
+  /** Returns the entries as a map, in the iteration order of the original map, boxing them once. */
+  Map<Object, Long> asMap() {
+    if (asMap == null) {
+      ImmutableMap.Builder<Object, Long> builder = ImmutableMap.builder();
+      for (int i = 0; i < size; i++) {
+        builder.put(keys[i], values[i]);
+      }
+      asMap = builder.build();
+    }
+    return asMap;
+  }
+
+  /** Returns the same string as {@link AtomicLongMap#toString} would for these entries. */
+  @Override
+  public String toString() {
+    return asMap().toString();
+  }
+}
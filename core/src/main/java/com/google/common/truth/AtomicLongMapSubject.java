@@ -19,18 +19,137 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Maps.immutableEntry;
 import static com.google.common.truth.Fact.simpleFact;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+import com.google.common.annotations.GwtIncompatible;
 import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
  * Propositions for {@link AtomicLongMap} subjects.
  *
+ * <p>Each assertion reads the map afresh, so while other threads update it, separate assertions
+ * (and even the check and the failure message of a single assertion) may see different values. To
+ * make a series of assertions about the same values, make them on a {@link #snapshot}, or, to wait
+ * for other threads to bring the map to the expected state, use {@link #eventually}.
+ *
  * @author Kurt Alfred Kluever
  */
 public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, AtomicLongMap<?>> {
+  private static final long INITIAL_BACKOFF_NANOS = MILLISECONDS.toNanos(1);
+  private static final long MAX_BACKOFF_NANOS = MILLISECONDS.toNanos(100);
+
+  /** A copy of the map's entries which assertions read instead of the map, if not null. */
+  @NullableDecl private final AtomicLongMapSnapshot snapshot;
+
   AtomicLongMapSubject(FailureMetadata metadata, @NullableDecl AtomicLongMap<?> map) {
+    this(metadata, map, null);
+  }
+
+  private AtomicLongMapSubject(
+      FailureMetadata metadata,
+      @NullableDecl AtomicLongMap<?> map,
+      @NullableDecl AtomicLongMapSnapshot snapshot) {
     super(metadata, map);
+    this.snapshot = snapshot;
+  }
+
+  private static Subject.Factory<AtomicLongMapSubject, AtomicLongMap<?>> snapshotsOf(
+      final AtomicLongMapSnapshot snapshot) {
+    return new Subject.Factory<AtomicLongMapSubject, AtomicLongMap<?>>() {
+      @Override
+      public AtomicLongMapSubject createSubject(
+          FailureMetadata metadata, @NullableDecl AtomicLongMap<?> actual) {
+        return new AtomicLongMapSubject(metadata, actual, snapshot);
+      }
+    };
+  }
+
+  /**
+   * Returns a subject for a copy of the map's current entries, taken in a single pass over the map.
+   * All assertions on the returned subject, including their failure messages, see the same
+   * entries, whose {@linkplain #hasSum sum} is consistent with them, even while other threads
+   * update the map. Since the copy is indexed by a table of primitive values, those assertions also
+   * run without rescanning the map or boxing its values.
+   *
+   * <p>A failure message from the returned subject also shows the original map, as it is when the
+   * assertion fails.
+   */
+  public AtomicLongMapSubject snapshot() {
+    AtomicLongMapSnapshot copy = AtomicLongMapSnapshot.of(actual());
+    return check("snapshot()").about(snapshotsOf(copy)).that(actual());
+  }
+
+  /**
+   * A callback that makes assertions about a {@linkplain #snapshot snapshot} of an {@link
+   * AtomicLongMap}. See {@link #eventually}.
+   */
+  public interface SnapshotAssertion {
+    void invokeAssertion(AtomicLongMapSubject snapshot);
+  }
+
+  /**
+   * Fails unless {@code assertion} passes on a {@linkplain #snapshot snapshot} of the map within
+   * {@code timeout}, for maps which other threads are still updating. For example:
+   *
+   * <pre>{@code
+   * assertThat(counters)
+   *     .eventually(
+   *         5, SECONDS,
+   *         new SnapshotAssertion() {
+   *           public void invokeAssertion(AtomicLongMapSubject snapshot) {
+   *             snapshot.hasSum(1000);
+   *           }
+   *         });
+   * }</pre>
+   *
+   * <p>The assertion is retried on a new snapshot after a pause which starts at 1 millisecond and
+   * doubles after each failed attempt, up to 100 milliseconds. The failures of those attempts are
+   * discarded. If the timeout elapses first, the assertion is run one last time, and its failure is
+   * reported as usual.
+   */
+  @GwtIncompatible("Thread.sleep")
+  public void eventually(long timeout, TimeUnit unit, SnapshotAssertion assertion) {
+    checkNotNull(unit);
+    checkNotNull(assertion);
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    long backoffNanos = INITIAL_BACKOFF_NANOS;
+    while (true) {
+      FailureRecorder recorder = new FailureRecorder();
+      assertion.invokeAssertion(
+          new AtomicLongMapSubject(
+              FailureMetadata.forFailureStrategy(recorder),
+              actual(),
+              AtomicLongMapSnapshot.of(actual())));
+      if (!recorder.failed) {
+        return;
+      }
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        break;
+      }
+      sleepUninterruptibly(Math.min(backoffNanos, remainingNanos), NANOSECONDS);
+      backoffNanos = Math.min(backoffNanos * 2, MAX_BACKOFF_NANOS);
+    }
+    assertion.invokeAssertion(snapshot());
+  }
+
+  /** A failure strategy which records that an assertion failed, for {@link #eventually}. */
+  private static final class FailureRecorder implements FailureStrategy {
+    boolean failed;
+
+    @Override
+    public void fail(AssertionError failure) {
+      failed = true;
+    }
+  }
+
+  @Override
+  protected String actualCustomStringRepresentation() {
+    return snapshot != null ? snapshot.toString() : super.actualCustomStringRepresentation();
   }
 
   /**
@@ -57,14 +176,14 @@ public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, At
 
   /** Fails if the {@link AtomicLongMap} is not empty. */
   public void isEmpty() {
-    if (!actual().isEmpty()) {
+    if (!(snapshot != null ? snapshot.isEmpty() : actual().isEmpty())) {
       failWithActual(simpleFact("expected to be empty"));
     }
   }
 
   /** Fails if the {@link AtomicLongMap} is empty. */
   public void isNotEmpty() {
-    if (actual().isEmpty()) {
+    if (snapshot != null ? snapshot.isEmpty() : actual().isEmpty()) {
       failWithoutActual(simpleFact("expected not to be empty"));
     }
   }
@@ -72,24 +191,32 @@ public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, At
   /** Fails if the {@link AtomicLongMap} does not have the given size. */
   public void hasSize(int expectedSize) {
     checkArgument(expectedSize >= 0, "expectedSize (%s) must be >= 0", expectedSize);
-    check("size()").that(actual().size()).isEqualTo(expectedSize);
+    checkSize("size()", snapshot != null ? snapshot.size() : actual().size(), expectedSize);
   }
 
   /** Fails if the {@link AtomicLongMap} does not have the given sum. */
   public void hasSum(long expectedSum) {
-    check("sum()").that(actual().sum()).isEqualTo(expectedSum);
+    check("sum()").that(snapshot != null ? snapshot.sum() : actual().sum()).isEqualTo(expectedSum);
   }
 
   /** Fails if the {@link AtomicLongMap} does not contain the given key. */
   public void containsKey(Object key) {
     checkNotNull(key, "AtomicLongMap does not support null keys");
-    check("asMap().keySet()").that(actual().asMap().keySet()).contains(key);
+    if (snapshot == null) {
+      check("asMap().keySet()").that(actual().asMap().keySet()).contains(key);
+    } else if (!snapshot.containsKey(key)) {
+      check("asMap().keySet()").that(snapshot.asMap().keySet()).contains(key);
+    }
   }
 
   /** Fails if the {@link AtomicLongMap} contains the given key. */
   public void doesNotContainKey(Object key) {
     checkNotNull(key, "AtomicLongMap does not support null keys");
-    check("asMap().keySet()").that(actual().asMap().keySet()).doesNotContain(key);
+    if (snapshot == null) {
+      check("asMap().keySet()").that(actual().asMap().keySet()).doesNotContain(key);
+    } else if (snapshot.containsKey(key)) {
+      check("asMap().keySet()").that(snapshot.asMap().keySet()).doesNotContain(key);
+    }
   }
 
   /*
@@ -111,7 +238,7 @@ public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, At
    */
   public void containsEntry(Object key, long value) {
     checkNotNull(key, "AtomicLongMap does not support null keys");
-    long actualValue = ((AtomicLongMap<Object>) actual()).get(key);
+    long actualValue = get(key);
     if (actualValue != value) {
       fail("contains entry", immutableEntry(key, value));
     }
@@ -121,12 +248,17 @@ public final class AtomicLongMapSubject extends Subject<AtomicLongMapSubject, At
   /** Fails if the {@link AtomicLongMap} contains the given entry. */
   public void doesNotContainEntry(Object key, long value) {
     checkNotNull(key, "AtomicLongMap does not support null keys");
-    long actualValue = ((AtomicLongMap<Object>) actual()).get(key);
+    long actualValue = get(key);
     if (actualValue == value) {
       fail("does not contain entry", immutableEntry(key, value));
     }
   }
 
+  @SuppressWarnings("unchecked") // see containsEntry
+  private long get(Object key) {
+    return snapshot != null ? snapshot.get(key) : ((AtomicLongMap<Object>) actual()).get(key);
+  }
+
   /*
    * TODO(kak): Consider adding containsExactly() / containsExactlyEntriesIn() like MapSubject? If
    * we do, see the TODO about containsEntry above.
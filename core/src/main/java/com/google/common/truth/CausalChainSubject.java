@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.Sets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Propositions for the causal chain of a {@link Throwable}: the throwable itself, followed by its
+ * causes and suppressed exceptions, and theirs, depth first. Each throwable appears once, even if
+ * the chain contains a cycle.
+ *
+ * <p>The chain is collected in a single traversal when the subject is created, so assertions about
+ * deeply nested chains don't walk them again, or create a subject for each level.
+ */
+public final class CausalChainSubject extends IterableSubject {
+  @NullableDecl private final Throwable rootCause;
+
+  private CausalChainSubject(
+      FailureMetadata metadata,
+      @NullableDecl Iterable<?> throwables,
+      @NullableDecl Throwable rootCause) {
+    super(metadata, throwables);
+    this.rootCause = rootCause;
+  }
+
+  /**
+   * Returns a factory for subjects of causal chains collected by {@link #collect}, given the root
+   * cause it returned. The factory is typed as for {@link IterableSubject} so that {@link
+   * StandardSubjectBuilder#about} accepts it; the subjects it creates are all {@code
+   * CausalChainSubject} instances.
+   */
+  static Subject.Factory<IterableSubject, Iterable<?>> causalChains(
+      @NullableDecl final Throwable rootCause) {
+    return new Subject.Factory<IterableSubject, Iterable<?>>() {
+      @Override
+      public IterableSubject createSubject(FailureMetadata metadata, Iterable<?> actual) {
+        return new CausalChainSubject(metadata, actual, rootCause);
+      }
+    };
+  }
+
+  /**
+   * Adds {@code throwable} and then, depth first, its cause and suppressed exceptions to {@code
+   * throwables}, skipping those in {@code seenThrowables}. Returns the last throwable reached from
+   * {@code throwable} through {@link Throwable#getCause} alone.
+   *
+   * <p>The chain is walked with an explicit stack rather than by recursion, so that a very long
+   * chain can't overflow the thread's stack.
+   */
+  static Throwable collect(
+      Throwable throwable, List<Throwable> throwables, Set<Throwable> seenThrowables) {
+    Deque<Throwable> stack = new ArrayDeque<>();
+    stack.push(throwable);
+    while (!stack.isEmpty()) {
+      Throwable next = stack.pop();
+      if (!seenThrowables.add(next)) {
+        continue;
+      }
+      throwables.add(next);
+      // Pushed in reverse, so that the cause is visited before the suppressed exceptions, and
+      // they in order.
+      Throwable[] suppressed = Platform.getSuppressed(next);
+      for (int i = suppressed.length - 1; i >= 0; i--) {
+        stack.push(suppressed[i]);
+      }
+      if (next.getCause() != null) {
+        stack.push(next.getCause());
+      }
+    }
+    // Each cause is visited straight after the throwable it caused, so the chain of causes only
+    // reaches an already seen throwable if it loops back on itself, in which case it ends there.
+    Set<Throwable> causes = Sets.newIdentityHashSet();
+    Throwable rootCause = throwable;
+    causes.add(rootCause);
+    while (rootCause.getCause() != null && causes.add(rootCause.getCause())) {
+      rootCause = rootCause.getCause();
+    }
+    return rootCause;
+  }
+
+  @Override
+  public CausalChainSubject named(String format, Object... args) {
+    super.named(format, args);
+    return this;
+  }
+
+  /** Fails if no throwable in the chain is an instance of the given class. */
+  public void containsInstanceOf(Class<?> clazz) {
+    checkNotNull(clazz);
+    for (Object throwable : actual()) {
+      if (Platform.isInstanceOfType(throwable, clazz)) {
+        return;
+      }
+    }
+    failWithActual("expected to contain an instance of", clazz.getName());
+  }
+
+  /**
+   * Fails if no throwable in the chain has a message which contains a match on the given regex.
+   */
+  public void containsMessageMatching(String regex) {
+    checkNotNull(regex);
+    for (Object throwable : actual()) {
+      String message = ((Throwable) throwable).getMessage();
+      if (message != null && Platform.containsMatch(message, regex)) {
+        return;
+      }
+    }
+    failWithActual("expected to contain a throwable whose message contains a match for", regex);
+  }
+
+  /**
+   * Fails if no throwable in the chain has a message which contains a match on the given regex.
+   */
+  @GwtIncompatible("java.util.regex.Pattern")
+  public void containsMessageMatching(Pattern regex) {
+    checkNotNull(regex);
+    for (Object throwable : actual()) {
+      String message = ((Throwable) throwable).getMessage();
+      if (message != null && regex.matcher(message).find()) {
+        return;
+      }
+    }
+    failWithActual("expected to contain a throwable whose message contains a match for", regex);
+  }
+
+  /**
+   * Returns a {@code ThrowableSubject} to make assertions about the root cause of the throwable:
+   * the last throwable reached through {@link Throwable#getCause} alone, which is the throwable
+   * itself if it has no cause. If the causes form a cycle, the root cause is the last throwable
+   * before the cycle repeats.
+   */
+  public ThrowableSubject hasRootCauseThat() {
+    return check("rootCause()").that(rootCause);
+  }
+}
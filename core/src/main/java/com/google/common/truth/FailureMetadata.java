@@ -23,7 +23,6 @@ import static com.google.common.base.Verify.verifyNotNull;
 import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.LazyMessage.evaluateAll;
 import static com.google.common.truth.Platform.cleanStackTrace;
-import static com.google.common.truth.SubjectUtils.append;
 import static com.google.common.truth.SubjectUtils.concat;
 
 import com.google.common.base.Function;
@@ -56,8 +55,7 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  */
 public final class FailureMetadata {
   static FailureMetadata forFailureStrategy(FailureStrategy failureStrategy) {
-    return new FailureMetadata(
-        failureStrategy, ImmutableList.<LazyMessage>of(), ImmutableList.<Step>of());
+    return new FailureMetadata(failureStrategy, null, null);
   }
 
   private final FailureStrategy strategy;
@@ -105,23 +103,58 @@ public final class FailureMetadata {
     }
   }
 
+  /**
+   * An immutable cactus stack: each link points to the link before it, so deriving a new {@code
+   * FailureMetadata} shares the existing chain instead of copying it. The empty chain is {@code
+   * null}. Chains are flattened into lists only when a failure is actually reported.
+   */
+  private static final class Chain<T> {
+    static <T> Chain<T> append(@NullableDecl Chain<T> previous, T last) {
+      return new Chain<T>(previous, last);
+    }
+
+    /** Returns the elements of {@code chain}, from the first appended to the last. */
+    static <T> ImmutableList<T> toList(@NullableDecl Chain<T> chain) {
+      if (chain == null) {
+        return ImmutableList.of();
+      }
+      Object[] elements = new Object[chain.size];
+      for (Chain<T> link = chain; link != null; link = link.previous) {
+        elements[link.size - 1] = link.last;
+      }
+      @SuppressWarnings("unchecked") // we only put Ts into the array
+      ImmutableList<T> result = (ImmutableList<T>) ImmutableList.copyOf(elements);
+      return result;
+    }
+
+    @NullableDecl final Chain<T> previous;
+    final T last;
+    final int size;
+
+    private Chain(@NullableDecl Chain<T> previous, T last) {
+      this.previous = previous;
+      this.last = checkNotNull(last);
+      this.size = previous == null ? 1 : previous.size + 1;
+    }
+  }
+
   /*
-   * TODO(cpovirk): This implementation is wasteful, especially because `steps` is used even by
-   * non-chaining assertions. If it ever does matter, we could use an immutable cactus stack -- or
-   * probably even avoid storing most of the chain entirely (unless we end up wanting more of the
-   * chain to show "telescoping context," as in "the int value of this optional in this list in this
-   * multimap").
+   * TODO(cpovirk): We could probably even avoid storing most of the chain entirely (unless we end
+   * up wanting more of the chain to show "telescoping context," as in "the int value of this
+   * optional in this list in this multimap").
    */
 
-  private final ImmutableList<LazyMessage> messages;
+  @NullableDecl private final Chain<LazyMessage> messages;
 
-  private final ImmutableList<Step> steps;
+  @NullableDecl private final Chain<Step> steps;
 
-  FailureMetadata(
-      FailureStrategy strategy, ImmutableList<LazyMessage> messages, ImmutableList<Step> steps) {
+  private FailureMetadata(
+      FailureStrategy strategy,
+      @NullableDecl Chain<LazyMessage> messages,
+      @NullableDecl Chain<Step> steps) {
     this.strategy = checkNotNull(strategy);
-    this.messages = checkNotNull(messages);
-    this.steps = checkNotNull(steps);
+    this.messages = messages;
+    this.steps = steps;
   }
 
   /**
@@ -131,21 +164,18 @@ public final class FailureMetadata {
    * ThrowableSubject#hasMessageThat}.
    */
   FailureMetadata updateForSubject(Subject<?, ?> subject) {
-    ImmutableList<Step> steps = append(this.steps, Step.subjectCreation(subject));
-    return derive(messages, steps);
+    return derive(messages, Chain.append(steps, Step.subjectCreation(subject)));
   }
 
   FailureMetadata updateForCheckCall() {
-    ImmutableList<Step> steps = append(this.steps, Step.checkCall(null, null));
-    return derive(messages, steps);
+    return derive(messages, Chain.append(steps, Step.checkCall(null, null)));
   }
 
   FailureMetadata updateForCheckCall(
       OldAndNewValuesAreSimilar valuesAreSimilar, Function<String, String> descriptionUpdate) {
     checkNotNull(descriptionUpdate);
-    ImmutableList<Step> steps =
-        append(this.steps, Step.checkCall(valuesAreSimilar, descriptionUpdate));
-    return derive(messages, steps);
+    return derive(
+        messages, Chain.append(steps, Step.checkCall(valuesAreSimilar, descriptionUpdate)));
   }
 
   /**
@@ -166,8 +196,7 @@ public final class FailureMetadata {
    * Subject}) or {@link Truth#assertWithMessage} (for most other calls).
    */
   FailureMetadata withMessage(String format, Object[] args) {
-    ImmutableList<LazyMessage> messages = append(this.messages, new LazyMessage(format, args));
-    return derive(messages, steps);
+    return derive(Chain.append(messages, new LazyMessage(format, args)), steps);
   }
 
   void failEqualityCheck(
@@ -177,7 +206,7 @@ public final class FailureMetadata {
       String actual) {
     doFail(
         ComparisonFailureWithFacts.create(
-            evaluateAll(messages),
+            evaluateAll(Chain.toList(messages)),
             concat(descriptionAsFacts(), headFacts),
             concat(tailFacts, rootUnlessThrowableAsFacts()),
             expected,
@@ -188,7 +217,7 @@ public final class FailureMetadata {
   void fail(ImmutableList<Fact> facts) {
     doFail(
         AssertionErrorWithFacts.create(
-            evaluateAll(messages),
+            evaluateAll(Chain.toList(messages)),
             concat(descriptionAsFacts(), facts, rootUnlessThrowableAsFacts()),
             rootCause().orNull()));
   }
@@ -250,10 +279,11 @@ public final class FailureMetadata {
   }
 
   private ImmutableList<?> allPrefixMessages() {
-    return concat(messages, descriptionAsStrings());
+    return concat(Chain.toList(messages), descriptionAsStrings());
   }
 
-  private FailureMetadata derive(ImmutableList<LazyMessage> messages, ImmutableList<Step> steps) {
+  private FailureMetadata derive(
+      @NullableDecl Chain<LazyMessage> messages, @NullableDecl Chain<Step> steps) {
     return new FailureMetadata(strategy, messages, steps);
   }
 
@@ -279,7 +309,7 @@ public final class FailureMetadata {
   private Optional<Fact> description() {
     String description = null;
     boolean descriptionWasDerived = false;
-    for (Step step : steps) {
+    for (Step step : Chain.toList(steps)) {
       if (step.isCheckCall()) {
         checkState(description != null);
         if (step.descriptionUpdate == null) {
@@ -340,7 +370,7 @@ public final class FailureMetadata {
   private Optional<Fact> rootUnlessThrowable() {
     Step rootSubject = null;
     boolean seenDerivation = false;
-    for (Step step : steps) {
+    for (Step step : Chain.toList(steps)) {
       if (step.isCheckCall()) {
         /*
          * If we don't have a description update, don't trigger display of a root object. (If we
@@ -394,7 +424,7 @@ public final class FailureMetadata {
    * cause only if the assertion chain contains a {@link ThrowableSubject}.
    */
   private Optional<Throwable> rootCause() {
-    for (Step step : steps) {
+    for (Step step : Chain.toList(steps)) {
       if (!step.isCheckCall() && step.subject.actual() instanceof Throwable) {
         return Optional.of((Throwable) step.subject.actual());
       }
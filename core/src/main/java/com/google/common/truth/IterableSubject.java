@@ -35,6 +35,7 @@ import static com.google.common.truth.SubjectUtils.iterableToCollection;
 import static com.google.common.truth.SubjectUtils.iterableToList;
 import static com.google.common.truth.SubjectUtils.objectToTypeName;
 import static com.google.common.truth.SubjectUtils.retainMatchingToString;
+import static com.google.common.truth.SubjectUtils.sharedSortOrder;
 import static java.util.Arrays.asList;
 
 import com.google.common.base.Function;
@@ -61,10 +62,12 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
 import java.util.Set;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
@@ -107,9 +110,8 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
           actual().getClass().getName()
               + '@'
               + Integer.toHexString(System.identityHashCode(actual()));
-      if (actual().toString().equals(objectToString)) {
-        return Iterables.toString(actual());
-      }
+      String actualString = actual().toString();
+      return actualString.equals(objectToString) ? Iterables.toString(actual()) : actualString;
     }
     return super.actualCustomStringRepresentation();
   }
@@ -131,26 +133,30 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   /** Fails if the subject does not have the given size. */
   public final void hasSize(int expectedSize) {
     checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
-    int actualSize = size(actual());
-    check("size()").that(actualSize).isEqualTo(expectedSize);
+    checkSize("size()", size(actual()), expectedSize);
   }
 
   /** Checks (with a side-effect failure) that the subject contains the supplied item. */
   public final void contains(@NullableDecl Object element) {
     if (!Iterables.contains(actual(), element)) {
-      List<Object> elementList = newArrayList(element);
-      if (hasMatchingToStringPair(actual(), elementList)) {
-        failWithoutActual(
-            fact("expected to contain", element),
-            fact("an instance of", objectToTypeName(element)),
-            simpleFact("but did not"),
-            fact(
-                "though it did contain",
-                countDuplicatesAndAddTypeInfo(
-                    retainMatchingToString(actual(), elementList /* itemsToCheck */))),
-            fullContents());
-      } else {
-        failWithActual("expected to contain", element);
+      boolean entered = ToStringCache.enter();
+      try {
+        List<Object> elementList = newArrayList(element);
+        if (hasMatchingToStringPair(actual(), elementList)) {
+          failWithoutActual(
+              fact("expected to contain", element),
+              fact("an instance of", objectToTypeName(element)),
+              simpleFact("but did not"),
+              fact(
+                  "though it did contain",
+                  countDuplicatesAndAddTypeInfo(
+                      retainMatchingToString(actual(), elementList /* itemsToCheck */))),
+              fullContents());
+        } else {
+          failWithActual("expected to contain", element);
+        }
+      } finally {
+        ToStringCache.exit(entered);
       }
     }
   }
@@ -164,6 +170,18 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
 
   /** Checks that the subject does not contain duplicate elements. */
   public final void containsNoDuplicates() {
+    // Most calls pass, so first look for a duplicate cheaply, and only count them if there is one.
+    Set<Object> seen = new HashSet<>();
+    boolean hasDuplicate = false;
+    for (Object element : actual()) {
+      if (!seen.add(element)) {
+        hasDuplicate = true;
+        break;
+      }
+    }
+    if (!hasDuplicate) {
+      return;
+    }
     List<Entry<?>> duplicates = newArrayList();
     for (Multiset.Entry<?> entry : LinkedHashMultiset.create(actual()).entrySet()) {
       if (entry.getCount() > 1) {
@@ -196,17 +214,22 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
         return;
       }
     }
-    if (hasMatchingToStringPair(actual, expected)) {
-      failWithoutActual(
-          fact("expected to contain any of", countDuplicatesAndAddTypeInfo(expected)),
-          simpleFact("but did not"),
-          fact(
-              "though it did contain",
-              countDuplicatesAndAddTypeInfo(
-                  retainMatchingToString(actual(), expected /* itemsToCheck */))),
-          fullContents());
-    } else {
-      failWithActual("expected to contain any of", expected);
+    boolean entered = ToStringCache.enter();
+    try {
+      if (hasMatchingToStringPair(actual, expected)) {
+        failWithoutActual(
+            fact("expected to contain any of", countDuplicatesAndAddTypeInfo(expected)),
+            simpleFact("but did not"),
+            fact(
+                "though it did contain",
+                countDuplicatesAndAddTypeInfo(
+                    retainMatchingToString(actual(), expected /* itemsToCheck */))),
+            fullContents());
+      } else {
+        failWithActual("expected to contain any of", expected);
+      }
+    } finally {
+      ToStringCache.exit(entered);
     }
   }
 
@@ -295,25 +318,31 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   }
 
   private Ordered failAllIn(Collection<?> expected, Collection<?> missingRawObjects) {
-    Collection<?> nearMissRawObjects =
-        retainMatchingToString(actual(), missingRawObjects /* itemsToCheck */);
-
-    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
-    facts.addAll(
-        makeElementFactsForBoth(
-            "missing", missingRawObjects, "though it did contain", nearMissRawObjects));
-    /*
-     * TODO(cpovirk): Make makeElementFactsForBoth support generating just "though it did contain"
-     * rather than "though it did contain (2)?" Users might interpret the number as the *total*
-     * number of actual elements (or the total number of non-matched elements). (Frankly, they might
-     * think that even *without* the number.... Can we do better than the phrase "though it did
-     * contain," which has been our standard so far?) Or maybe it's all clear enough in context,
-     * since this error shows up only to inform users of type mismatches.
-     */
-    facts.add(fact("expected to contain at least", expected));
-    facts.add(butWas());
+    boolean entered = ToStringCache.enter();
+    try {
+      Collection<?> nearMissRawObjects =
+          retainMatchingToString(actual(), missingRawObjects /* itemsToCheck */);
+
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      facts.addAll(
+          makeElementFactsForBoth(
+              "missing", missingRawObjects, "though it did contain", nearMissRawObjects));
+      /*
+       * TODO(cpovirk): Make makeElementFactsForBoth support generating just "though it did
+       * contain" rather than "though it did contain (2)?" Users might interpret the number as the
+       * *total* number of actual elements (or the total number of non-matched elements).
+       * (Frankly, they might think that even *without* the number.... Can we do better than the
+       * phrase "though it did contain," which has been our standard so far?) Or maybe it's all
+       * clear enough in context, since this error shows up only to inform users of type
+       * mismatches.
+       */
+      facts.add(fact("expected to contain at least", expected));
+      facts.add(butWas());
 
-    failWithoutActual(facts.build());
+      failWithoutActual(facts.build());
+    } finally {
+      ToStringCache.exit(entered);
+    }
     return ALREADY_FAILED;
   }
 
@@ -437,6 +466,20 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
               .failEqualityCheckForEqualsWithoutDescription(requiredElement);
           return ALREADY_FAILED;
         }
+        Comparator<Object> sortOrder = sharedSortOrder(actual(), required);
+        if (sortOrder != null) {
+          /*
+           * Both are sorted sets in the same order, so we can find the missing and extra elements
+           * by walking them side by side, rather than by removing each actual element from a list.
+           * Since the first pair of elements differ, there is at least one of either.
+           */
+          Collection<Object> missing = newArrayList();
+          Collection<Object> extra = newArrayList();
+          mergeSortedDifference(
+              sortOrder, actualElement, actualIter, requiredElement, requiredIter, missing, extra);
+          return failExactly(required, addElementsInWarning, missing, extra);
+        }
+
         // Missing elements; elements that are not missing will be removed as we iterate.
         Collection<Object> missing = newArrayList();
         missing.add(requiredElement);
@@ -498,25 +541,75 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     return IN_ORDER;
   }
 
+  /**
+   * Adds to {@code missing} the elements of the sorted sequence of {@code requiredElement} followed
+   * by {@code requiredIter} which are not in that of {@code actualElement} followed by {@code
+   * actualIter}, and to {@code extra} the reverse, consuming both iterators in a single pass.
+   * Elements which compare as equal but are not {@link Object#equals} are both missing and extra.
+   */
+  private static void mergeSortedDifference(
+      Comparator<Object> sortOrder,
+      Object actualElement,
+      Iterator<?> actualIter,
+      Object requiredElement,
+      Iterator<?> requiredIter,
+      Collection<Object> missing,
+      Collection<Object> extra) {
+    boolean hasActual = true;
+    boolean hasRequired = true;
+    while (hasActual && hasRequired) {
+      int comparison = sortOrder.compare(actualElement, requiredElement);
+      if (comparison < 0) {
+        extra.add(actualElement);
+      } else if (comparison > 0) {
+        missing.add(requiredElement);
+      } else if (!Objects.equal(actualElement, requiredElement)) {
+        extra.add(actualElement);
+        missing.add(requiredElement);
+      }
+      if (comparison <= 0) {
+        hasActual = actualIter.hasNext();
+        actualElement = hasActual ? actualIter.next() : null;
+      }
+      if (comparison >= 0) {
+        hasRequired = requiredIter.hasNext();
+        requiredElement = hasRequired ? requiredIter.next() : null;
+      }
+    }
+    if (hasActual) {
+      extra.add(actualElement);
+      Iterators.addAll(extra, actualIter);
+    }
+    if (hasRequired) {
+      missing.add(requiredElement);
+      Iterators.addAll(missing, requiredIter);
+    }
+  }
+
   private Ordered failExactly(
       Iterable<?> required,
       boolean addElementsInWarning,
       Collection<?> missingRawObjects,
       Collection<?> extraRawObjects) {
-    ImmutableList.Builder<Fact> facts = ImmutableList.builder();
-    facts.addAll(
-        makeElementFactsForBoth("missing", missingRawObjects, "unexpected", extraRawObjects));
-    facts.add(fact("expected", required));
-    facts.add(butWas());
-    if (addElementsInWarning) {
-      facts.add(
-          simpleFact(
-              "Passing an iterable to the varargs method containsExactly(Object...) is "
-                  + "often not the correct thing to do. Did you mean to call "
-                  + "containsExactlyElementsIn(Iterable) instead?"));
-    }
-
-    failWithoutActual(facts.build());
+    boolean entered = ToStringCache.enter();
+    try {
+      ImmutableList.Builder<Fact> facts = ImmutableList.builder();
+      facts.addAll(
+          makeElementFactsForBoth("missing", missingRawObjects, "unexpected", extraRawObjects));
+      facts.add(fact("expected", required));
+      facts.add(butWas());
+      if (addElementsInWarning) {
+        facts.add(
+            simpleFact(
+                "Passing an iterable to the varargs method containsExactly(Object...) is "
+                    + "often not the correct thing to do. Did you mean to call "
+                    + "containsExactlyElementsIn(Iterable) instead?"));
+      }
+
+      failWithoutActual(facts.build());
+    } finally {
+      ToStringCache.exit(entered);
+    }
     return ALREADY_FAILED;
   }
 
@@ -748,14 +841,7 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   @SuppressWarnings({"unchecked"})
   public final void isStrictlyOrdered(final Comparator<?> comparator) {
     checkNotNull(comparator);
-    pairwiseCheck(
-        "expected to be strictly ordered",
-        new PairwiseChecker() {
-          @Override
-          public boolean check(Object prev, Object next) {
-            return ((Comparator<Object>) comparator).compare(prev, next) < 0;
-          }
-        });
+    checkOrdered("expected to be strictly ordered", (Comparator<Object>) comparator, -1);
   }
 
   /**
@@ -779,32 +865,53 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
   @SuppressWarnings({"unchecked"})
   public final void isOrdered(final Comparator<?> comparator) {
     checkNotNull(comparator);
-    pairwiseCheck(
-        "expected to be ordered",
-        new PairwiseChecker() {
-          @Override
-          public boolean check(Object prev, Object next) {
-            return ((Comparator<Object>) comparator).compare(prev, next) <= 0;
-          }
-        });
+    checkOrdered("expected to be ordered", (Comparator<Object>) comparator, 0);
   }
 
-  private interface PairwiseChecker {
-    boolean check(Object prev, Object next);
-  }
-
-  private void pairwiseCheck(String expectedFact, PairwiseChecker checker) {
-    Iterator<?> iterator = actual().iterator();
+  /**
+   * Fails unless {@code comparator.compare(prev, next) <= maxComparison} for each pair of adjacent
+   * elements. Random-access lists are walked by index, and elements in their natural ordering are
+   * compared with {@link Comparable#compareTo} directly.
+   */
+  private void checkOrdered(String expectedFact, Comparator<Object> comparator, int maxComparison) {
+    Iterable<?> actual = actual();
+    if (actual instanceof List && actual instanceof RandomAccess) {
+      List<?> list = (List<?>) actual;
+      int size = list.size();
+      if (size < 2) {
+        return;
+      }
+      Object prev = list.get(0);
+      if (comparator.equals(Ordering.natural())) {
+        for (int i = 1; i < size; i++) {
+          Object next = checkNotNull(list.get(i));
+          @SuppressWarnings("unchecked") // throws ClassCastException as documented
+          Comparable<Object> comparable = (Comparable<Object>) checkNotNull(prev);
+          if (comparable.compareTo(next) > maxComparison) {
+            failUnordered(expectedFact, prev, next);
+            return;
+          }
+          prev = next;
+        }
+      } else {
+        for (int i = 1; i < size; i++) {
+          Object next = list.get(i);
+          if (comparator.compare(prev, next) > maxComparison) {
+            failUnordered(expectedFact, prev, next);
+            return;
+          }
+          prev = next;
+        }
+      }
+      return;
+    }
+    Iterator<?> iterator = actual.iterator();
     if (iterator.hasNext()) {
       Object prev = iterator.next();
       while (iterator.hasNext()) {
         Object next = iterator.next();
-        if (!checker.check(prev, next)) {
-          failWithoutActual(
-              simpleFact(expectedFact),
-              fact("but contained", prev),
-              fact("followed by", next),
-              fullContents());
+        if (comparator.compare(prev, next) > maxComparison) {
+          failUnordered(expectedFact, prev, next);
           return;
         }
         prev = next;
@@ -812,6 +919,14 @@ public class IterableSubject extends Subject<IterableSubject, Iterable<?>> {
     }
   }
 
+  private void failUnordered(String expectedFact, Object prev, Object next) {
+    failWithoutActual(
+        simpleFact(expectedFact),
+        fact("but contained", prev),
+        fact("followed by", next),
+        fullContents());
+  }
+
   /** @deprecated You probably meant to call {@link #containsNoneOf} instead. */
   @Override
   @Deprecated
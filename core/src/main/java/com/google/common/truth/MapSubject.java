@@ -23,6 +23,7 @@ import static com.google.common.truth.SubjectUtils.countDuplicatesAndAddTypeInfo
 import static com.google.common.truth.SubjectUtils.hasMatchingToStringPair;
 import static com.google.common.truth.SubjectUtils.objectToTypeName;
 import static com.google.common.truth.SubjectUtils.retainMatchingToString;
+import static com.google.common.truth.SubjectUtils.sharedSortOrder;
 
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
@@ -33,6 +34,8 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -93,7 +96,7 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
   /** Fails if the map does not have the given size. */
   public void hasSize(int expectedSize) {
     checkArgument(expectedSize >= 0, "expectedSize (%s) must be >= 0", expectedSize);
-    check("size()").that(actual().size()).isEqualTo(expectedSize);
+    checkSize("size()", actual().size(), expectedSize);
   }
 
   /** Fails if the map does not contain the given key. */
@@ -110,50 +113,56 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
   public void containsEntry(@NullableDecl Object key, @NullableDecl Object value) {
     Entry<Object, Object> entry = Maps.immutableEntry(key, value);
     if (!actual().entrySet().contains(entry)) {
-      List<Object> keyList = Lists.newArrayList(key);
-      List<Object> valueList = Lists.newArrayList(value);
-      if (hasMatchingToStringPair(actual().keySet(), keyList)) {
-        failWithRawMessage(
-            "Not true that %s contains entry <%s (%s)>. However, it does contain keys <%s>.",
-            actualAsString(),
-            entry,
-            objectToTypeName(entry),
-            countDuplicatesAndAddTypeInfo(
-                retainMatchingToString(actual().keySet(), keyList /* itemsToCheck */)));
-      } else if (hasMatchingToStringPair(actual().values(), valueList)) {
-        failWithRawMessage(
-            "Not true that %s contains entry <%s (%s)>. However, it does contain values <%s>.",
-            actualAsString(),
-            entry,
-            objectToTypeName(entry),
-            countDuplicatesAndAddTypeInfo(
-                retainMatchingToString(actual().values(), valueList /* itemsToCheck */)));
-      } else if (actual().containsKey(key)) {
-        Object actualValue = actual().get(key);
-        /*
-         * In the case of a null expected or actual value, clarify that the key *is* present and
-         * *is* expected to be present. That is, get() isn't returning null to indicate that the key
-         * is missing, and the user isn't making an assertion that the key is missing.
-         */
-        StandardSubjectBuilder check = check("get(%s)", key);
-        if (value == null || actualValue == null) {
-          check = check.withMessage("key is present but with a different value");
-        }
-        // See the comment on IterableSubject's use of failEqualityCheckForEqualsWithoutDescription.
-        check.that(actualValue).failEqualityCheckForEqualsWithoutDescription(value);
-      } else if (actual().containsValue(value)) {
-        Set<Object> keys = new LinkedHashSet<>();
-        for (Entry<?, ?> actualEntry : actual().entrySet()) {
-          if (Objects.equal(actualEntry.getValue(), value)) {
-            keys.add(actualEntry.getKey());
+      boolean entered = ToStringCache.enter();
+      try {
+        List<Object> keyList = Lists.newArrayList(key);
+        List<Object> valueList = Lists.newArrayList(value);
+        if (hasMatchingToStringPair(actual().keySet(), keyList)) {
+          failWithRawMessage(
+              "Not true that %s contains entry <%s (%s)>. However, it does contain keys <%s>.",
+              actualAsString(),
+              entry,
+              objectToTypeName(entry),
+              countDuplicatesAndAddTypeInfo(
+                  retainMatchingToString(actual().keySet(), keyList /* itemsToCheck */)));
+        } else if (hasMatchingToStringPair(actual().values(), valueList)) {
+          failWithRawMessage(
+              "Not true that %s contains entry <%s (%s)>. However, it does contain values <%s>.",
+              actualAsString(),
+              entry,
+              objectToTypeName(entry),
+              countDuplicatesAndAddTypeInfo(
+                  retainMatchingToString(actual().values(), valueList /* itemsToCheck */)));
+        } else if (actual().containsKey(key)) {
+          Object actualValue = actual().get(key);
+          /*
+           * In the case of a null expected or actual value, clarify that the key *is* present
+           * and *is* expected to be present. That is, get() isn't returning null to indicate that
+           * the key is missing, and the user isn't making an assertion that the key is missing.
+           */
+          StandardSubjectBuilder check = check("get(%s)", key);
+          if (value == null || actualValue == null) {
+            check = check.withMessage("key is present but with a different value");
+          }
+          // See the comment on IterableSubject's use of
+          // failEqualityCheckForEqualsWithoutDescription.
+          check.that(actualValue).failEqualityCheckForEqualsWithoutDescription(value);
+        } else if (actual().containsValue(value)) {
+          Set<Object> keys = new LinkedHashSet<>();
+          for (Entry<?, ?> actualEntry : actual().entrySet()) {
+            if (Objects.equal(actualEntry.getValue(), value)) {
+              keys.add(actualEntry.getKey());
+            }
           }
+          failWithRawMessage(
+              "Not true that %s contains entry <%s>. "
+                  + "However, the following keys are mapped to <%s>: %s",
+              actualAsString(), entry, value, keys);
+        } else {
+          fail("contains entry", entry);
         }
-        failWithRawMessage(
-            "Not true that %s contains entry <%s>. "
-                + "However, the following keys are mapped to <%s>: %s",
-            actualAsString(), entry, value, keys);
-      } else {
-        fail("contains entry", entry);
+      } finally {
+        ToStringCache.exit(entered);
       }
     }
   }
@@ -221,6 +230,9 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
     }
     boolean containsAnyOrder = containsExactlyEntriesInAnyOrder(expectedMap, "contains exactly");
     if (containsAnyOrder) {
+      if (sharedSortOrder(actual(), expectedMap) != null) {
+        return IN_ORDER; // Maps with the same keys and sort order iterate in the same order.
+      }
       return new MapInOrder(expectedMap, "contains exactly these entries in order");
     } else {
       return ALREADY_FAILED;
@@ -264,6 +276,10 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
         Map<? extends K, ? extends A> actual,
         Map<? extends K, ? extends E> expected,
         ValueTester<? super A, ? super E> valueTester) {
+      Comparator<Object> sortOrder = sharedSortOrder(actual, expected);
+      if (sortOrder != null) {
+        return createSorted(actual, expected, valueTester, sortOrder);
+      }
       Map<K, A> unexpected = new LinkedHashMap<>(actual);
       Map<K, E> missing = new LinkedHashMap<>();
       Map<K, ValueDifference<A, E>> wrongValues = new LinkedHashMap<>();
@@ -282,6 +298,64 @@ public class MapSubject extends Subject<MapSubject, Map<?, ?>> {
       return new MapDifference<>(missing, unexpected, wrongValues);
     }
 
+    /**
+     * Like {@link #create} but for sorted maps in the same order, which it walks side by side in a
+     * single pass, with no hashing or copying. Keys which the sort order considers equivalent but
+     * which aren't equal are treated as an unexpected key and a missing one, as {@link #create}
+     * would.
+     */
+    private static <K, A, E> MapDifference<K, A, E> createSorted(
+        Map<? extends K, ? extends A> actual,
+        Map<? extends K, ? extends E> expected,
+        ValueTester<? super A, ? super E> valueTester,
+        Comparator<Object> sortOrder) {
+      Map<K, E> missing = new LinkedHashMap<>();
+      Map<K, A> unexpected = new LinkedHashMap<>();
+      Map<K, ValueDifference<A, E>> wrongValues = new LinkedHashMap<>();
+      Iterator<? extends Entry<? extends K, ? extends A>> actualEntries =
+          actual.entrySet().iterator();
+      Iterator<? extends Entry<? extends K, ? extends E>> expectedEntries =
+          expected.entrySet().iterator();
+      Entry<? extends K, ? extends A> actualEntry = next(actualEntries);
+      Entry<? extends K, ? extends E> expectedEntry = next(expectedEntries);
+      while (actualEntry != null && expectedEntry != null) {
+        int comparison = sortOrder.compare(actualEntry.getKey(), expectedEntry.getKey());
+        if (comparison < 0) {
+          unexpected.put(actualEntry.getKey(), actualEntry.getValue());
+          actualEntry = next(actualEntries);
+        } else if (comparison > 0) {
+          missing.put(expectedEntry.getKey(), expectedEntry.getValue());
+          expectedEntry = next(expectedEntries);
+        } else if (!Objects.equal(actualEntry.getKey(), expectedEntry.getKey())) {
+          // The sort order considers the keys equivalent, but they aren't equal.
+          unexpected.put(actualEntry.getKey(), actualEntry.getValue());
+          missing.put(expectedEntry.getKey(), expectedEntry.getValue());
+          actualEntry = next(actualEntries);
+          expectedEntry = next(expectedEntries);
+        } else {
+          if (!valueTester.test(actualEntry.getValue(), expectedEntry.getValue())) {
+            wrongValues.put(
+                expectedEntry.getKey(),
+                new ValueDifference<A, E>(actualEntry.getValue(), expectedEntry.getValue()));
+          }
+          actualEntry = next(actualEntries);
+          expectedEntry = next(expectedEntries);
+        }
+      }
+      for (; actualEntry != null; actualEntry = next(actualEntries)) {
+        unexpected.put(actualEntry.getKey(), actualEntry.getValue());
+      }
+      for (; expectedEntry != null; expectedEntry = next(expectedEntries)) {
+        missing.put(expectedEntry.getKey(), expectedEntry.getValue());
+      }
+      return new MapDifference<>(missing, unexpected, wrongValues);
+    }
+
+    @NullableDecl
+    private static <T> T next(Iterator<T> iterator) {
+      return iterator.hasNext() ? iterator.next() : null;
+    }
+
     private MapDifference(
         Map<K, E> missing, Map<K, A> unexpected, Map<K, ValueDifference<A, E>> wrongValues) {
       this.missing = missing;
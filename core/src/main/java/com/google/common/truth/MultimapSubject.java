@@ -86,7 +86,7 @@ public class MultimapSubject extends Subject<MultimapSubject, Multimap<?, ?>> {
   /** Fails if the multimap does not have the given size. */
   public void hasSize(int expectedSize) {
     checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
-    check("size()").that(actual().size()).isEqualTo(expectedSize);
+    checkSize("size()", actual().size(), expectedSize);
   }
 
   /** Fails if the multimap does not contain the given key. */
@@ -103,33 +103,38 @@ public class MultimapSubject extends Subject<MultimapSubject, Multimap<?, ?>> {
   public void containsEntry(@NullableDecl Object key, @NullableDecl Object value) {
     // TODO(kak): Can we share any of this logic w/ MapSubject.containsEntry()?
     if (!actual().containsEntry(key, value)) {
-      Entry<Object, Object> entry = Maps.immutableEntry(key, value);
-      List<Entry<Object, Object>> entryList = ImmutableList.of(entry);
-      if (hasMatchingToStringPair(actual().entries(), entryList)) {
-        failWithRawMessage(
-            "Not true that %s contains entry <%s (%s)>. However, it does contain entries <%s>",
-            actualAsString(),
-            entry,
-            objectToTypeName(entry),
-            countDuplicatesAndAddTypeInfo(
-                retainMatchingToString(actual().entries(), entryList /* itemsToCheck */)));
-      } else if (actual().containsKey(key)) {
-        failWithRawMessage(
-            "Not true that %s contains entry <%s>. However, it has a mapping from <%s> to <%s>",
-            actualAsString(), entry, key, actual().asMap().get(key));
-      } else if (actual().containsValue(value)) {
-        Set<Object> keys = new LinkedHashSet<>();
-        for (Entry<?, ?> actualEntry : actual().entries()) {
-          if (Objects.equal(actualEntry.getValue(), value)) {
-            keys.add(actualEntry.getKey());
+      boolean entered = ToStringCache.enter();
+      try {
+        Entry<Object, Object> entry = Maps.immutableEntry(key, value);
+        List<Entry<Object, Object>> entryList = ImmutableList.of(entry);
+        if (hasMatchingToStringPair(actual().entries(), entryList)) {
+          failWithRawMessage(
+              "Not true that %s contains entry <%s (%s)>. However, it does contain entries <%s>",
+              actualAsString(),
+              entry,
+              objectToTypeName(entry),
+              countDuplicatesAndAddTypeInfo(
+                  retainMatchingToString(actual().entries(), entryList /* itemsToCheck */)));
+        } else if (actual().containsKey(key)) {
+          failWithRawMessage(
+              "Not true that %s contains entry <%s>. However, it has a mapping from <%s> to <%s>",
+              actualAsString(), entry, key, actual().asMap().get(key));
+        } else if (actual().containsValue(value)) {
+          Set<Object> keys = new LinkedHashSet<>();
+          for (Entry<?, ?> actualEntry : actual().entries()) {
+            if (Objects.equal(actualEntry.getValue(), value)) {
+              keys.add(actualEntry.getKey());
+            }
           }
+          failWithRawMessage(
+              "Not true that %s contains entry <%s>. "
+                  + "However, the following keys are mapped to <%s>: %s",
+              actualAsString(), entry, value, keys);
+        } else {
+          fail("contains entry", Maps.immutableEntry(key, value));
         }
-        failWithRawMessage(
-            "Not true that %s contains entry <%s>. "
-                + "However, the following keys are mapped to <%s>: %s",
-            actualAsString(), entry, value, keys);
-      } else {
-        fail("contains entry", Maps.immutableEntry(key, value));
+      } finally {
+        ToStringCache.exit(entered);
       }
     }
   }
@@ -16,8 +16,13 @@
 package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
 
+import com.google.common.base.Objects;
 import com.google.common.collect.Multiset;
+import java.util.ArrayList;
+import java.util.List;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -26,6 +31,8 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  * @author Kurt Alfred Kluever
  */
 public final class MultisetSubject extends IterableSubject {
+  /** The number of elements with wrong counts to show in a failure message. */
+  static final int MAX_REPORTED_ELEMENTS = 10;
 
   MultisetSubject(FailureMetadata metadata, @NullableDecl Multiset<?> multiset) {
     super(metadata, multiset);
@@ -43,4 +50,92 @@ public final class MultisetSubject extends IterableSubject {
     int actualCount = ((Multiset<?>) actual()).count(element);
     check("count(%s)", element).that(actualCount).isEqualTo(expectedCount);
   }
+
+  /**
+   * Fails if the subject is not equal to the given object. If it is another {@link Multiset}, the
+   * failure message lists the elements whose counts differ.
+   */
+  @Override
+  public void isEqualTo(@NullableDecl Object other) {
+    if (Objects.equal(actual(), other)) {
+      return;
+    }
+    if (actual() == null || !(other instanceof Multiset)) {
+      super.isEqualTo(other);
+      return;
+    }
+    if (!checkCounts(fact("expected", other), (Multiset<?>) other, true)) {
+      // The counts are the same, but this implementation's equals() returned false anyway.
+      super.isEqualTo(other);
+    }
+  }
+
+  /**
+   * Fails unless the multiset has the same count of each element as {@code expected}, with no
+   * other elements.
+   *
+   * <p>Unlike {@link #containsExactlyElementsIn}, which visits every occurrence of every element,
+   * this compares the counts in each multiset's {@link Multiset#entrySet}, so it takes time
+   * proportional to the number of distinct elements, however large their counts. The failure
+   * message lists the elements whose counts differ.
+   */
+  public void containsExactlyEntriesIn(Multiset<?> expected) {
+    checkNotNull(expected);
+    checkCounts(fact("expected to contain exactly", expected), expected, true);
+  }
+
+  /**
+   * Fails unless the multiset has at least the count of each element in {@code expected}. Other
+   * elements, and higher counts, are permitted.
+   *
+   * <p>Like {@link #containsExactlyEntriesIn}, this takes time proportional to the number of
+   * distinct elements in {@code expected}, however large their counts.
+   */
+  public void containsAtLeastCounts(Multiset<?> expected) {
+    checkNotNull(expected);
+    checkCounts(fact("expected to contain at least", expected), expected, false);
+  }
+
+  /**
+   * Fails if the count of any element of {@code expected} is wrong: different from its count in
+   * the actual multiset if {@code exact}, or greater than it otherwise. If {@code exact}, elements
+   * of the actual multiset which are not in {@code expected} are wrong, too. Returns whether it
+   * failed.
+   */
+  private boolean checkCounts(Fact expectedFact, Multiset<?> expected, boolean exact) {
+    Multiset<?> actual = (Multiset<?>) actual();
+    List<Fact> countFacts = new ArrayList<>();
+    int wrongCount = 0;
+    for (Multiset.Entry<?> entry : expected.entrySet()) {
+      int actualCount = actual.count(entry.getElement());
+      if (exact ? actualCount != entry.getCount() : actualCount < entry.getCount()) {
+        if (wrongCount++ < MAX_REPORTED_ELEMENTS) {
+          countFacts.add(
+              fact(
+                  "count(" + entry.getElement() + ")",
+                  (exact ? "expected " : "expected at least ")
+                      + entry.getCount()
+                      + " but was "
+                      + actualCount));
+        }
+      }
+    }
+    if (exact) {
+      for (Multiset.Entry<?> entry : actual.entrySet()) {
+        if (!expected.contains(entry.getElement()) && wrongCount++ < MAX_REPORTED_ELEMENTS) {
+          countFacts.add(
+              fact("count(" + entry.getElement() + ")", "expected 0 but was " + entry.getCount()));
+        }
+      }
+    }
+    if (wrongCount == 0) {
+      return false;
+    }
+    List<Fact> facts = new ArrayList<>();
+    facts.add(expectedFact);
+    facts.add(fact("number of elements with wrong counts", wrongCount));
+    facts.addAll(countFacts);
+    failWithActual(facts);
+    return true;
+  }
 }
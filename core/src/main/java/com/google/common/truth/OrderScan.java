@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+/**
+ * A scan of a primitive array for the first pair of adjacent elements which are out of order. Pair
+ * {@code i} is elements {@code i} and {@code i + 1}.
+ *
+ * <p>Each implementation compares the elements directly, with no boxing and no comparator. And
+ * since any range of pairs can be scanned independently of the others, {@link
+ * Platform#firstUnorderedPair} may split a large scan into chunks and scan them in parallel.
+ * Because scans run only this class's own code, that's safe regardless of what the caller does.
+ */
+abstract class OrderScan {
+  /** Returns the number of pairs, which is one less than the length of a non-empty array. */
+  abstract int pairCount();
+
+  /**
+   * Returns the first index in {@code [fromPair, toPair)} whose pair is out of order, or -1 if
+   * there is none.
+   */
+  abstract int firstUnorderedPair(int fromPair, int toPair);
+
+  /** Returns the element at {@code index}, boxed, for a failure message. */
+  abstract Object element(int index);
+
+  static OrderScan of(final int[] array, final boolean strict) {
+    return new OrderScan() {
+      @Override
+      int pairCount() {
+        return Math.max(array.length - 1, 0);
+      }
+
+      @Override
+      Object element(int index) {
+        return array[index];
+      }
+
+      @Override
+      int firstUnorderedPair(int fromPair, int toPair) {
+        if (strict) {
+          for (int i = fromPair; i < toPair; i++) {
+            if (array[i] >= array[i + 1]) {
+              return i;
+            }
+          }
+        } else {
+          for (int i = fromPair; i < toPair; i++) {
+            if (array[i] > array[i + 1]) {
+              return i;
+            }
+          }
+        }
+        return -1;
+      }
+    };
+  }
+
+  static OrderScan of(final long[] array, final boolean strict) {
+    return new OrderScan() {
+      @Override
+      int pairCount() {
+        return Math.max(array.length - 1, 0);
+      }
+
+      @Override
+      Object element(int index) {
+        return array[index];
+      }
+
+      @Override
+      int firstUnorderedPair(int fromPair, int toPair) {
+        if (strict) {
+          for (int i = fromPair; i < toPair; i++) {
+            if (array[i] >= array[i + 1]) {
+              return i;
+            }
+          }
+        } else {
+          for (int i = fromPair; i < toPair; i++) {
+            if (array[i] > array[i + 1]) {
+              return i;
+            }
+          }
+        }
+        return -1;
+      }
+    };
+  }
+
+  /**
+   * Returns a scan of {@code array} in the order of {@link Double#compare}, which is the natural
+   * ordering of {@link Double}: {@code -0.0} is less than {@code 0.0}, and {@code NaN} is greater
+   * than every other value, including positive infinity.
+   */
+  static OrderScan of(final double[] array, final boolean strict) {
+    return new OrderScan() {
+      @Override
+      int pairCount() {
+        return Math.max(array.length - 1, 0);
+      }
+
+      @Override
+      Object element(int index) {
+        return array[index];
+      }
+
+      @Override
+      int firstUnorderedPair(int fromPair, int toPair) {
+        if (strict) {
+          for (int i = fromPair; i < toPair; i++) {
+            if (Double.compare(array[i], array[i + 1]) >= 0) {
+              return i;
+            }
+          }
+        } else {
+          for (int i = fromPair; i < toPair; i++) {
+            if (Double.compare(array[i], array[i + 1]) > 0) {
+              return i;
+            }
+          }
+        }
+        return -1;
+      }
+    };
+  }
+}
@@ -24,11 +24,22 @@ import static difflib.DiffUtils.generateUnifiedDiff;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
 import difflib.Patch;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 import org.junit.ComparisonFailure;
@@ -48,9 +59,130 @@ final class Platform {
     return clazz.isInstance(instance);
   }
 
+  /**
+   * Compiled patterns for the regex-as-string assertions, which tests often call with the same few
+   * patterns many times. The size can be set with the system property {@code
+   * com.google.common.truth.regex_cache_size}; 0 disables caching.
+   */
+  private static final Cache<String, Pattern> PATTERN_CACHE =
+      CacheBuilder.newBuilder()
+          .maximumSize(Long.getLong("com.google.common.truth.regex_cache_size", 1000))
+          .recordStats()
+          .build();
+
+  /** Returns the compiled form of {@code regex}, from the cache if possible. */
+  static Pattern compilePattern(String regex) {
+    Pattern pattern = PATTERN_CACHE.getIfPresent(regex);
+    if (pattern == null) {
+      // Compile outside the cache so that a PatternSyntaxException propagates as-is.
+      pattern = Pattern.compile(regex);
+      PATTERN_CACHE.put(regex, pattern);
+    }
+    return pattern;
+  }
+
+  static CacheStats patternCacheStats() {
+    return PATTERN_CACHE.stats();
+  }
+
+  private static final ThreadLocal<ToStringCache> TO_STRING_CACHE =
+      new ThreadLocal<ToStringCache>();
+
+  /** Returns the current thread's {@link ToStringCache}, if it is in a span. */
+  @NullableDecl
+  static ToStringCache getToStringCache() {
+    return TO_STRING_CACHE.get();
+  }
+
+  static void setToStringCache(@NullableDecl ToStringCache cache) {
+    if (cache == null) {
+      TO_STRING_CACHE.remove();
+    } else {
+      TO_STRING_CACHE.set(cache);
+    }
+  }
+
+  /** The fewest pairs for which {@link #firstUnorderedPair} scans in parallel. */
+  static final int PARALLEL_ORDER_SCAN_THRESHOLD = 1 << 20;
+
+  /**
+   * Returns {@code scan.firstUnorderedPair(0, scan.pairCount())}. If there are at least {@link
+   * #PARALLEL_ORDER_SCAN_THRESHOLD} pairs and more than one processor, the pairs are split into a
+   * chunk per processor, and the chunks are scanned in parallel. The first chunk is scanned on the
+   * calling thread, and the results are examined in order, so the result is still the first
+   * unordered pair, and the scan of later chunks is cancelled once an earlier one finds one.
+   */
+  static int firstUnorderedPair(OrderScan scan) {
+    return firstUnorderedPair(scan, Runtime.getRuntime().availableProcessors());
+  }
+
+  static int firstUnorderedPair(final OrderScan scan, int chunkCount) {
+    int pairCount = scan.pairCount();
+    if (pairCount < PARALLEL_ORDER_SCAN_THRESHOLD || chunkCount == 1) {
+      return scan.firstUnorderedPair(0, pairCount);
+    }
+    int chunkSize = (pairCount + chunkCount - 1) / chunkCount;
+    List<Future<Integer>> laterChunks = new ArrayList<Future<Integer>>();
+    for (int start = chunkSize; start < pairCount; start += chunkSize) {
+      final int from = start;
+      final int to = Math.min(start + chunkSize, pairCount);
+      laterChunks.add(
+          OrderScanExecutor.INSTANCE.submit(
+              new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                  return scan.firstUnorderedPair(from, to);
+                }
+              }));
+    }
+    try {
+      int result = scan.firstUnorderedPair(0, chunkSize);
+      for (Future<Integer> chunk : laterChunks) {
+        if (result >= 0) {
+          break;
+        }
+        result = getUninterruptibly(chunk);
+      }
+      return result;
+    } finally {
+      for (Future<Integer> chunk : laterChunks) {
+        chunk.cancel(true);
+      }
+    }
+  }
+
+  private static int getUninterruptibly(Future<Integer> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      // Scans throw only unchecked exceptions, like OutOfMemoryError.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new AssertionError(e);
+    }
+  }
+
+  /** Daemon threads for parallel scans, so that they never keep a test process alive. */
+  private static final class OrderScanExecutor {
+    static final ExecutorService INSTANCE =
+        Executors.newCachedThreadPool(
+            new ThreadFactory() {
+              @Override
+              public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "truth-order-scan");
+                thread.setDaemon(true);
+                return thread;
+              }
+            });
+  }
+
+  /** Determines if the given subject matches the given regex. */
+  static boolean matches(String actual, String regex) {
+    return compilePattern(regex).matcher(actual).matches();
+  }
+
   /** Determines if the given subject contains a match for the given regex. */
   static boolean containsMatch(String actual, String regex) {
-    return Pattern.compile(regex).matcher(actual).find();
+    return compilePattern(regex).matcher(actual).find();
   }
 
   /**
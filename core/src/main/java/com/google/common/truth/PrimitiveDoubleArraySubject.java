@@ -392,6 +392,42 @@ public final class PrimitiveDoubleArraySubject
     }
   }
 
+  /**
+   * Fails if the array is not ordered. Ordered means that each element in the array is greater
+   * than or equal to the element that preceded it. Large arrays are checked in parallel.
+   *
+   * <p>Elements are compared as by {@link Double#compare}, so {@code -0.0} is less than {@code
+   * 0.0}, and {@code NaN} is greater than every other value.
+   */
+  public void isOrdered() {
+    checkOrdered("expected to be ordered", OrderScan.of(actual(), false));
+  }
+
+  /**
+   * Fails if the array is not strictly ordered. Strictly ordered means that each element in the
+   * array is <i>strictly</i> greater than the element that preceded it. Large arrays are checked
+   * in parallel.
+   *
+   * <p>Elements are compared as by {@link Double#compare}, so {@code -0.0} is less than {@code
+   * 0.0}, and {@code NaN} is greater than every other value.
+   */
+  public void isStrictlyOrdered() {
+    checkOrdered("expected to be strictly ordered", OrderScan.of(actual(), true));
+  }
+
+  /**
+   * Fails if the array contains any element more than once. Elements are compared without being
+   * boxed, using a primitive hash set.
+   *
+   * <p>Elements are the same if their boxed {@code Double} forms are equal: {@code NaN} is the
+   * same as {@code NaN}, but {@code 0.0} is not the same as {@code -0.0}.
+   */
+  public void containsNoDuplicates() {
+    if (PrimitiveHashSet.hasDuplicate(actual())) {
+      failContainsDuplicates(Doubles.asList(actual()));
+    }
+  }
+
   private IterableSubject iterableSubject() {
     return checkNoNeedToDisplayBothValues("asList()")
         .about(iterablesWithCustomDoubleToString())
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.Arrays;
+
+/**
+ * A set of {@code long} values, for finding duplicates in primitive arrays without boxing their
+ * elements. It uses open addressing with linear probing in a table at most half full, so each
+ * element costs one multiplication and usually one or two array reads.
+ *
+ * <p>Zero marks an empty slot, so whether the set contains zero is tracked separately.
+ */
+final class PrimitiveHashSet {
+  /** The largest table we allocate. Longer arrays are sorted instead of hashed. */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final long[] table;
+  private final int mask;
+  private boolean containsZero;
+
+  /** Creates a set for at most {@code expectedSize} values, leaving the table at most half full. */
+  private PrimitiveHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(expectedSize, 1)) << 2;
+    table = new long[capacity];
+    mask = capacity - 1;
+  }
+
+  /** Adds {@code value} to the set, returning false if it was already present. */
+  boolean add(long value) {
+    if (value == 0) {
+      boolean added = !containsZero;
+      containsZero = true;
+      return added;
+    }
+    for (int i = spread(value) & mask; ; i = (i + 1) & mask) {
+      long slot = table[i];
+      if (slot == 0) {
+        table[i] = value;
+        return true;
+      } else if (slot == value) {
+        return false;
+      }
+    }
+  }
+
+  /** Mixes the bits of {@code value}, so that values which differ only in high bits spread out. */
+  private static int spread(long value) {
+    long product = value * 0x9E3779B97F4A7C15L;
+    return (int) (product >>> 32) ^ (int) product;
+  }
+
+  /** Returns whether {@code array} contains any value more than once. */
+  static boolean hasDuplicate(int[] array) {
+    if (array.length > MAX_CAPACITY / 4) {
+      int[] sorted = array.clone();
+      Arrays.sort(sorted);
+      for (int i = 1; i < sorted.length; i++) {
+        if (sorted[i - 1] == sorted[i]) {
+          return true;
+        }
+      }
+      return false;
+    }
+    PrimitiveHashSet set = new PrimitiveHashSet(array.length);
+    for (int value : array) {
+      if (!set.add(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether {@code array} contains any value more than once. */
+  static boolean hasDuplicate(long[] array) {
+    if (array.length > MAX_CAPACITY / 4) {
+      return hasDuplicateSorted(array.clone());
+    }
+    PrimitiveHashSet set = new PrimitiveHashSet(array.length);
+    for (long value : array) {
+      if (!set.add(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns whether {@code array} contains any value more than once, where values are the same if
+   * they are {@linkplain Double#equals equal} as {@code Double} instances: {@code NaN} is the same
+   * as {@code NaN}, but {@code 0.0} is not the same as {@code -0.0}.
+   */
+  static boolean hasDuplicate(double[] array) {
+    if (array.length > MAX_CAPACITY / 4) {
+      long[] bits = new long[array.length];
+      for (int i = 0; i < array.length; i++) {
+        bits[i] = Double.doubleToLongBits(array[i]);
+      }
+      return hasDuplicateSorted(bits);
+    }
+    PrimitiveHashSet set = new PrimitiveHashSet(array.length);
+    for (double value : array) {
+      if (!set.add(Double.doubleToLongBits(value))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasDuplicateSorted(long[] values) {
+    Arrays.sort(values);
+    for (int i = 1; i < values.length; i++) {
+      if (values[i - 1] == values[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
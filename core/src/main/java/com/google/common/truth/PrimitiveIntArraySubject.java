@@ -33,4 +33,31 @@ public final class PrimitiveIntArraySubject
   public IterableSubject asList() {
     return checkNoNeedToDisplayBothValues("asList()").that(Ints.asList(actual()));
   }
+
+  /**
+   * Fails if the array is not ordered. Ordered means that each element in the array is greater
+   * than or equal to the element that preceded it. Large arrays are checked in parallel.
+   */
+  public void isOrdered() {
+    checkOrdered("expected to be ordered", OrderScan.of(actual(), false));
+  }
+
+  /**
+   * Fails if the array is not strictly ordered. Strictly ordered means that each element in the
+   * array is <i>strictly</i> greater than the element that preceded it. Large arrays are checked
+   * in parallel.
+   */
+  public void isStrictlyOrdered() {
+    checkOrdered("expected to be strictly ordered", OrderScan.of(actual(), true));
+  }
+
+  /**
+   * Fails if the array contains any element more than once. Elements are compared without being
+   * boxed, using a primitive hash set.
+   */
+  public void containsNoDuplicates() {
+    if (PrimitiveHashSet.hasDuplicate(actual())) {
+      failContainsDuplicates(Ints.asList(actual()));
+    }
+  }
 }
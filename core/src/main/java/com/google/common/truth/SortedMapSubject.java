@@ -15,12 +15,16 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.BoundType.CLOSED;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ForwardingSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Range;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map.Entry;
@@ -193,6 +197,36 @@ public final class SortedMapSubject extends MapSubject {
     }
   }
 
+  /**
+   * Returns a {@link SortedMapSubject} for the entries of the map whose keys are in {@code range},
+   * as compared by the map's comparator. The returned subject operates on a {@linkplain
+   * NavigableMap#subMap(Object, boolean, Object, boolean) view} of the map rather than a copy, so
+   * assertions about a window of a large map (like {@link #hasFirstKey}, or {@code hasSize} or
+   * {@code containsExactly} on a {@link java.util.TreeMap}) cost time proportional to the size of
+   * the window rather than that of the map.
+   */
+  public SortedMapSubject inKeyRange(Range<?> range) {
+    checkNotNull(range);
+    @SuppressWarnings("unchecked") // We only read from the view, with keys the caller provided.
+    NavigableMap<Object, ?> map = (NavigableMap<Object, ?>) actualAsNavigableMap();
+    NavigableMap<Object, ?> view;
+    if (range.hasLowerBound() && range.hasUpperBound()) {
+      view =
+          map.subMap(
+              range.lowerEndpoint(),
+              range.lowerBoundType() == CLOSED,
+              range.upperEndpoint(),
+              range.upperBoundType() == CLOSED);
+    } else if (range.hasLowerBound()) {
+      view = map.tailMap(range.lowerEndpoint(), range.lowerBoundType() == CLOSED);
+    } else if (range.hasUpperBound()) {
+      view = map.headMap(range.upperEndpoint(), range.upperBoundType() == CLOSED);
+    } else {
+      view = map;
+    }
+    return check("inKeyRange(%s)", range).that(view);
+  }
+
   /**
    * Provides access to the actual value via {@link NavigableMap}'s API. This may or may be the same
    * object as returned by {@link #actual}, therefore you should avoid identity (e.g. {@code ==}) or
@@ -270,7 +304,7 @@ public final class SortedMapSubject extends MapSubject {
 
     @Override
     public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      return wrapIfNecessary(range(false, null, false, true, toKey, inclusive));
     }
 
     @Override
@@ -322,12 +356,71 @@ public final class SortedMapSubject extends MapSubject {
     @Override
     public NavigableMap<K, V> subMap(
         K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
-      throw new UnsupportedOperationException();
+      checkArgument(compare(fromKey, toKey) <= 0, "fromKey (%s) > toKey (%s)", fromKey, toKey);
+      return wrapIfNecessary(range(true, fromKey, fromInclusive, true, toKey, toInclusive));
     }
 
     @Override
     public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      return wrapIfNecessary(range(true, fromKey, inclusive, false, null, false));
+    }
+
+    /*
+     * SortedMap's views have only inclusive lower bounds and exclusive upper bounds. So to exclude
+     * a lower bound that is present, we start the view at the key after it, and to include an
+     * upper bound that is present, we end it at the key after that one. Each costs only a lookup
+     * and a step of iteration. Both endpoints are adjusted before taking a single view of the
+     * delegate, since a view can't be narrowed with keys outside its own bounds.
+     */
+
+    private SortedMap<K, V> range(
+        boolean hasLowerBound,
+        @NullableDecl K fromKey,
+        boolean fromInclusive,
+        boolean hasUpperBound,
+        @NullableDecl K toKey,
+        boolean toInclusive) {
+      K lower = fromKey;
+      if (hasLowerBound && !fromInclusive) {
+        Iterator<K> keys = delegate().tailMap(fromKey).keySet().iterator();
+        if (keys.hasNext() && compare(keys.next(), fromKey) == 0) {
+          if (!keys.hasNext()) {
+            // The excluded bound is the last key, so the range is empty.
+            return delegate().subMap(fromKey, fromKey);
+          }
+          lower = keys.next();
+        }
+      }
+      K upper = toKey;
+      if (hasUpperBound && toInclusive) {
+        Iterator<K> keys = delegate().tailMap(toKey).keySet().iterator();
+        if (keys.hasNext() && compare(keys.next(), toKey) == 0) {
+          if (keys.hasNext()) {
+            upper = keys.next();
+          } else {
+            // The included bound is the last key, so the range extends to the end of the map.
+            hasUpperBound = false;
+          }
+        }
+      }
+      if (hasLowerBound && hasUpperBound) {
+        // Excluding the lower bound may have moved it past the upper bound.
+        return compare(lower, upper) < 0
+            ? delegate().subMap(lower, upper)
+            : delegate().subMap(lower, lower);
+      } else if (hasLowerBound) {
+        return delegate().tailMap(lower);
+      } else if (hasUpperBound) {
+        return delegate().headMap(upper);
+      } else {
+        return delegate();
+      }
+    }
+
+    @SuppressWarnings("unchecked") // a null comparator means the keys are Comparable
+    private int compare(K a, K b) {
+      Comparator<? super K> comparator = delegate().comparator();
+      return comparator == null ? ((Comparable<Object>) a).compareTo(b) : comparator.compare(a, b);
     }
   }
 }
@@ -15,10 +15,14 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.BoundType.CLOSED;
 
 import com.google.common.base.Objects;
 import com.google.common.collect.ForwardingSortedSet;
+import com.google.common.collect.Range;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NavigableSet;
 import java.util.SortedSet;
@@ -88,6 +92,36 @@ public final class SortedSetSubject extends IterableSubject {
     }
   }
 
+  /**
+   * Returns a {@link SortedSetSubject} for the elements of the set which are in {@code range}, as
+   * compared by the set's comparator. The returned subject operates on a {@linkplain
+   * NavigableSet#subSet(Object, boolean, Object, boolean) view} of the set rather than a copy, so
+   * assertions about a window of a large set (like {@link #hasFirstElement}, or {@code hasSize} or
+   * {@code containsExactly} on a {@link java.util.TreeSet}) cost time proportional to the size of
+   * the window rather than that of the set.
+   */
+  public SortedSetSubject inRange(Range<?> range) {
+    checkNotNull(range);
+    @SuppressWarnings("unchecked") // We only read from the view, with elements the caller provided.
+    NavigableSet<Object> set = (NavigableSet<Object>) actualAsNavigableSet();
+    NavigableSet<Object> view;
+    if (range.hasLowerBound() && range.hasUpperBound()) {
+      view =
+          set.subSet(
+              range.lowerEndpoint(),
+              range.lowerBoundType() == CLOSED,
+              range.upperEndpoint(),
+              range.upperBoundType() == CLOSED);
+    } else if (range.hasLowerBound()) {
+      view = set.tailSet(range.lowerEndpoint(), range.lowerBoundType() == CLOSED);
+    } else if (range.hasUpperBound()) {
+      view = set.headSet(range.upperEndpoint(), range.upperBoundType() == CLOSED);
+    } else {
+      view = set;
+    }
+    return check("inRange(%s)", range).that(view);
+  }
+
   /**
    * Provides access to the actual value via {@link NavigableSet}'s API. This may or may be the same
    * object as returned by {@link #actual}, therefore you should avoid identity (e.g. {@code ==}) or
@@ -149,7 +183,7 @@ public final class SortedSetSubject extends IterableSubject {
 
     @Override
     public NavigableSet<E> headSet(E toElement, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      return wrapIfNecessary(range(false, null, false, true, toElement, inclusive));
     }
 
     @Override
@@ -175,12 +209,76 @@ public final class SortedSetSubject extends IterableSubject {
     @Override
     public NavigableSet<E> subSet(
         E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
-      throw new UnsupportedOperationException();
+      checkArgument(
+          compare(fromElement, toElement) <= 0,
+          "fromElement (%s) > toElement (%s)",
+          fromElement,
+          toElement);
+      return wrapIfNecessary(
+          range(true, fromElement, fromInclusive, true, toElement, toInclusive));
     }
 
     @Override
     public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
-      throw new UnsupportedOperationException();
+      return wrapIfNecessary(range(true, fromElement, inclusive, false, null, false));
+    }
+
+    /*
+     * SortedSet's views have only inclusive lower bounds and exclusive upper bounds. So to exclude
+     * a lower bound that is present, we start the view at the element after it, and to include an
+     * upper bound that is present, we end it at the element after that one. Each costs only a
+     * lookup and a step of iteration. Both endpoints are adjusted before taking a single view of
+     * the delegate, since a view can't be narrowed with elements outside its own bounds.
+     */
+
+    private SortedSet<E> range(
+        boolean hasLowerBound,
+        @NullableDecl E fromElement,
+        boolean fromInclusive,
+        boolean hasUpperBound,
+        @NullableDecl E toElement,
+        boolean toInclusive) {
+      E lower = fromElement;
+      if (hasLowerBound && !fromInclusive) {
+        Iterator<E> elements = delegate().tailSet(fromElement).iterator();
+        if (elements.hasNext() && compare(elements.next(), fromElement) == 0) {
+          if (!elements.hasNext()) {
+            // The excluded bound is the last element, so the range is empty.
+            return delegate().subSet(fromElement, fromElement);
+          }
+          lower = elements.next();
+        }
+      }
+      E upper = toElement;
+      if (hasUpperBound && toInclusive) {
+        Iterator<E> elements = delegate().tailSet(toElement).iterator();
+        if (elements.hasNext() && compare(elements.next(), toElement) == 0) {
+          if (elements.hasNext()) {
+            upper = elements.next();
+          } else {
+            // The included bound is the last element, so the range extends to the end of the set.
+            hasUpperBound = false;
+          }
+        }
+      }
+      if (hasLowerBound && hasUpperBound) {
+        // Excluding the lower bound may have moved it past the upper bound.
+        return compare(lower, upper) < 0
+            ? delegate().subSet(lower, upper)
+            : delegate().subSet(lower, lower);
+      } else if (hasLowerBound) {
+        return delegate().tailSet(lower);
+      } else if (hasUpperBound) {
+        return delegate().headSet(upper);
+      } else {
+        return delegate();
+      }
+    }
+
+    @SuppressWarnings("unchecked") // a null comparator means the elements are Comparable
+    private int compare(E a, E b) {
+      Comparator<? super E> comparator = delegate().comparator();
+      return comparator == null ? ((Comparable<Object>) a).compareTo(b) : comparator.compare(a, b);
     }
   }
 }
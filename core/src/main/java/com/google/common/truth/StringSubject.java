@@ -21,6 +21,7 @@ import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.CacheStats;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
@@ -51,7 +52,7 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
   /** Fails if the string does not have the given length. */
   public void hasLength(int expectedLength) {
     checkArgument(expectedLength >= 0, "expectedLength(%s) must be >= 0", expectedLength);
-    check("length()").that(actual().length()).isEqualTo(expectedLength);
+    checkSize("length()", actual().length(), expectedLength);
   }
 
   /** Fails if the string is not equal to the zero-length "empty string." */
@@ -116,7 +117,7 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
 
   /** Fails if the string does not match the given regex. */
   public void matches(String regex) {
-    if (!actual().matches(regex)) {
+    if (!Platform.matches(actual(), regex)) {
       failWithActual("expected to match", regex);
     }
   }
@@ -131,7 +132,7 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
 
   /** Fails if the string matches the given regex. */
   public void doesNotMatch(String regex) {
-    if (actual().matches(regex)) {
+    if (Platform.matches(actual(), regex)) {
       failWithActual("expected not to match", regex);
     }
   }
@@ -174,6 +175,17 @@ public class StringSubject extends ComparableSubject<StringSubject, String> {
     }
   }
 
+  /**
+   * Returns statistics for the cache of compiled patterns used by the methods which accept a regex
+   * as a {@code String}, like {@link #matches(String)}. By default, the cache holds up to 1000
+   * patterns. The system property {@code com.google.common.truth.regex_cache_size} overrides that,
+   * and setting it to 0 disables caching.
+   */
+  @GwtIncompatible("java.util.regex.Pattern")
+  public static CacheStats regexCacheStats() {
+    return Platform.patternCacheStats();
+  }
+
   /**
    * Returns a {@link StringSubject}-like instance that will ignore the case of the characters.
    *
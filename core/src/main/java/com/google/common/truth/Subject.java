@@ -96,7 +96,12 @@ public class Subject<S extends Subject<S, T>, T> {
         public void fail(AssertionError failure) {}
       };
 
-  private final FailureMetadata metadata;
+  /*
+   * The metadata we were created with, *not* including this subject. We derive the full metadata
+   * with metadata() only when it's needed -- on failure or when creating a derived subject -- so
+   * that an assertion that passes doesn't allocate anything beyond the subject itself.
+   */
+  private final FailureMetadata metadataWithoutThisSubject;
   private final T actual;
   private String customName = null;
   @NullableDecl private final String typeDescriptionOverride;
@@ -124,11 +129,15 @@ public class Subject<S extends Subject<S, T>, T> {
       FailureMetadata metadata,
       @NullableDecl T actual,
       @NullableDecl String typeDescriptionOverride) {
-    this.metadata = metadata.updateForSubject(this);
+    this.metadataWithoutThisSubject = checkNotNull(metadata);
     this.actual = actual;
     this.typeDescriptionOverride = typeDescriptionOverride;
   }
 
+  private FailureMetadata metadata() {
+    return metadataWithoutThisSubject.updateForSubject(this);
+  }
+
   /** An internal method used to obtain the value set by {@link #named(String, Object...)}. */
   protected String internalCustomName() {
     return customName;
@@ -404,7 +413,7 @@ public class Subject<S extends Subject<S, T>, T> {
    * again (though there's still a question of what to do with the angle brackets).
    */
   protected final String actualAsString() {
-    String formatted = actualCustomStringRepresentation();
+    String formatted = ToStringCache.actualStringOf(this);
     if (customName != null) {
       // Covers some rare cases where a type might return "" from their custom formatter.
       // This is actually pretty terrible, as it comes from subjects overriding (formerly)
@@ -420,7 +429,7 @@ public class Subject<S extends Subject<S, T>, T> {
 
   /** Like {@link #actualAsString()} but without angle brackets around the value. */
   final String actualAsStringNoBrackets() {
-    String formatted = actualCustomStringRepresentation();
+    String formatted = ToStringCache.actualStringOf(this);
     if (customName != null) {
       return customName + (formatted.isEmpty() ? "" : " (" + formatted + ")");
     } else {
@@ -454,7 +463,7 @@ public class Subject<S extends Subject<S, T>, T> {
   }
 
   final String actualCustomStringRepresentationForPackageMembersToCall() {
-    return actualCustomStringRepresentation();
+    return ToStringCache.actualStringOf(this);
   }
 
   private final String formatActualOrExpected(@NullableDecl Object o) {
@@ -690,7 +699,7 @@ public class Subject<S extends Subject<S, T>, T> {
    * information by using {@linkplain #check(String, Object...) the other overload}.
    */
   protected final StandardSubjectBuilder check() {
-    return new StandardSubjectBuilder(metadata.updateForCheckCall());
+    return new StandardSubjectBuilder(metadata().updateForCheckCall());
   }
 
   /**
@@ -743,7 +752,19 @@ public class Subject<S extends Subject<S, T>, T> {
           }
         };
     return new StandardSubjectBuilder(
-        metadata.updateForCheckCall(valuesAreSimilar, descriptionUpdate));
+        metadata().updateForCheckCall(valuesAreSimilar, descriptionUpdate));
+  }
+
+  /**
+   * Fails unless {@code actualSize}, the value of the method described by {@code sizeMethod} (like
+   * {@code "size()"}), equals {@code expectedSize}. Size-style assertions use this rather than
+   * {@code check(sizeMethod).that(actualSize).isEqualTo(expectedSize)} because the derived subject
+   * is created only if the sizes differ, so that a passing assertion allocates nothing for it.
+   */
+  final void checkSize(String sizeMethod, long actualSize, long expectedSize) {
+    if (actualSize != expectedSize) {
+      check(sizeMethod).that(actualSize).isEqualTo(expectedSize);
+    }
   }
 
   /**
@@ -896,7 +917,7 @@ public class Subject<S extends Subject<S, T>, T> {
       }
     } else {
       if (equalityCheck == EqualityCheck.EQUAL && actual() != null && expected != null) {
-        metadata.failEqualityCheck(
+        metadata().failEqualityCheck(
             nameAsFacts(), difference.factsOrEmpty(), expectedString, actualString);
       } else {
         failEqualityCheckNoComparisonFailure(
@@ -1023,7 +1044,7 @@ public class Subject<S extends Subject<S, T>, T> {
    */
   @Deprecated
   protected final void failWithRawMessageAndCause(String message, Throwable cause) {
-    metadata.fail(message, cause);
+    metadata().fail(message, cause);
   }
 
   /**
@@ -1039,7 +1060,7 @@ public class Subject<S extends Subject<S, T>, T> {
    */
   @Deprecated
   protected final void failComparing(String message, CharSequence expected, CharSequence actual) {
-    metadata.failComparing(message, expected, actual);
+    metadata().failComparing(message, expected, actual);
   }
 
   /**
@@ -1054,7 +1075,7 @@ public class Subject<S extends Subject<S, T>, T> {
   @Deprecated
   protected final void failComparing(
       String message, CharSequence expected, CharSequence actual, Throwable cause) {
-    metadata.failComparing(message, expected, actual, cause);
+    metadata().failComparing(message, expected, actual, cause);
   }
 
   /**
@@ -1102,7 +1123,7 @@ public class Subject<S extends Subject<S, T>, T> {
    * probably not enough reason to avoid adding this, but we can hold it back for now.
    */
   final Fact butWas() {
-    return fact("but was", actualCustomStringRepresentation());
+    return fact("but was", ToStringCache.actualStringOf(this));
   }
 
   /*
@@ -1142,7 +1163,7 @@ public class Subject<S extends Subject<S, T>, T> {
   }
 
   private void doFail(ImmutableList<Fact> facts) {
-    metadata.fail(prependNameIfAny(facts));
+    metadata().fail(prependNameIfAny(facts));
   }
 
   private ImmutableList<Fact> prependNameIfAny(ImmutableList<Fact> facts) {
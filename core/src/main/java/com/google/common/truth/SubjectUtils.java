@@ -30,12 +30,17 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultiset;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multiset;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.SetMultimap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
  * Utility methods used in {@code Subject<T>} implementors.
@@ -84,7 +89,7 @@ final class SubjectUtils {
 
   static String entryString(Multiset.Entry<?> entry) {
     int count = entry.getCount();
-    String item = String.valueOf(entry.getElement());
+    String item = ToStringCache.stringOf(entry.getElement());
     return (count > 1) ? item + " [" + count + " copies]" : item;
   }
 
@@ -263,12 +268,12 @@ final class SubjectUtils {
   static List<Object> retainMatchingToString(Iterable<?> items, Iterable<?> itemsToCheck) {
     SetMultimap<String, Object> stringValueToItemsToCheck = HashMultimap.create();
     for (Object itemToCheck : itemsToCheck) {
-      stringValueToItemsToCheck.put(String.valueOf(itemToCheck), itemToCheck);
+      stringValueToItemsToCheck.put(ToStringCache.stringOf(itemToCheck), itemToCheck);
     }
 
     List<Object> result = Lists.newArrayList();
     for (Object item : items) {
-      for (Object itemToCheck : stringValueToItemsToCheck.get(String.valueOf(item))) {
+      for (Object itemToCheck : stringValueToItemsToCheck.get(ToStringCache.stringOf(item))) {
         if (!Objects.equal(itemToCheck, item)) {
           result.add(item);
           break;
@@ -334,7 +339,7 @@ final class SubjectUtils {
   private static List<String> addTypeInfoToEveryItem(Iterable<?> items) {
     List<String> itemsWithTypeInfo = Lists.newArrayList();
     for (Object item : items) {
-      itemsWithTypeInfo.add(StringUtil.format("%s (%s)", item, objectToTypeName(item)));
+      itemsWithTypeInfo.add(ToStringCache.stringOf(item) + " (" + objectToTypeName(item) + ")");
     }
     return itemsWithTypeInfo;
   }
@@ -398,4 +403,36 @@ final class SubjectUtils {
   static <E> ImmutableList<E> append(ImmutableList<? extends E> list, E object) {
     return new ImmutableList.Builder<E>().addAll(list).add(object).build();
   }
+
+  /**
+   * Returns the order in which both {@code a} and {@code b} are sorted, if they are both {@link
+   * SortedSet} instances or both {@link SortedMap} instances, and their comparators are equal.
+   * Otherwise, returns null. Natural ordering is returned as {@link Ordering#natural}.
+   *
+   * <p>Two such collections can be compared by walking them side by side, as in the merge step of a
+   * merge sort, with no hashing or copying.
+   */
+  @NullableDecl
+  static Comparator<Object> sharedSortOrder(@NullableDecl Object a, @NullableDecl Object b) {
+    Comparator<?> aComparator;
+    Comparator<?> bComparator;
+    if (a instanceof SortedSet && b instanceof SortedSet) {
+      aComparator = ((SortedSet<?>) a).comparator();
+      bComparator = ((SortedSet<?>) b).comparator();
+    } else if (a instanceof SortedMap && b instanceof SortedMap) {
+      aComparator = ((SortedMap<?, ?>) a).comparator();
+      bComparator = ((SortedMap<?, ?>) b).comparator();
+    } else {
+      return null;
+    }
+    aComparator = aComparator == null ? Ordering.natural() : aComparator;
+    bComparator = bComparator == null ? Ordering.natural() : bComparator;
+    if (!aComparator.equals(bComparator)) {
+      return null;
+    }
+    // This is safe because both collections contain only elements (or keys) it accepts.
+    @SuppressWarnings("unchecked")
+    Comparator<Object> comparator = (Comparator<Object>) aComparator;
+    return comparator;
+  }
 }
@@ -17,11 +17,20 @@ package com.google.common.truth;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
 import static com.google.common.truth.Fact.simpleFact;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import com.google.common.collect.Tables;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -30,6 +39,9 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  * @author Kurt Alfred Kluever
  */
 public final class TableSubject extends Subject<TableSubject, Table<?, ?, ?>> {
+  /** The number of differing rows to show in a failure message. */
+  static final int MAX_REPORTED_ROWS = 10;
+
   TableSubject(FailureMetadata metadata, @NullableDecl Table<?, ?, ?> table) {
     super(metadata, table);
   }
@@ -51,7 +63,7 @@ public final class TableSubject extends Subject<TableSubject, Table<?, ?, ?>> {
   /** Fails if the table does not have the given size. */
   public final void hasSize(int expectedSize) {
     checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
-    check("size()").that(actual().size()).isEqualTo(expectedSize);
+    checkSize("size()", actual().size(), expectedSize);
   }
 
   /** Fails if the table does not contain a mapping for the given row key and column key. */
@@ -104,6 +116,95 @@ public final class TableSubject extends Subject<TableSubject, Table<?, ?, ?>> {
 
   /** Fails if the table does not contain the given value. */
   public void containsValue(@NullableDecl Object value) {
-    check("values()").that(actual().values()).contains(value);
+    // Table.containsValue stops at the first match, without copying or stringifying any values.
+    if (!actual().containsValue(value)) {
+      check("values()").that(actual().values()).contains(value);
+    }
+  }
+
+  /**
+   * Fails if the table does not contain exactly the given cells, that is, if it is not equal to
+   * {@code expected} according to {@link Table#equals}.
+   *
+   * <p>The tables are compared a row at a time, by looking up each row of one in the {@link
+   * Table#rowMap} of the other, so the comparison takes time proportional to the number of cells.
+   * The failure message lists the missing, unexpected, and wrong-valued cells of each differing
+   * row, for the first {@value #MAX_REPORTED_ROWS} such rows.
+   */
+  public void containsExactlyCellsIn(Table<?, ?, ?> expected) {
+    checkNotNull(expected);
+    Map<?, ? extends Map<?, ?>> actualRows = actual().rowMap();
+    Map<?, ? extends Map<?, ?>> expectedRows = expected.rowMap();
+    List<Fact> rowFacts = new ArrayList<>();
+    int differingRowCount = 0;
+    for (Entry<?, ? extends Map<?, ?>> expectedRow : expectedRows.entrySet()) {
+      Map<?, ?> actualRow = actualRows.get(expectedRow.getKey());
+      if (actualRow == null) {
+        actualRow = Collections.emptyMap();
+      }
+      String difference = describeRowDifference(actualRow, expectedRow.getValue());
+      if (difference != null && differingRowCount++ < MAX_REPORTED_ROWS) {
+        rowFacts.add(fact("row " + expectedRow.getKey(), difference));
+      }
+    }
+    for (Entry<?, ? extends Map<?, ?>> actualRow : actualRows.entrySet()) {
+      if (!expectedRows.containsKey(actualRow.getKey())) {
+        String difference = describeRowDifference(actualRow.getValue(), Collections.emptyMap());
+        if (differingRowCount++ < MAX_REPORTED_ROWS) {
+          rowFacts.add(fact("row " + actualRow.getKey(), difference));
+        }
+      }
+    }
+    if (differingRowCount > 0) {
+      List<Fact> facts = new ArrayList<>();
+      facts.add(fact("but the number of rows which differed was", differingRowCount));
+      facts.addAll(rowFacts);
+      facts.add(fact("expected size", expected.size()));
+      facts.add(fact("actual size", actual().size()));
+      failWithoutActual(
+          simpleFact("expected to contain exactly the given cells"), facts.toArray(new Fact[0]));
+    }
+  }
+
+  /**
+   * Returns a description of the cells which differ between two rows, or null if the rows are
+   * equal. Equal rows, which are the common case, cost a single {@link Map#equals} call.
+   */
+  @NullableDecl
+  private static String describeRowDifference(Map<?, ?> actualRow, Map<?, ?> expectedRow) {
+    if (actualRow.equals(expectedRow)) {
+      return null;
+    }
+    Map<Object, Object> missing = new LinkedHashMap<>();
+    Map<Object, Object> wrongValues = new LinkedHashMap<>();
+    for (Entry<?, ?> expectedCell : expectedRow.entrySet()) {
+      Object column = expectedCell.getKey();
+      if (!actualRow.containsKey(column)) {
+        missing.put(column, expectedCell.getValue());
+      } else {
+        Object actualValue = actualRow.get(column);
+        if (!Objects.equal(actualValue, expectedCell.getValue())) {
+          wrongValues.put(
+              column, "expected " + expectedCell.getValue() + " but was " + actualValue);
+        }
+      }
+    }
+    Map<Object, Object> unexpected = new LinkedHashMap<>();
+    for (Entry<?, ?> actualCell : actualRow.entrySet()) {
+      if (!expectedRow.containsKey(actualCell.getKey())) {
+        unexpected.put(actualCell.getKey(), actualCell.getValue());
+      }
+    }
+    List<String> parts = new ArrayList<>();
+    if (!missing.isEmpty()) {
+      parts.add("missing " + missing);
+    }
+    if (!unexpected.isEmpty()) {
+      parts.add("unexpected " + unexpected);
+    }
+    if (!wrongValues.isEmpty()) {
+      parts.add("wrong values " + wrongValues);
+    }
+    return Joiner.on("; ").join(parts);
   }
 }
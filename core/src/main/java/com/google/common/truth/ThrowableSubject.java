@@ -15,6 +15,9 @@
  */
 package com.google.common.truth;
 
+import com.google.common.collect.Sets;
+import java.util.ArrayList;
+import java.util.List;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -83,4 +86,30 @@ public class ThrowableSubject extends Subject<ThrowableSubject, Throwable> {
     }
     return check("getCause()").that(actual().getCause());
   }
+
+  /**
+   * Returns a {@code CausalChainSubject} to make assertions about this throwable, its causes and
+   * its suppressed exceptions, and theirs, all at once. The chain is collected in a single
+   * traversal, which visits each throwable once even if they refer to each other in a cycle. For
+   * example, to assert about the root cause of a deeply wrapped exception, use {@code
+   * assertThat(e).causalChain().hasRootCauseThat()} rather than chaining {@link #hasCauseThat}.
+   *
+   * <p>Like {@link #hasCauseThat}, this fails if the throwable is null, rather than making
+   * assertions about an empty chain.
+   */
+  public final CausalChainSubject causalChain() {
+    if (actual() == null) {
+      check("causalChain()").fail("Causal chain is not deep enough - add a .isNotNull() check?");
+      return (CausalChainSubject)
+          ignoreCheck()
+              .about(CausalChainSubject.causalChains(null))
+              .that(new ArrayList<Throwable>());
+    }
+    List<Throwable> throwables = new ArrayList<>();
+    Throwable rootCause =
+        CausalChainSubject.collect(actual(), throwables, Sets.<Throwable>newIdentityHashSet());
+    // The factory creates only CausalChainSubject instances.
+    return (CausalChainSubject)
+        check("causalChain()").about(CausalChainSubject.causalChains(rootCause)).that(throwables);
+  }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Memoizes the string representations of the values which go into a single failure message.
+ *
+ * <p>Formatting a failure typically stringifies the same elements several times: once to look for
+ * elements with matching {@code toString()} values, again to list the missing or unexpected ones,
+ * and again to show the full actual value. For values with expensive {@code toString()}
+ * implementations, like large protos, that can dominate the cost of the failure. So code which
+ * builds a failure message does so between {@link #enter} and {@link #exit}, and stringifies values
+ * with {@link #stringOf}, which computes each value's string (keyed by identity) at most once in
+ * that span.
+ *
+ * <p>Outside such a span, {@link #stringOf} is just {@link String#valueOf(Object)}. Spans are
+ * confined to a thread, and don't nest: {@link #enter} called within a span leaves it in place.
+ * Values must not be mutated within a span, which failure-formatting code has no reason to do.
+ */
+final class ToStringCache {
+  private final Map<Object, String> strings = new IdentityHashMap<>();
+  private final Map<Subject<?, ?>, String> actualStrings = new IdentityHashMap<>();
+
+  private ToStringCache() {}
+
+  /**
+   * Starts memoizing on the current thread, if it isn't already. Returns whether it wasn't, which
+   * should be passed to the matching call to {@link #exit}, in a {@code finally} block.
+   */
+  static boolean enter() {
+    if (Platform.getToStringCache() != null) {
+      return false;
+    }
+    Platform.setToStringCache(new ToStringCache());
+    return true;
+  }
+
+  /** Stops memoizing on the current thread, if {@code entered}, discarding all memoized strings. */
+  static void exit(boolean entered) {
+    if (entered) {
+      Platform.setToStringCache(null);
+    }
+  }
+
+  /** Returns {@code String.valueOf(value)}, memoized if in a span. */
+  static String stringOf(@NullableDecl Object value) {
+    ToStringCache cache = Platform.getToStringCache();
+    if (cache == null || value == null || value instanceof String) {
+      return String.valueOf(value);
+    }
+    String string = cache.strings.get(value);
+    if (string == null) {
+      string = String.valueOf(value);
+      cache.strings.put(value, string);
+    }
+    return string;
+  }
+
+  /** Returns {@code subject.actualCustomStringRepresentation()}, memoized if in a span. */
+  static String actualStringOf(Subject<?, ?> subject) {
+    ToStringCache cache = Platform.getToStringCache();
+    if (cache == null) {
+      return subject.actualCustomStringRepresentation();
+    }
+    String string = cache.actualStrings.get(subject);
+    if (string == null) {
+      string = subject.actualCustomStringRepresentation();
+      cache.actualStrings.put(subject, string);
+    }
+    return string;
+  }
+}
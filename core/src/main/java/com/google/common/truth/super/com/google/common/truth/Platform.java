@@ -89,6 +89,27 @@ final class Platform {
     }
   }
 
+  // There's only one thread under GWT.
+  @NullableDecl private static ToStringCache toStringCache;
+
+  @NullableDecl
+  static ToStringCache getToStringCache() {
+    return toStringCache;
+  }
+
+  static void setToStringCache(@NullableDecl ToStringCache cache) {
+    toStringCache = cache;
+  }
+
+  static int firstUnorderedPair(OrderScan scan) {
+    return scan.firstUnorderedPair(0, scan.pairCount());
+  }
+
+  /** Determines if the given subject matches the given regex. */
+  static boolean matches(String subject, String regex) {
+    return subject.matches(regex);
+  }
+
   /** Determines if the given subject contains a match for the given regex. */
   static boolean containsMatch(String subject, String regex) {
     return compile(regex).test(subject);
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests that passing assertions allocate little, so that a change which puts an allocation back on
+ * the passing path (such as recording the subject in its {@link FailureMetadata} eagerly) fails.
+ *
+ * <p>The bytes allocated by the test thread are read from {@code com.sun.management.ThreadMXBean},
+ * so the tests are skipped on JVMs which don't provide it.
+ */
+@RunWith(JUnit4.class)
+@GwtIncompatible("com.sun.management.ThreadMXBean")
+public class AllocationTest {
+  private static final int WARM_UP_ITERATIONS = 200000;
+  private static final int ITERATIONS = 100000;
+
+  /*
+   * Once the JIT has compiled an assertion, escape analysis usually removes the subject too, and
+   * nothing is allocated at all. Without it (in an interpreter, say), the subject itself is still
+   * allocated, but the bound stays below the cost of also recording it in a FailureMetadata chain.
+   */
+  private static final long MAX_BYTES_PER_ASSERTION = 48;
+
+  private com.sun.management.ThreadMXBean threadBean;
+
+  @Before
+  public void setUp() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  public void passingIsEqualTo() {
+    final Object actual = "foo";
+    assertThat(
+            bytesPerAssertion(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    assertThat(actual).isEqualTo("foo");
+                  }
+                }))
+        .isAtMost(MAX_BYTES_PER_ASSERTION);
+  }
+
+  @Test
+  public void passingIsTrue() {
+    final boolean actual = true;
+    assertThat(
+            bytesPerAssertion(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    assertThat(actual).isTrue();
+                  }
+                }))
+        .isAtMost(MAX_BYTES_PER_ASSERTION);
+  }
+
+  @Test
+  public void passingContains() {
+    final List<String> actual = ImmutableList.of("a", "b", "c");
+    assertThat(
+            bytesPerAssertion(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    assertThat(actual).contains("c");
+                  }
+                }))
+        .isAtMost(MAX_BYTES_PER_ASSERTION);
+  }
+
+  @Test
+  public void passingHasSize() {
+    final List<String> actual = ImmutableList.of("a", "b", "c");
+    assertThat(
+            bytesPerAssertion(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    assertThat(actual).hasSize(3);
+                  }
+                }))
+        .isAtMost(MAX_BYTES_PER_ASSERTION);
+  }
+
+  /** Runs {@code assertion} until it is warmed up, and returns the bytes it then allocates. */
+  private long bytesPerAssertion(Runnable assertion) {
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      assertion.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < ITERATIONS; i++) {
+      assertion.run();
+    }
+    return (threadBean.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+  }
+}
@@ -16,9 +16,14 @@
 package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.Assert.fail;
 
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.truth.AtomicLongMapSubject.SnapshotAssertion;
 import com.google.common.util.concurrent.AtomicLongMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -259,6 +264,132 @@ public final class AtomicLongMapSubjectTest extends BaseSubjectTestCase {
         .isEqualTo("Not true that <{kurt=1}> contains entry <kurt=2>");
   }
 
+  @Test
+  public void snapshot() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("a", 1);
+    actual.put("b", 2);
+    AtomicLongMapSubject snapshot = assertThat(actual).snapshot();
+    actual.put("c", 3);
+    actual.remove("a");
+
+    snapshot.hasSize(2);
+    snapshot.hasSum(3);
+    snapshot.containsKey("a");
+    snapshot.doesNotContainKey("c");
+    snapshot.containsEntry("a", 1);
+    snapshot.containsEntry("c", 0);
+    snapshot.doesNotContainEntry("b", 0);
+    snapshot.isNotEmpty();
+  }
+
+  @Test
+  public void snapshotManyKeys() {
+    AtomicLongMap<Integer> actual = AtomicLongMap.create();
+    long sum = 0;
+    for (int i = 0; i < 1000; i++) {
+      // Keys which differ only in their high bits must still spread across the table.
+      actual.put(i << 16, i);
+      sum += i;
+    }
+    AtomicLongMapSubject snapshot = assertThat(actual).snapshot();
+    snapshot.hasSize(1000);
+    snapshot.hasSum(sum);
+    for (int i = 0; i < 1000; i++) {
+      snapshot.containsEntry(i << 16, i);
+    }
+    snapshot.doesNotContainKey(1);
+  }
+
+  @Test
+  public void snapshotIsEmpty() {
+    assertThat(AtomicLongMap.create()).snapshot().isEmpty();
+  }
+
+  @Test
+  public void snapshotFailureShowsSnapshot() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("a", 1);
+    AtomicLongMapSubject snapshot = expectFailureWhenTestingThat(actual).snapshot();
+    actual.put("a", 5);
+    snapshot.containsEntry("a", 5);
+    assertThat(expectFailure.getFailure().getMessage())
+        .contains("Not true that <{a=1}> contains entry <a=5>");
+    // The original map is shown, too, as it is at the time of the failure.
+    assertFailureValue("atomicLongMap was", "{a=5}");
+  }
+
+  @Test
+  public void snapshotHasSumFailure() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("a", 1);
+    actual.put("b", 2);
+    expectFailureWhenTestingThat(actual).snapshot().hasSum(4);
+    assertFailureKeys("value of", "expected", "but was", "atomicLongMap was");
+    assertFailureValue("value of", "atomicLongMap.snapshot().sum()");
+    assertFailureValue("but was", "3");
+    assertFailureValue("atomicLongMap was", "{a=1, b=2}");
+  }
+
+  @Test
+  public void snapshotContainsKeyFailure() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("a", 1);
+    expectFailureWhenTestingThat(actual).snapshot().containsKey("b");
+    assertFailureValue("value of", "atomicLongMap.snapshot().asMap().keySet()");
+    assertFailureValue("expected to contain", "b");
+  }
+
+  @Test
+  @GwtIncompatible("Thread")
+  public void eventually() throws InterruptedException {
+    final AtomicLongMap<String> actual = AtomicLongMap.create();
+    Thread updater =
+        new Thread() {
+          @Override
+          public void run() {
+            for (int i = 0; i < 1000; i++) {
+              actual.incrementAndGet("count");
+            }
+          }
+        };
+    updater.start();
+    assertThat(actual)
+        .eventually(
+            10,
+            SECONDS,
+            new SnapshotAssertion() {
+              @Override
+              public void invokeAssertion(AtomicLongMapSubject snapshot) {
+                snapshot.containsEntry("count", 1000);
+                snapshot.hasSum(1000);
+              }
+            });
+    updater.join();
+  }
+
+  @Test
+  @GwtIncompatible("Thread.sleep")
+  public void eventuallyFailure() {
+    AtomicLongMap<String> actual = AtomicLongMap.create();
+    actual.put("count", 1);
+    final AtomicInteger attempts = new AtomicInteger();
+    expectFailureWhenTestingThat(actual)
+        .eventually(
+            20,
+            MILLISECONDS,
+            new SnapshotAssertion() {
+              @Override
+              public void invokeAssertion(AtomicLongMapSubject snapshot) {
+                attempts.incrementAndGet();
+                snapshot.hasSum(2);
+              }
+            });
+    assertFailureValue("value of", "atomicLongMap.snapshot().sum()");
+    assertFailureValue("but was", "1");
+    assertThat(attempts.get()).isGreaterThan(1);
+  }
+
   private AtomicLongMapSubject expectFailureWhenTestingThat(AtomicLongMap<?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
@@ -25,6 +25,7 @@ import com.google.common.collect.Iterators;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -1007,6 +1008,23 @@ public class IterableSubjectTest extends BaseSubjectTestCase {
     expectFailureWhenTestingThat(asList(1, 3, 2, 4, 0)).isOrdered();
   }
 
+  @Test
+  public void isOrderedFailure_notRandomAccess() {
+    expectFailureWhenTestingThat(new LinkedList<>(asList(1, 3, 2, 4))).isOrdered();
+    assertFailureKeys("expected to be ordered", "but contained", "followed by", "full contents");
+    assertFailureValue("but contained", "3");
+    assertFailureValue("followed by", "2");
+  }
+
+  @Test
+  public void isOrderedWithNullElement() {
+    try {
+      assertThat(asList(1, null, 2)).isOrdered();
+      fail("Should have thrown.");
+    } catch (NullPointerException expected) {
+    }
+  }
+
   @Test
   public void isOrderedWithNonComparableElementsFailure() {
     try {
@@ -17,6 +17,8 @@ package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultiset;
 import com.google.common.collect.Multiset;
 import org.junit.Test;
@@ -48,6 +50,93 @@ public class MultisetSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("value of", "multiset.count(kurt)");
   }
 
+  @Test
+  public void isEqualTo() {
+    assertThat(HashMultiset.create(ImmutableList.of("a", "a", "b")))
+        .isEqualTo(ImmutableMultiset.of("b", "a", "a"));
+  }
+
+  @Test
+  public void isEqualToFailure() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("a", "a", "b");
+    expectFailureWhenTestingThat(multiset).isEqualTo(ImmutableMultiset.of("a", "c"));
+    assertFailureKeys(
+        "expected", "number of elements with wrong counts", "count(a)", "count(c)", "count(b)",
+        "but was");
+    assertFailureValue("count(a)", "expected 1 but was 2");
+    assertFailureValue("count(c)", "expected 1 but was 0");
+    assertFailureValue("count(b)", "expected 0 but was 1");
+  }
+
+  @Test
+  public void isEqualToNonMultisetFailure() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("a");
+    expectFailureWhenTestingThat(multiset).isEqualTo(ImmutableList.of("b"));
+    assertFailureKeys("expected", "but was");
+  }
+
+  @Test
+  public void containsExactlyEntriesIn() {
+    Multiset<String> actual = HashMultiset.create();
+    actual.add("a", 1 << 30);
+    actual.add("b", 1);
+    Multiset<String> expected = HashMultiset.create();
+    expected.add("b", 1);
+    expected.add("a", 1 << 30);
+    // Iterating over all 2^30 copies would take far longer than comparing the counts.
+    assertThat(actual).containsExactlyEntriesIn(expected);
+  }
+
+  @Test
+  public void containsExactlyEntriesInFailure() {
+    Multiset<String> actual = HashMultiset.create();
+    actual.add("a", 1 << 30);
+    expectFailureWhenTestingThat(actual)
+        .containsExactlyEntriesIn(ImmutableMultiset.of("a", "a", "b"));
+    assertFailureKeys(
+        "expected to contain exactly",
+        "number of elements with wrong counts",
+        "count(a)",
+        "count(b)",
+        "but was");
+    assertFailureValue("number of elements with wrong counts", "2");
+    assertFailureValue("count(a)", "expected 2 but was " + (1 << 30));
+    assertFailureValue("count(b)", "expected 1 but was 0");
+  }
+
+  @Test
+  public void containsExactlyEntriesInFailureReportsLimitedElements() {
+    Multiset<Integer> actual = HashMultiset.create();
+    for (int i = 0; i < MultisetSubject.MAX_REPORTED_ELEMENTS + 5; i++) {
+      actual.add(i);
+    }
+    expectFailureWhenTestingThat(actual).containsExactlyEntriesIn(ImmutableMultiset.of());
+    assertFailureValue(
+        "number of elements with wrong counts",
+        String.valueOf(MultisetSubject.MAX_REPORTED_ELEMENTS + 5));
+    assertThat(expectFailure.getFailure().getMessage()).doesNotContain("count(10)");
+  }
+
+  @Test
+  public void containsAtLeastCounts() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("a", "a", "a", "b", "c");
+    assertThat(multiset).containsAtLeastCounts(ImmutableMultiset.of("a", "a", "b"));
+    assertThat(multiset).containsAtLeastCounts(ImmutableMultiset.of());
+  }
+
+  @Test
+  public void containsAtLeastCountsFailure() {
+    ImmutableMultiset<String> multiset = ImmutableMultiset.of("a", "b", "c");
+    expectFailureWhenTestingThat(multiset)
+        .containsAtLeastCounts(ImmutableMultiset.of("a", "a", "b"));
+    assertFailureKeys(
+        "expected to contain at least",
+        "number of elements with wrong counts",
+        "count(a)",
+        "but was");
+    assertFailureValue("count(a)", "expected at least 2 but was 1");
+  }
+
   private MultisetSubject expectFailureWhenTestingThat(Multiset<?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
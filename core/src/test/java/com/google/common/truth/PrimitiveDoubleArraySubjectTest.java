@@ -1298,6 +1298,35 @@ public class PrimitiveDoubleArraySubjectTest extends BaseSubjectTestCase {
     assertFailureValue("but was", "[10000.0]");
   }
 
+  @Test
+  public void isOrdered() {
+    assertThat(array()).isOrdered();
+    assertThat(array(NEGATIVE_INFINITY, -0.0, 0.0, 1.5, POSITIVE_INFINITY, NaN))
+        .isStrictlyOrdered();
+    assertThat(array(1.0, 1.0, NaN, NaN)).isOrdered();
+  }
+
+  @Test
+  public void isOrderedFailure() {
+    expectFailureWhenTestingThat(array(1.0, NaN, 2.0)).isOrdered();
+    assertFailureValue("but contained", "NaN");
+    assertFailureValue("followed by", "2.0");
+    assertFailureValue("at index", "1");
+  }
+
+  @Test
+  public void isStrictlyOrderedFailure_zeroes() {
+    expectFailureWhenTestingThat(array(0.0, -0.0)).isStrictlyOrdered();
+    assertFailureValue("at index", "0");
+  }
+
+  @Test
+  public void containsNoDuplicates() {
+    assertThat(array(0.0, -0.0, NaN)).containsNoDuplicates();
+    expectFailureWhenTestingThat(array(NaN, 1.0, NaN)).containsNoDuplicates();
+    assertFailureValue("but contained", "[NaN x 2]");
+  }
+
   private static double[] array(double... primitives) {
     return primitives;
   }
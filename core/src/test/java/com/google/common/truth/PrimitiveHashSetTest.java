@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.PrimitiveHashSet.hasDuplicate;
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link PrimitiveHashSet}. */
+@RunWith(JUnit4.class)
+public class PrimitiveHashSetTest {
+  @Test
+  public void hasDuplicate_int() {
+    assertThat(hasDuplicate(new int[] {})).isFalse();
+    assertThat(hasDuplicate(new int[] {0})).isFalse();
+    assertThat(hasDuplicate(new int[] {0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE})).isFalse();
+    assertThat(hasDuplicate(new int[] {0, 1, 0})).isTrue();
+    assertThat(hasDuplicate(new int[] {Integer.MIN_VALUE, 2, Integer.MIN_VALUE})).isTrue();
+  }
+
+  @Test
+  public void hasDuplicate_long_sameLowBits() {
+    long[] values = new long[1000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (long) i << 40;
+    }
+    assertThat(hasDuplicate(values)).isFalse();
+    values[999] = 5L << 40;
+    assertThat(hasDuplicate(values)).isTrue();
+  }
+
+  @Test
+  public void hasDuplicate_double() {
+    assertThat(hasDuplicate(new double[] {0.0, -0.0})).isFalse();
+    assertThat(hasDuplicate(new double[] {Double.NaN, 1.0, Double.NaN})).isTrue();
+    assertThat(hasDuplicate(new double[] {1.5, 2.5, 1.5})).isTrue();
+  }
+
+  @Test
+  public void add_agreesWithHashSet() {
+    Random random = new Random(0);
+    for (int trial = 0; trial < 100; trial++) {
+      long[] values = new long[random.nextInt(200)];
+      Set<Long> expected = new HashSet<>();
+      boolean expectedDuplicate = false;
+      for (int i = 0; i < values.length; i++) {
+        values[i] = random.nextInt(300) - 150;
+        expectedDuplicate |= !expected.add(values[i]);
+      }
+      assertThat(hasDuplicate(values)).isEqualTo(expectedDuplicate);
+    }
+  }
+}
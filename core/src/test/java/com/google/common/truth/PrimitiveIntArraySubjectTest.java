@@ -18,6 +18,7 @@ package com.google.common.truth;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.annotations.GwtIncompatible;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -132,6 +133,87 @@ public class PrimitiveIntArraySubjectTest extends BaseSubjectTestCase {
     expectFailureWhenTestingThat(same).isNotEqualTo(same);
   }
 
+  @Test
+  public void isOrdered() {
+    assertThat(array()).isOrdered();
+    assertThat(array(1)).isOrdered();
+    assertThat(array(1, 1, 2, 3, 3)).isOrdered();
+    assertThat(array(Integer.MIN_VALUE, 0, Integer.MAX_VALUE)).isStrictlyOrdered();
+  }
+
+  @Test
+  public void isOrderedFailure() {
+    expectFailureWhenTestingThat(array(1, 3, 2, 4, 0)).isOrdered();
+    assertFailureKeys(
+        "expected to be ordered", "but contained", "followed by", "at index", "full contents");
+    assertFailureValue("but contained", "3");
+    assertFailureValue("followed by", "2");
+    assertFailureValue("at index", "1");
+    assertFailureValue("full contents", "[1, 3, 2, 4, 0]");
+  }
+
+  @Test
+  public void isStrictlyOrderedFailure() {
+    expectFailureWhenTestingThat(array(1, 2, 2)).isStrictlyOrdered();
+    assertFailureKeys(
+        "expected to be strictly ordered",
+        "but contained",
+        "followed by",
+        "at index",
+        "full contents");
+    assertFailureValue("at index", "1");
+  }
+
+  @Test
+  @GwtIncompatible("parallel scan")
+  public void isOrdered_large() {
+    int[] large = new int[Platform.PARALLEL_ORDER_SCAN_THRESHOLD * 3];
+    for (int i = 0; i < large.length; i++) {
+      large[i] = i;
+    }
+    assertThat(large).isStrictlyOrdered();
+
+    assertThat(Platform.firstUnorderedPair(OrderScan.of(large, true), 4)).isEqualTo(-1);
+
+    int first = large.length / 4 + 1; // in the second of four chunks
+    int second = large.length - 2; // in the last
+    large[first + 1] = 0;
+    large[second + 1] = 0;
+    for (int chunkCount = 1; chunkCount <= 8; chunkCount++) {
+      assertThat(Platform.firstUnorderedPair(OrderScan.of(large, false), chunkCount))
+          .isEqualTo(first);
+    }
+    expectFailureWhenTestingThat(large).isOrdered();
+    assertFailureValue("at index", String.valueOf(first));
+    assertFailureValue("but contained", String.valueOf(first));
+    assertFailureValue("followed by", "0");
+  }
+
+  @Test
+  @GwtIncompatible("parallel scan")
+  public void isOrdered_large_failureAtChunkBoundary() {
+    int[] large = new int[Platform.PARALLEL_ORDER_SCAN_THRESHOLD * 2 + 1];
+    // This element is in the last pair of the first chunk and the first pair of the second.
+    large[large.length / 2] = 1;
+    assertThat(Platform.firstUnorderedPair(OrderScan.of(large, false), 2))
+        .isEqualTo(large.length / 2);
+    assertThat(Platform.firstUnorderedPair(OrderScan.of(large, true), 2)).isEqualTo(0);
+  }
+
+  @Test
+  public void containsNoDuplicates() {
+    assertThat(array()).containsNoDuplicates();
+    assertThat(array(0, 1, -1, 2)).containsNoDuplicates();
+  }
+
+  @Test
+  public void containsNoDuplicatesFailure() {
+    expectFailureWhenTestingThat(array(1, 2, 1, 3, 2, 1)).containsNoDuplicates();
+    assertFailureKeys("expected not to contain duplicates", "but contained", "full contents");
+    assertFailureValue("but contained", "[1 x 3, 2 x 2]");
+    assertFailureValue("full contents", "[1, 2, 1, 3, 2, 1]");
+  }
+
   private static int[] array(int... ts) {
     return ts;
   }
@@ -90,6 +90,40 @@ public class PrimitiveLongArraySubjectTest extends BaseSubjectTestCase {
     expectFailureWhenTestingThat(same).isNotEqualTo(same);
   }
 
+  @Test
+  public void isOrdered() {
+    assertThat(array()).isOrdered();
+    assertThat(array(1, 1, 2)).isOrdered();
+    assertThat(array(Long.MIN_VALUE, 0, Long.MAX_VALUE)).isStrictlyOrdered();
+  }
+
+  @Test
+  public void isOrderedFailure() {
+    expectFailureWhenTestingThat(array(Long.MAX_VALUE, Long.MIN_VALUE)).isOrdered();
+    assertFailureValue("but contained", String.valueOf(Long.MAX_VALUE));
+    assertFailureValue("followed by", String.valueOf(Long.MIN_VALUE));
+    assertFailureValue("at index", "0");
+  }
+
+  @Test
+  public void isStrictlyOrderedFailure() {
+    expectFailureWhenTestingThat(array(1, 2, 3, 3)).isStrictlyOrdered();
+    assertFailureKeys(
+        "expected to be strictly ordered",
+        "but contained",
+        "followed by",
+        "at index",
+        "full contents");
+    assertFailureValue("at index", "2");
+  }
+
+  @Test
+  public void containsNoDuplicates() {
+    assertThat(array(0, Long.MIN_VALUE, Long.MAX_VALUE)).containsNoDuplicates();
+    expectFailureWhenTestingThat(array(0, 0)).containsNoDuplicates();
+    assertFailureValue("but contained", "[0 x 2]");
+  }
+
   private static long[] array(long... ts) {
     return ts;
   }
@@ -21,6 +21,7 @@ import static java.util.Collections.unmodifiableSortedMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.SortedMap;
@@ -321,6 +322,137 @@ public class SortedMapSubjectTest extends BaseSubjectTestCase {
                 + "It does not contain this entry, and the last entry is <1=0>");
   }
 
+  @Test
+  public void containsExactlyEntriesIn_sorted() {
+    SortedMap<String, Integer> actual = new TreeMap<>();
+    actual.put("b", 2);
+    actual.put("a", 1);
+    assertThat(actual)
+        .containsExactlyEntriesIn(ImmutableSortedMap.of("a", 1, "b", 2))
+        .inOrder();
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_sorted_failure() {
+    SortedMap<String, Integer> actual = new TreeMap<>();
+    actual.put("a", 1);
+    actual.put("b", 2);
+    actual.put("d", 4);
+    actual.put("e", 5);
+    expectFailureWhenTestingThat(actual)
+        .containsExactlyEntriesIn(ImmutableSortedMap.of("a", 1, "b", 3, "c", 3, "e", 5, "f", 6));
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{a=1, b=2, d=4, e=5}> contains exactly <{a=1, b=3, c=3, e=5, f=6}>. "
+                + "It is missing keys for the following entries: {c=3, f=6} "
+                + "and has the following entries with unexpected keys: {d=4} "
+                + "and has the following entries with matching keys but different values: "
+                + "{b=(expected 3 but got 2)}");
+  }
+
+  @Test
+  public void isEqualTo_sorted_equalByComparatorOnly() {
+    SortedMap<String, Integer> actual = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    actual.put("A", 1);
+    SortedMap<String, Integer> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    expected.put("a", 2);
+    expectFailureWhenTestingThat(actual).isEqualTo(expected);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{A=1}> is equal to <{a=2}>. It is missing keys for the following "
+                + "entries: {a=2} and has the following entries with unexpected keys: {A=1}");
+  }
+
+  @Test
+  public void containsExactlyEntriesIn_sorted_equalByComparatorOnly() {
+    SortedMap<String, Integer> actual = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    actual.put("a", 1);
+    SortedMap<String, Integer> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    expected.put("A", 1);
+    expectFailureWhenTestingThat(actual).containsExactlyEntriesIn(expected);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that <{a=1}> contains exactly <{A=1}>. It is missing keys for the following "
+                + "entries: {A=1} and has the following entries with unexpected keys: {a=1}");
+  }
+
+  @Test
+  public void inKeyRange() {
+    SortedMap<Integer, String> map = new TreeMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.put(i, "v" + i);
+    }
+    assertThat(map).inKeyRange(Range.closed(2, 4)).containsExactly(2, "v2", 3, "v3", 4, "v4");
+    assertThat(map).inKeyRange(Range.open(2, 4)).containsExactly(3, "v3");
+    assertThat(map).inKeyRange(Range.atLeast(8)).containsExactly(8, "v8", 9, "v9");
+    assertThat(map).inKeyRange(Range.lessThan(1)).containsExactly(0, "v0");
+    assertThat(map).inKeyRange(Range.<Integer>all()).hasSize(10);
+    assertThat(map).inKeyRange(Range.closedOpen(5, 5)).isEmpty();
+    assertThat(map).inKeyRange(Range.greaterThan(3)).hasFirstKey(4);
+  }
+
+  @Test
+  public void inKeyRange_sortedMapOnly() {
+    SortedMap<Integer, String> map = new TreeMap<>();
+    map.put(1, "a");
+    map.put(3, "c");
+    map.put(5, "e");
+    map = unmodifiableSortedMap(map);
+    assertThat(map).inKeyRange(Range.closed(1, 5)).containsExactly(1, "a", 3, "c", 5, "e");
+    assertThat(map).inKeyRange(Range.open(1, 5)).containsExactly(3, "c");
+    assertThat(map).inKeyRange(Range.closed(2, 4)).containsExactly(3, "c");
+    assertThat(map).inKeyRange(Range.openClosed(3, 5)).containsExactly(5, "e");
+    assertThat(map).inKeyRange(Range.greaterThan(5)).isEmpty();
+    assertThat(map).inKeyRange(Range.atMost(3)).hasLastKey(3);
+    assertThat(map).inKeyRange(Range.atMost(3)).hasLastEntry(3, "c");
+  }
+
+  @Test
+  public void inKeyRange_sortedMapOnly_boundsAtLastKey() {
+    SortedMap<Integer, String> map = new TreeMap<>();
+    map.put(1, "a");
+    map.put(2, "b");
+    map.put(3, "c");
+    map = unmodifiableSortedMap(map);
+    assertThat(map).inKeyRange(Range.open(3, 5)).isEmpty();
+    assertThat(map).inKeyRange(Range.openClosed(2, 2)).isEmpty();
+    assertThat(map).inKeyRange(Range.openClosed(3, 3)).isEmpty();
+    assertThat(map).inKeyRange(Range.open(2, 3)).isEmpty();
+    assertThat(map).inKeyRange(Range.open(1, 3)).containsExactly(2, "b");
+    assertThat(map).inKeyRange(Range.openClosed(2, 3)).containsExactly(3, "c");
+    assertThat(map).inKeyRange(Range.closed(3, 3)).containsExactly(3, "c");
+    assertThat(map).inKeyRange(Range.atMost(3)).hasSize(3);
+    assertThat(map).inKeyRange(Range.greaterThan(3)).isEmpty();
+  }
+
+  @Test
+  public void inKeyRange_sortedMapOnly_excludedLowerBoundPastUpperBound() {
+    SortedMap<Integer, String> map = new TreeMap<>();
+    map.put(1, "a");
+    map.put(5, "e");
+    map = unmodifiableSortedMap(map);
+    assertThat(map).inKeyRange(Range.open(1, 3)).isEmpty();
+    assertThat(map).inKeyRange(Range.openClosed(1, 3)).isEmpty();
+  }
+
+  @Test
+  public void inKeyRange_failure() {
+    expectFailureWhenTestingThat(ImmutableSortedMap.of(1, "a", 2, "b", 3, "c"))
+        .inKeyRange(Range.atLeast(2))
+        .hasFirstKey(3);
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .contains("value of     : sortedMap.inKeyRange(" + Range.atLeast(2) + ")");
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .contains(
+            "Not true that <{2=b, 3=c}> has first key <3>. "
+                + "It does contain this key, but the first key is <2>");
+  }
+
   private SortedMapSubject expectFailureWhenTestingThat(SortedMap<?, ?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
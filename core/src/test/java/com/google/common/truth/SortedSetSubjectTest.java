@@ -16,10 +16,12 @@
 package com.google.common.truth;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableSortedSet;
 
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
 import com.google.common.collect.Sets;
 import java.util.HashSet;
 import java.util.Set;
@@ -139,6 +141,102 @@ public class SortedSetSubjectTest extends BaseSubjectTestCase {
                 + "It does not contain this element, and the last element is <0>");
   }
 
+  @Test
+  public void containsExactlyElementsIn_sorted() {
+    assertThat(new TreeSet<>(asList(1, 2, 3)))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(1, 2, 3))
+        .inOrder();
+  }
+
+  @Test
+  public void containsExactlyElementsIn_sorted_missingAndExtra() {
+    expectFailureWhenTestingThat(new TreeSet<>(asList(1, 2, 4, 6, 7)))
+        .containsExactlyElementsIn(ImmutableSortedSet.of(1, 3, 4, 5, 8));
+    assertFailureKeys("missing (3)", "unexpected (3)", "---", "expected", "but was");
+    assertFailureValue("missing (3)", "3, 5, 8");
+    assertFailureValue("unexpected (3)", "2, 6, 7");
+  }
+
+  @Test
+  public void containsExactlyElementsIn_sorted_equalByComparatorOnly() {
+    SortedSet<String> actual = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    actual.addAll(asList("a", "B", "c"));
+    SortedSet<String> expected = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    expected.addAll(asList("a", "b", "c"));
+    expectFailureWhenTestingThat(actual).containsExactlyElementsIn(expected);
+    assertFailureValue("missing (1)", "b");
+    assertFailureValue("unexpected (1)", "B");
+  }
+
+  @Test
+  public void containsExactlyElementsIn_differentComparators() {
+    SortedSet<Integer> expected = new TreeSet<>(Ordering.natural().reverse());
+    expected.addAll(asList(3, 2, 1));
+    assertThat(ImmutableSortedSet.of(1, 2, 3)).containsExactlyElementsIn(expected);
+    expectFailureWhenTestingThat(ImmutableSortedSet.of(1, 2, 3))
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+    assertFailureKeys("contents match, but order was wrong", "expected", "but was");
+  }
+
+  @Test
+  public void inRange() {
+    SortedSet<Integer> set = new TreeSet<>();
+    for (int i = 0; i < 10; i++) {
+      set.add(i);
+    }
+    assertThat(set).inRange(Range.closed(2, 4)).containsExactly(2, 3, 4).inOrder();
+    assertThat(set).inRange(Range.open(2, 4)).containsExactly(3);
+    assertThat(set).inRange(Range.atLeast(8)).containsExactly(8, 9).inOrder();
+    assertThat(set).inRange(Range.lessThan(1)).containsExactly(0);
+    assertThat(set).inRange(Range.<Integer>all()).hasSize(10);
+    assertThat(set).inRange(Range.closedOpen(5, 5)).isEmpty();
+    assertThat(set).inRange(Range.greaterThan(3)).hasFirstElement(4);
+  }
+
+  @Test
+  public void inRange_sortedSetOnly() {
+    SortedSet<Integer> set = unmodifiableSortedSet(new TreeSet<>(asList(1, 3, 5)));
+    assertThat(set).inRange(Range.closed(1, 5)).containsExactly(1, 3, 5).inOrder();
+    assertThat(set).inRange(Range.open(1, 5)).containsExactly(3);
+    assertThat(set).inRange(Range.closed(2, 4)).containsExactly(3);
+    assertThat(set).inRange(Range.openClosed(3, 5)).containsExactly(5);
+    assertThat(set).inRange(Range.greaterThan(5)).isEmpty();
+    assertThat(set).inRange(Range.atMost(3)).hasLastElement(3);
+  }
+
+  @Test
+  public void inRange_sortedSetOnly_boundsAtLastElement() {
+    SortedSet<Integer> set = unmodifiableSortedSet(new TreeSet<>(asList(1, 2, 3)));
+    assertThat(set).inRange(Range.open(3, 5)).isEmpty();
+    assertThat(set).inRange(Range.openClosed(2, 2)).isEmpty();
+    assertThat(set).inRange(Range.openClosed(3, 3)).isEmpty();
+    assertThat(set).inRange(Range.open(2, 3)).isEmpty();
+    assertThat(set).inRange(Range.open(1, 3)).containsExactly(2);
+    assertThat(set).inRange(Range.openClosed(2, 3)).containsExactly(3);
+    assertThat(set).inRange(Range.closed(3, 3)).containsExactly(3);
+    assertThat(set).inRange(Range.atMost(3)).containsExactly(1, 2, 3).inOrder();
+    assertThat(set).inRange(Range.greaterThan(3)).isEmpty();
+  }
+
+  @Test
+  public void inRange_sortedSetOnly_excludedLowerBoundPastUpperBound() {
+    SortedSet<Integer> set = unmodifiableSortedSet(new TreeSet<>(asList(1, 5)));
+    assertThat(set).inRange(Range.open(1, 3)).isEmpty();
+    assertThat(set).inRange(Range.openClosed(1, 3)).isEmpty();
+  }
+
+  @Test
+  public void inRange_failure() {
+    expectFailureWhenTestingThat(ImmutableSortedSet.of(1, 2, 3))
+        .inRange(Range.atMost(2))
+        .containsExactly(1, 2, 3);
+    assertFailureKeys("value of", "missing (1)", "---", "expected", "but was", "sortedSet was");
+    assertFailureValue("value of", "sortedSet.inRange(" + Range.atMost(2) + ")");
+    assertFailureValue("missing (1)", "3");
+    assertFailureValue("but was", "[1, 2]");
+  }
+
   private SortedSetSubject expectFailureWhenTestingThat(SortedSet<?> actual) {
     return expectFailure.whenTesting().that(actual);
   }
@@ -20,7 +20,9 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.CacheStats;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -205,6 +207,29 @@ public class StringSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("expected not to match", ".*aaa.*");
   }
 
+  @Test
+  @GwtIncompatible("Pattern")
+  public void regexCacheStats() {
+    String regex = "cached\\d+ regex";
+    CacheStats before = StringSubject.regexCacheStats();
+    assertThat("cached1 regex").matches(regex);
+    assertThat("a cached2 regex").containsMatch(regex);
+    assertThat("uncached").doesNotMatch(regex);
+    CacheStats delta = StringSubject.regexCacheStats().minus(before);
+    assertThat(delta.missCount()).isEqualTo(1);
+    assertThat(delta.hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  @GwtIncompatible("Pattern")
+  public void invalidRegexThrowsPatternSyntaxException() {
+    try {
+      assertThat("abc").matches("(");
+      fail();
+    } catch (PatternSyntaxException expected) {
+    }
+  }
+
   @Test
   @GwtIncompatible("Pattern")
   public void stringContainsMatchStringUsesFind() {
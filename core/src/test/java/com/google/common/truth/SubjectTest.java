@@ -766,6 +766,18 @@ public class SubjectTest extends BaseSubjectTestCase {
         "but was", "(non-equal instance of same class with same string representation)");
   }
 
+  @Test
+  public void derivedSubjectFailureReportsFullChain() {
+    ImmutableListMultimap<String, Integer> multimap = ImmutableListMultimap.of("a", 1, "a", 2);
+
+    expectFailure.whenTesting().that(multimap).valuesForKey("a").hasSize(3);
+    assertFailureKeys("value of", "expected", "but was", "multimap was");
+    assertFailureValue("value of", "multimap.valuesForKey(a).size()");
+    assertFailureValue("expected", "3");
+    assertFailureValue("but was", "2");
+    assertFailureValue("multimap was", "{a=[1, 2]}");
+  }
+
   private static final class ThrowsOnEqualsNull {
     @Override
     public boolean equals(Object obj) {
@@ -18,6 +18,7 @@ package com.google.common.truth;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
@@ -154,6 +155,88 @@ public class TableSubjectTest extends BaseSubjectTestCase {
     assertFailureValue("but was", "[(row,col)=val]");
   }
 
+  @Test
+  public void containsValue() {
+    ImmutableTable<String, String, String> table = ImmutableTable.of("row", "col", "val");
+    assertThat(table).containsValue("val");
+  }
+
+  @Test
+  public void containsValueFailure() {
+    ImmutableTable<String, String, String> table = ImmutableTable.of("row", "col", "val");
+    expectFailureWhenTestingThat(table).containsValue("other");
+    assertFailureKeys("value of", "expected to contain", "but was", "table was");
+    assertFailureValue("value of", "table.values()");
+  }
+
+  @Test
+  public void containsExactlyCellsIn() {
+    Table<String, String, Integer> actual = HashBasedTable.create();
+    actual.put("a", "x", 1);
+    actual.put("a", "y", 2);
+    actual.put("b", "x", 3);
+    assertThat(actual)
+        .containsExactlyCellsIn(
+            ImmutableTable.<String, String, Integer>builder()
+                .put("b", "x", 3)
+                .put("a", "y", 2)
+                .put("a", "x", 1)
+                .build());
+  }
+
+  @Test
+  public void containsExactlyCellsInEmpty() {
+    assertThat(ImmutableTable.of()).containsExactlyCellsIn(HashBasedTable.create());
+  }
+
+  @Test
+  public void containsExactlyCellsInFailure() {
+    ImmutableTable<String, String, Integer> actual =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("a", "x", 1)
+            .put("a", "y", 2)
+            .put("b", "x", 3)
+            .put("c", "x", 4)
+            .build();
+    ImmutableTable<String, String, Integer> expected =
+        ImmutableTable.<String, String, Integer>builder()
+            .put("a", "x", 1)
+            .put("a", "z", 2)
+            .put("b", "x", 5)
+            .put("d", "y", 6)
+            .build();
+    expectFailureWhenTestingThat(actual).containsExactlyCellsIn(expected);
+    assertFailureKeys(
+        "expected to contain exactly the given cells",
+        "but the number of rows which differed was",
+        "row a",
+        "row b",
+        "row d",
+        "row c",
+        "expected size",
+        "actual size");
+    assertFailureValue("but the number of rows which differed was", "4");
+    assertFailureValue("row a", "missing {z=2}; unexpected {y=2}");
+    assertFailureValue("row b", "wrong values {x=expected 5 but was 3}");
+    assertFailureValue("row d", "missing {y=6}");
+    assertFailureValue("row c", "unexpected {x=4}");
+  }
+
+  @Test
+  public void containsExactlyCellsInFailureReportsLimitedRows() {
+    Table<Integer, String, Integer> actual = HashBasedTable.create();
+    Table<Integer, String, Integer> expected = HashBasedTable.create();
+    for (int row = 0; row < TableSubject.MAX_REPORTED_ROWS + 5; row++) {
+      actual.put(row, "x", row);
+      expected.put(row, "x", -row - 1);
+    }
+    expectFailureWhenTestingThat(actual).containsExactlyCellsIn(expected);
+    assertFailureValue(
+        "but the number of rows which differed was",
+        String.valueOf(TableSubject.MAX_REPORTED_ROWS + 5));
+    assertThat(expectFailure.getFailure().getMessage()).doesNotContain("row 10");
+  }
+
   private static <R, C, V> Cell<R, C, V> cell(R row, C col, V val) {
     return Tables.immutableCell(row, col, val);
   }
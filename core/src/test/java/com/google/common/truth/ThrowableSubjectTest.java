@@ -135,6 +135,108 @@ public class ThrowableSubjectTest extends BaseSubjectTestCase {
     assertErrorHasActualAsCause(actual, expectFailure.getFailure());
   }
 
+  @Test
+  public void causalChain() {
+    IOException root = new IOException("disk full");
+    IllegalStateException suppressed = new IllegalStateException("close failed");
+    RuntimeException middle = new RuntimeException("write failed", root);
+    middle.addSuppressed(suppressed);
+    Exception actual = new Exception("request failed", middle);
+    assertThat(actual).causalChain().containsExactly(actual, middle, root, suppressed).inOrder();
+    assertThat(actual).causalChain().containsInstanceOf(IOException.class);
+    assertThat(actual).causalChain().containsInstanceOf(IllegalStateException.class);
+    assertThat(actual).causalChain().containsMessageMatching("close f.*d");
+    assertThat(actual).causalChain().hasRootCauseThat().isSameAs(root);
+  }
+
+  @Test
+  public void causalChain_noCause() {
+    Exception actual = new Exception("foobar");
+    assertThat(actual).causalChain().containsExactly(actual);
+    assertThat(actual).causalChain().hasRootCauseThat().isSameAs(actual);
+  }
+
+  @Test
+  public void causalChain_deep() {
+    Exception root = new Exception("root");
+    Exception actual = root;
+    for (int i = 0; i < 20; i++) {
+      actual = new RuntimeException("level " + i, actual);
+    }
+    assertThat(actual).causalChain().hasSize(21);
+    assertThat(actual).causalChain().hasRootCauseThat().hasMessageThat().isEqualTo("root");
+  }
+
+  @Test
+  public void causalChain_veryDeep() {
+    Exception actual = new Exception("root");
+    for (int i = 0; i < 100000; i++) {
+      actual = new RuntimeException(null, actual);
+    }
+    assertThat(actual).causalChain().hasSize(100001);
+    assertThat(actual).causalChain().hasRootCauseThat().hasMessageThat().isEqualTo("root");
+  }
+
+  @Test
+  public void causalChain_cycle() {
+    Exception first = new Exception("first");
+    Exception second = new Exception("second", first);
+    first.initCause(second);
+    second.addSuppressed(first);
+    assertThat(first).causalChain().containsExactly(first, second).inOrder();
+    assertThat(first).causalChain().hasRootCauseThat().isSameAs(second);
+  }
+
+  @Test
+  public void causalChain_null_failure() {
+    expectFailureWhenTestingThat(null).causalChain().isEmpty();
+    assertThat(expectFailure.getFailure().getMessage())
+        .isEqualTo(
+            "value of: throwable.causalChain()\n"
+                + "Causal chain is not deep enough - add a .isNotNull() check?\n"
+                + "throwable was: null");
+  }
+
+  @Test
+  public void causalChain_tooDeep_failure() {
+    Exception actual = new Exception("foobar");
+    expectFailureWhenTestingThat(actual).hasCauseThat().causalChain().isEmpty();
+    assertThat(expectFailure.getFailure().getMessage())
+        .isEqualTo(
+            "value of: throwable.getCause().causalChain()\n"
+                + "Causal chain is not deep enough - add a .isNotNull() check?");
+    assertErrorHasActualAsCause(actual, expectFailure.getFailure());
+  }
+
+  @Test
+  public void causalChain_containsInstanceOf_failure() {
+    Exception actual = new Exception("foobar", new IOException("barfoo"));
+    expectFailureWhenTestingThat(actual).causalChain().containsInstanceOf(RuntimeException.class);
+    assertFailureKeys("value of", "expected to contain an instance of", "but was");
+    assertFailureValue("expected to contain an instance of", "java.lang.RuntimeException");
+    assertErrorHasActualAsCause(actual, expectFailure.getFailure());
+  }
+
+  @Test
+  public void causalChain_containsMessageMatching_failure() {
+    Exception actual = new Exception("foobar", new IOException("barfoo"));
+    expectFailureWhenTestingThat(actual).causalChain().containsMessageMatching("buzz");
+    assertFailureValue(
+        "expected to contain a throwable whose message contains a match for", "buzz");
+  }
+
+  @Test
+  public void causalChain_hasRootCauseThat_failure() {
+    Exception actual = new Exception("foobar", new IOException("barfoo"));
+    expectFailureWhenTestingThat(actual)
+        .causalChain()
+        .hasRootCauseThat()
+        .hasMessageThat()
+        .isEqualTo("foobar");
+    assertFailureValue("value of", "throwable.causalChain().rootCause().getMessage()");
+    assertErrorHasActualAsCause(actual, expectFailure.getFailure());
+  }
+
   @Test
   public void inheritedMethodChainsSubject() {
     NullPointerException expected = new NullPointerException("expected");
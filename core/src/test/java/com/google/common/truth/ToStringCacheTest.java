@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link ToStringCache}. */
+@RunWith(JUnit4.class)
+public class ToStringCacheTest {
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  @Test
+  public void stringOf_outsideSpan() {
+    Counting value = new Counting("a");
+    assertThat(ToStringCache.stringOf(value)).isEqualTo("a");
+    assertThat(ToStringCache.stringOf(value)).isEqualTo("a");
+    assertThat(value.toStringCalls).isEqualTo(2);
+  }
+
+  @Test
+  public void stringOf_withinSpan() {
+    Counting value = new Counting("a");
+    boolean entered = ToStringCache.enter();
+    try {
+      assertThat(entered).isTrue();
+      assertThat(ToStringCache.stringOf(value)).isEqualTo("a");
+      assertThat(ToStringCache.stringOf(value)).isEqualTo("a");
+      assertThat(value.toStringCalls).isEqualTo(1);
+    } finally {
+      ToStringCache.exit(entered);
+    }
+    assertThat(ToStringCache.stringOf(value)).isEqualTo("a");
+    assertThat(value.toStringCalls).isEqualTo(2);
+  }
+
+  @Test
+  public void stringOf_null() {
+    boolean entered = ToStringCache.enter();
+    try {
+      assertThat(ToStringCache.stringOf(null)).isEqualTo("null");
+    } finally {
+      ToStringCache.exit(entered);
+    }
+  }
+
+  @Test
+  public void enter_withinSpan() {
+    Counting value = new Counting("a");
+    boolean outer = ToStringCache.enter();
+    try {
+      boolean inner = ToStringCache.enter();
+      assertThat(inner).isFalse();
+      ToStringCache.stringOf(value);
+      ToStringCache.exit(inner);
+      ToStringCache.stringOf(value);
+      assertThat(value.toStringCalls).isEqualTo(1);
+    } finally {
+      ToStringCache.exit(outer);
+    }
+  }
+
+  @Test
+  public void containsExactlyFailure_stringifiesEachElementOnce() {
+    Counting actual = new Counting("a");
+    Counting expected = new Counting("a");
+    expectFailure.whenTesting().that(ImmutableList.of(actual, "b")).containsExactly(expected, "b");
+    assertThat(expectFailure.getFailure())
+        .factKeys()
+        .containsExactly("missing (1)", "unexpected (1)", "---", "expected", "but was");
+    assertThat(expectFailure.getFailure())
+        .factValue("missing (1)")
+        .isEqualTo("a (" + Counting.class.getName() + ")");
+    // Once for all the element-level facts, and once for the "expected" or "but was" list.
+    assertThat(actual.toStringCalls).isEqualTo(2);
+    assertThat(expected.toStringCalls).isEqualTo(2);
+  }
+
+  /** A value which is equal only to itself, and which counts calls to {@link #toString}. */
+  private static final class Counting {
+    private final String string;
+    int toStringCalls;
+
+    Counting(String string) {
+      this.string = string;
+    }
+
+    @Override
+    public String toString() {
+      toStringCalls++;
+      return string;
+    }
+  }
+}
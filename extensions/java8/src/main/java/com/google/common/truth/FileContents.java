@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Scans of file contents for {@link PathSubject}, which map the files a window of at most {@code
+ * windowSize} bytes at a time rather than reading them onto the heap. Only the current window of
+ * each file is mapped, so files much larger than the heap (or the address space) can be scanned.
+ *
+ * <p>Windows smaller than {@link #MIN_MAPPED_LENGTH} are read into heap buffers instead: mapping
+ * them would cost more than reading them, and since a mapping is only released when its buffer is
+ * garbage collected, scanning many small files could otherwise exhaust the process's mappings.
+ */
+@GwtIncompatible
+final class FileContents {
+  /** The window size used by {@link PathSubject}. */
+  static final int DEFAULT_WINDOW_SIZE = 8 << 20;
+
+  /** The smallest window which is mapped rather than read. */
+  static final int MIN_MAPPED_LENGTH = 1 << 20;
+
+  /**
+   * Returns the offset of the first byte at which the contents of {@code actual} and {@code
+   * expected} differ, or -1 if they are the same. If one is a prefix of the other, that is the
+   * length of the shorter one.
+   */
+  static long mismatch(FileChannel actual, FileChannel expected, int windowSize)
+      throws IOException {
+    long actualSize = actual.size();
+    long expectedSize = expected.size();
+    long commonSize = Math.min(actualSize, expectedSize);
+    long mismatch = mismatch(actual, expected, 0, commonSize, windowSize);
+    if (mismatch >= 0) {
+      return mismatch;
+    }
+    return actualSize == expectedSize ? -1 : commonSize;
+  }
+
+  /**
+   * Returns the offset of the first byte in the range {@code [start, end)} at which the contents of
+   * {@code actual} and {@code expected} differ, or -1 if they are the same throughout it. Both
+   * files must extend at least to {@code end}.
+   */
+  static long mismatch(
+      FileChannel actual, FileChannel expected, long start, long end, int windowSize)
+      throws IOException {
+    checkArgument(windowSize > 0, "windowSize (%s) must be positive", windowSize);
+    for (long position = start; position < end; position += windowSize) {
+      int length = (int) Math.min(windowSize, end - position);
+      int mismatch = mismatch(window(actual, position, length), window(expected, position, length));
+      if (mismatch >= 0) {
+        return position + mismatch;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the offset of the first byte at which the contents of {@code actual} differ from {@code
+   * prefix}, or -1 if they start with it. If the contents are a proper prefix of {@code prefix},
+   * that is their length.
+   */
+  static long mismatch(FileChannel actual, byte[] prefix) throws IOException {
+    int length = (int) Math.min(actual.size(), prefix.length);
+    int mismatch = mismatch(window(actual, 0, length), ByteBuffer.wrap(prefix, 0, length));
+    if (mismatch >= 0) {
+      return mismatch;
+    }
+    return length == prefix.length ? -1 : length;
+  }
+
+  /**
+   * Returns the offset of the first occurrence of {@code target} in the contents of {@code
+   * actual}, or -1 if there is none. Consecutive windows overlap by {@code target.length - 1}
+   * bytes, so that occurrences which straddle a window boundary are found.
+   */
+  static long indexOf(FileChannel actual, byte[] target, int windowSize) throws IOException {
+    checkArgument(windowSize > 0, "windowSize (%s) must be positive", windowSize);
+    if (target.length == 0) {
+      return 0;
+    }
+    // Each window must have room for at least one full occurrence beyond the overlap.
+    long window = Math.max(windowSize, 2L * target.length);
+    checkArgument(window <= Integer.MAX_VALUE, "target too large (%s bytes)", target.length);
+    long size = actual.size();
+    for (long position = 0; position + target.length <= size; ) {
+      int length = (int) Math.min(window, size - position);
+      int index = indexOf(window(actual, position, length), target);
+      if (index >= 0) {
+        return position + index;
+      }
+      position += length - (target.length - 1);
+    }
+    return -1;
+  }
+
+  /** Returns the hash of the contents of {@code actual}. */
+  static HashCode hash(FileChannel actual, HashFunction hashFunction, int windowSize)
+      throws IOException {
+    checkArgument(windowSize > 0, "windowSize (%s) must be positive", windowSize);
+    Hasher hasher = hashFunction.newHasher();
+    long size = actual.size();
+    for (long position = 0; position < size; position += windowSize) {
+      int length = (int) Math.min(windowSize, size - position);
+      hasher.putBytes(window(actual, position, length));
+    }
+    return hasher.hash();
+  }
+
+  /** Returns the {@code length} bytes of {@code channel} starting at {@code position}. */
+  private static ByteBuffer window(FileChannel channel, long position, int length)
+      throws IOException {
+    if (length >= MIN_MAPPED_LENGTH) {
+      return channel.map(READ_ONLY, position, length);
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException(
+            "Unexpected end of file at offset " + (position + buffer.position()));
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Returns the index of the first byte at which the equally sized buffers {@code a} and {@code b}
+   * differ, or -1 if they don't. Compares eight bytes at a time until it finds a difference.
+   */
+  private static int mismatch(ByteBuffer a, ByteBuffer b) {
+    int length = a.remaining();
+    int i = 0;
+    for (; i <= length - 8; i += 8) {
+      if (a.getLong(a.position() + i) != b.getLong(b.position() + i)) {
+        break;
+      }
+    }
+    for (; i < length; i++) {
+      if (a.get(a.position() + i) != b.get(b.position() + i)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns the index of the first occurrence of non-empty {@code target} in {@code buffer}. */
+  private static int indexOf(ByteBuffer buffer, byte[] target) {
+    byte first = target[0];
+    outer:
+    for (int i = 0; i <= buffer.limit() - target.length; i++) {
+      if (buffer.get(i) != first) {
+        continue;
+      }
+      for (int j = 1; j < target.length; j++) {
+        if (buffer.get(i + j) != target[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  private FileContents() {}
+}
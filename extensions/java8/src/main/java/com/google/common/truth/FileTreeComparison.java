@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.base.Joiner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The differences between two directory trees, for {@link PathSubject#hasSameTreeAs}.
+ *
+ * <p>Both trees are walked first, and entries are compared by relative path, kind and size. Only
+ * then are the contents of same-sized files compared, byte for byte. That work is split into
+ * chunks of at most {@code chunkSize} bytes, which are compared in parallel, so that the time
+ * taken is proportional to the total size of the files divided by the number of cores, however
+ * the bytes are distributed among files. Chunks which start beyond a difference already found in
+ * the same file are skipped.
+ */
+@GwtIncompatible
+final class FileTreeComparison {
+  /** The chunk size used by {@link PathSubject}. */
+  static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+
+  /** Relative paths which are in the expected tree but not the actual one. */
+  final List<String> missing = new ArrayList<>();
+
+  /** Relative paths which are in the actual tree but not the expected one. */
+  final List<String> unexpected = new ArrayList<>();
+
+  /** Descriptions of the differences at relative paths which are in both trees. */
+  final SortedMap<String, String> different = new TreeMap<>();
+
+  private FileTreeComparison() {}
+
+  boolean isSame() {
+    return missing.isEmpty() && unexpected.isEmpty() && different.isEmpty();
+  }
+
+  /**
+   * Compares the trees under {@code actualRoot} and {@code expectedRoot}.
+   *
+   * @throws IOException if either tree can't be walked
+   * @throws UncheckedIOException if the contents of a file can't be read
+   */
+  static FileTreeComparison compare(Path actualRoot, Path expectedRoot, long chunkSize)
+      throws IOException {
+    checkArgument(chunkSize > 0, "chunkSize (%s) must be positive", chunkSize);
+    SortedMap<String, Entry> actualEntries = walk(actualRoot);
+    SortedMap<String, Entry> expectedEntries = walk(expectedRoot);
+
+    FileTreeComparison comparison = new FileTreeComparison();
+    List<Chunk> chunks = new ArrayList<>();
+    for (Map.Entry<String, Entry> expectedEntry : expectedEntries.entrySet()) {
+      String name = expectedEntry.getKey();
+      Entry expected = expectedEntry.getValue();
+      Entry actual = actualEntries.get(name);
+      if (actual == null) {
+        comparison.missing.add(name);
+      } else if (actual.kind != expected.kind) {
+        comparison.different.put(
+            name, "expected a " + expected.kind + ", but was a " + actual.kind);
+      } else if (actual.kind == Kind.FILE) {
+        if (actual.size != expected.size) {
+          comparison.different.put(
+              name, "expected size " + expected.size + ", but was " + actual.size);
+        } else {
+          for (long start = 0; start < actual.size; start += chunkSize) {
+            long end = Math.min(start + chunkSize, actual.size);
+            chunks.add(new Chunk(name, actual.path, expected.path, start, end));
+          }
+        }
+      }
+    }
+    for (String name : actualEntries.keySet()) {
+      if (!expectedEntries.containsKey(name)) {
+        comparison.unexpected.add(name);
+      }
+    }
+
+    ConcurrentMap<String, Long> firstMismatches = new ConcurrentHashMap<>();
+    chunks
+        .parallelStream()
+        .forEach(
+            chunk -> {
+              Long earlierMismatch = firstMismatches.get(chunk.name);
+              if (earlierMismatch != null && earlierMismatch < chunk.start) {
+                return;
+              }
+              long mismatch = chunk.mismatch();
+              if (mismatch >= 0) {
+                firstMismatches.merge(chunk.name, mismatch, Math::min);
+              }
+            });
+    for (Map.Entry<String, Long> mismatch : firstMismatches.entrySet()) {
+      comparison.different.put(
+          mismatch.getKey(), "first differed at byte offset " + mismatch.getValue());
+    }
+    return comparison;
+  }
+
+  /** Returns the entries under {@code root}, excluding {@code root} itself, by relative name. */
+  private static SortedMap<String, Entry> walk(Path root) throws IOException {
+    SortedMap<String, Entry> entries = new TreeMap<>();
+    Files.walkFileTree(
+        root,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (!dir.equals(root)) {
+              entries.put(relativeName(root, dir), new Entry(Kind.DIRECTORY, dir, 0));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            entries.put(
+                relativeName(root, file),
+                attrs.isRegularFile()
+                    ? new Entry(Kind.FILE, file, attrs.size())
+                    : new Entry(Kind.OTHER, file, 0));
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return entries;
+  }
+
+  /** Returns the path of {@code path} relative to {@code root}, separated by slashes. */
+  private static String relativeName(Path root, Path path) {
+    return Joiner.on('/').join(root.relativize(path));
+  }
+
+  private enum Kind {
+    DIRECTORY("directory"),
+    FILE("regular file"),
+    OTHER("special file");
+
+    private final String description;
+
+    Kind(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  private static final class Entry {
+    final Kind kind;
+    final Path path;
+    final long size;
+
+    Entry(Kind kind, Path path, long size) {
+      this.kind = kind;
+      this.path = path;
+      this.size = size;
+    }
+  }
+
+  /** A byte range of a pair of same-sized files. */
+  private static final class Chunk {
+    final String name;
+    final Path actual;
+    final Path expected;
+    final long start;
+    final long end;
+
+    Chunk(String name, Path actual, Path expected, long start, long end) {
+      this.name = name;
+      this.actual = actual;
+      this.expected = expected;
+      this.start = start;
+      this.end = end;
+    }
+
+    long mismatch() {
+      try (FileChannel actualChannel = FileChannel.open(actual);
+          FileChannel expectedChannel = FileChannel.open(expected)) {
+        return FileContents.mismatch(
+            actualChannel, expectedChannel, start, end, FileContents.DEFAULT_WINDOW_SIZE);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.IntPredicate;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The elements of a {@code IntStream} under test, read only as far as assertions need them, and
+ * retained unboxed. Otherwise like {@link StreamContents}.
+ */
+final class IntStreamContents {
+  private final PrimitiveIterator.OfInt unread;
+  private final int retentionLimit;
+  private int[] retained = new int[16];
+  private int retainedCount = 0;
+  private long discarded = 0;
+
+  IntStreamContents(PrimitiveIterator.OfInt unread, int retentionLimit) {
+    checkArgument(retentionLimit > 0, "retentionLimit (%s) must be positive", retentionLimit);
+    this.unread = checkNotNull(unread);
+    this.retentionLimit = retentionLimit;
+  }
+
+  /** Returns whether the stream has no elements, reading at most one. */
+  boolean isEmpty() {
+    return retainedCount == 0 && discarded == 0 && !unread.hasNext();
+  }
+
+  /** Returns whether any element satisfies {@code predicate}, reading only up to the first one. */
+  boolean anyMatch(IntPredicate predicate) {
+    checkNothingDiscarded();
+    for (int i = 0; i < retainedCount; i++) {
+      if (predicate.test(retained[i])) {
+        return true;
+      }
+    }
+    while (unread.hasNext()) {
+      if (predicate.test(read())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether the stream contains {@code element}, reading only up to the first match. */
+  boolean contains(int element) {
+    return anyMatch(actual -> actual == element);
+  }
+
+  /**
+   * Returns whether the stream contains any of {@code elements}, reading only up to the first
+   * match. Only {@code Integer} instances can match, as in a {@code List<Integer>}.
+   */
+  boolean containsAnyIn(Iterable<?> elements) {
+    int[] expected = sortedCopy(integersIn(elements));
+    return anyMatch(actual -> Arrays.binarySearch(expected, actual) >= 0);
+  }
+
+  /**
+   * Returns whether the stream begins with {@code expectedPrefix}, reading no further than the
+   * first mismatch.
+   */
+  boolean startsWith(int[] expectedPrefix) {
+    checkNothingDiscarded();
+    int i = 0;
+    for (; i < expectedPrefix.length && i < retainedCount; i++) {
+      if (expectedPrefix[i] != retained[i]) {
+        return false;
+      }
+    }
+    for (; i < expectedPrefix.length; i++) {
+      if (!unread.hasNext() || expectedPrefix[i] != read()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the number of elements in the stream, retaining no more than the limit. */
+  long count() {
+    while (unread.hasNext()) {
+      read();
+    }
+    return retainedCount + discarded;
+  }
+
+  /**
+   * Returns every element of the stream, retaining all of them regardless of the limit. The caller
+   * must not modify the returned array.
+   */
+  int[] all() {
+    checkNothingDiscarded();
+    while (unread.hasNext()) {
+      retain(unread.nextInt());
+    }
+    return trimmedRetained();
+  }
+
+  /**
+   * Returns every element of the stream if they all fit within the retention limit, or {@code
+   * null} if they don't, in which case only the retained elements have been read. The caller must
+   * not modify the returned array.
+   */
+  @NullableDecl
+  int[] allIfWithinLimit() {
+    return allIfWithin(retentionLimit);
+  }
+
+  /**
+   * Returns every element of the stream if they all fit within both the retention limit and {@link
+   * StreamContents#MAX_DISPLAYED}, or {@code null} if they don't, reading no further than that.
+   * Failure messages use this, so that failures about infinite streams still finish. The caller
+   * must not modify the returned array.
+   */
+  @NullableDecl
+  int[] allIfDisplayable() {
+    return allIfWithin(Math.min(retentionLimit, StreamContents.MAX_DISPLAYED));
+  }
+
+  @NullableDecl
+  private int[] allIfWithin(int limit) {
+    while (discarded == 0 && retainedCount < limit && unread.hasNext()) {
+      read();
+    }
+    return discarded == 0 && !unread.hasNext() ? trimmedRetained() : null;
+  }
+
+  /**
+   * Returns the string form of the list of elements if they all fit within the retention limit and
+   * {@link StreamContents#MAX_DISPLAYED}. Otherwise, shows only the retained ones.
+   */
+  @Override
+  public String toString() {
+    int[] all = allIfDisplayable();
+    if (all != null) {
+      return Ints.asList(all).toString();
+    }
+    return "["
+        + Ints.join(", ", Arrays.copyOf(retained, retainedCount))
+        + ", ...] (showing the first "
+        + retainedCount
+        + " elements)";
+  }
+
+  /** Returns the {@code Integer} instances in {@code elements}, unboxed. */
+  static int[] integersIn(Iterable<?> elements) {
+    int[] result = new int[8];
+    int count = 0;
+    for (Object element : elements) {
+      if (element instanceof Integer) {
+        if (count == result.length) {
+          result = Arrays.copyOf(result, count * 2);
+        }
+        result[count++] = (Integer) element;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  static int[] sortedCopy(int[] array) {
+    int[] copy = array.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+
+  private int read() {
+    int element = unread.nextInt();
+    if (retainedCount < retentionLimit) {
+      retain(element);
+    } else {
+      discarded++;
+    }
+    return element;
+  }
+
+  private void retain(int element) {
+    if (retainedCount == retained.length) {
+      retained = Arrays.copyOf(retained, retainedCount * 2);
+    }
+    retained[retainedCount++] = element;
+  }
+
+  private int[] trimmedRetained() {
+    if (retained.length != retainedCount) {
+      retained = Arrays.copyOf(retained, retainedCount);
+    }
+    return retained;
+  }
+
+  private void checkNothingDiscarded() {
+    checkState(
+        discarded == 0,
+        "%s elements beyond the retention limit of %s were already read and discarded by an "
+            + "earlier assertion on this subject",
+        discarded,
+        retentionLimit);
+  }
+}
@@ -15,12 +15,18 @@
  */
 package com.google.common.truth;
 
-import static java.util.stream.Collectors.toCollection;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.truth.Fact.simpleFact;
+import static com.google.common.truth.LongStreamContents.sortedCopy;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Longs;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Supplier;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -28,9 +34,14 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 /**
  * Propositions for {@link LongStream} subjects.
  *
- * <p><b>Note:</b> the wrapped stream will be drained immediately into a private collection to
- * provide more readable failure messages. You should not use this class if you intend to leave the
- * stream un-consumed or if the stream is <i>very</i> large or infinite.
+ * <p><b>Note:</b> the wrapped stream is consumed by the assertions made on it, and the elements
+ * read from it are kept in a private, unboxed buffer to provide more readable failure messages. You
+ * should not use this class if you intend to leave the stream un-consumed.
+ *
+ * <p>{@link #isEmpty}, {@link #isNotEmpty}, {@link #contains}, {@link #containsAnyOf}, {@link
+ * #containsAnyIn} and {@link #startsWith} read only as many elements as they need to pass, so they
+ * may be used on very large or even infinite streams. All other assertions, and all failure
+ * messages, read the whole stream, unless the subject was created by {@link #longStreams(int)}.
  *
  * <p>If you intend to make multiple assertions on the same stream of data you should instead first
  * collect the contents of the stream into a collection, and then assert directly on that.
@@ -42,31 +53,47 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  */
 public final class LongStreamSubject extends Subject<LongStreamSubject, LongStream> {
 
-  private final List<?> actualList;
+  private final LongStreamContents contents;
 
-  private LongStreamSubject(FailureMetadata failureMetadata, @NullableDecl LongStream stream) {
+  private LongStreamSubject(
+      FailureMetadata failureMetadata, @NullableDecl LongStream stream, int retentionLimit) {
     super(failureMetadata, stream);
-    this.actualList =
-        (stream == null) ? null : stream.boxed().collect(toCollection(ArrayList::new));
+    this.contents =
+        (stream == null) ? null : new LongStreamContents(stream.iterator(), retentionLimit);
   }
 
   @Override
   protected String actualCustomStringRepresentation() {
-    return String.valueOf(actualList);
+    return String.valueOf(contents);
   }
 
   public static Factory<LongStreamSubject, LongStream> longStreams() {
-    return LongStreamSubject::new;
+    return (metadata, subject) ->
+        new LongStreamSubject(metadata, subject, StreamContents.UNLIMITED);
+  }
+
+  /**
+   * Returns a factory for subjects which retain at most {@code retentionLimit} of the elements they
+   * read for use in failure messages, for asserting on streams too large to hold in memory. See
+   * {@link StreamSubject#streams(int)}.
+   */
+  public static Factory<LongStreamSubject, LongStream> longStreams(int retentionLimit) {
+    checkArgument(retentionLimit > 0, "retentionLimit (%s) must be positive", retentionLimit);
+    return (metadata, subject) -> new LongStreamSubject(metadata, subject, retentionLimit);
   }
 
   /** Fails if the subject is not empty. */
   public void isEmpty() {
-    check().that(actualList).isEmpty();
+    if (!contents.isEmpty()) {
+      failWithActual(simpleFact("expected to be empty"));
+    }
   }
 
   /** Fails if the subject is empty. */
   public void isNotEmpty() {
-    check().that(actualList).isNotEmpty();
+    if (contents.isEmpty()) {
+      failWithoutActual(simpleFact("expected not to be empty"));
+    }
   }
 
   /**
@@ -76,32 +103,70 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
    */
   public void hasSize(int expectedSize) {
-    check().that(actualList).hasSize(expectedSize);
+    checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
+    long[] all = contents.allIfWithinLimit();
+    if (all != null) {
+      if (all.length != expectedSize) {
+        check().that(Longs.asList(all)).hasSize(expectedSize);
+      }
+    } else {
+      long count = contents.count();
+      if (count != expectedSize) {
+        check("count()").that(count).isEqualTo((long) expectedSize);
+      }
+    }
   }
 
   /** Fails if the subject does not contain the given element. */
   public void contains(long element) {
-    check().that(actualList).contains(element);
+    if (!contents.contains(element)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.contains(element);
+      } else {
+        failWithActual("expected to contain", element);
+      }
+    }
   }
 
   /** Fails if the subject contains the given element. */
   public void doesNotContain(long element) {
-    check().that(actualList).doesNotContain(element);
+    if (contents.contains(element)) {
+      failWithActual("expected not to contain", element);
+    }
   }
 
   /** Fails if the subject contains duplicate elements. */
   public void containsNoDuplicates() {
-    check().that(actualList).containsNoDuplicates();
+    long[] all = contents.all();
+    if (hasDuplicates(all)) {
+      check().that(Longs.asList(all)).containsNoDuplicates();
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyOf(long first, long second, long... rest) {
-    check().that(actualList).containsAnyOf(first, second, box(rest));
+    List<Object> expected = Lists.asList(first, second, box(rest));
+    if (!contents.containsAnyIn(expected)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsAnyOf(first, second, box(rest));
+      } else {
+        failWithActual("expected to contain any of", expected);
+      }
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyIn(Iterable<?> expected) {
-    check().that(actualList).containsAnyIn(expected);
+    if (!contents.containsAnyIn(expected)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsAnyIn(expected);
+      } else {
+        failWithActual("expected to contain any of", expected);
+      }
+    }
   }
 
   /**
@@ -115,7 +180,9 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   @CanIgnoreReturnValue
   public Ordered containsAllOf(long first, long second, long... rest) {
-    return check().that(actualList).containsAllOf(first, second, box(rest));
+    return containsAll(
+        Longs.concat(new long[] {first, second}, rest),
+        () -> checkAll().containsAllOf(first, second, box(rest)));
   }
 
   /**
@@ -129,7 +196,12 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   @CanIgnoreReturnValue
   public Ordered containsAllIn(Iterable<?> expected) {
-    return check().that(actualList).containsAllIn(expected);
+    Supplier<Ordered> checkBoxed = () -> checkAll().containsAllIn(expected);
+    long[] expectedLongs = LongStreamContents.longsIn(expected);
+    // Elements of any other type can't be present, so leave the failure to IterableSubject.
+    return expectedLongs.length == Iterables.size(expected)
+        ? containsAll(expectedLongs, checkBoxed)
+        : checkBoxed.get();
   }
 
   /**
@@ -143,7 +215,7 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   @CanIgnoreReturnValue
   public Ordered containsExactly(long... varargs) {
-    return check().that(actualList).containsExactly(box(varargs));
+    return containsExactly(varargs.clone(), () -> checkAll().containsExactly(box(varargs)));
   }
 
   /**
@@ -157,7 +229,11 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsExactlyElementsIn(expected);
+    Supplier<Ordered> checkBoxed = () -> checkAll().containsExactlyElementsIn(expected);
+    long[] expectedLongs = LongStreamContents.longsIn(expected);
+    return expectedLongs.length == Iterables.size(expected)
+        ? containsExactly(expectedLongs, checkBoxed)
+        : checkBoxed.get();
   }
 
   /**
@@ -165,7 +241,15 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneOf(long first, long second, long... rest) {
-    check().that(actualList).containsNoneOf(first, second, box(rest));
+    List<Object> excluded = Lists.asList(first, second, box(rest));
+    if (contents.containsAnyIn(excluded)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsNoneOf(first, second, box(rest));
+      } else {
+        failWithActual("expected not to contain any of", excluded);
+      }
+    }
   }
 
   /**
@@ -173,7 +257,24 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneIn(Iterable<?> excluded) {
-    check().that(actualList).containsNoneIn(excluded);
+    if (contents.containsAnyIn(excluded)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsNoneIn(excluded);
+      } else {
+        failWithActual("expected not to contain any of", excluded);
+      }
+    }
+  }
+
+  /**
+   * Fails if the subject does not begin with the given elements, in the given order. Only as many
+   * elements as given are read in order for the check to pass.
+   */
+  public void startsWith(long... expectedPrefix) {
+    if (!contents.startsWith(expectedPrefix)) {
+      failWithActual("expected to start with", Longs.asList(expectedPrefix));
+    }
   }
 
   /**
@@ -186,7 +287,10 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInStrictOrder() {
-    check().that(actualList).isStrictlyOrdered();
+    long[] all = contents.all();
+    if (!isOrdered(all, /* strictly= */ true)) {
+      check().that(Longs.asList(all)).isStrictlyOrdered();
+    }
   }
 
   /**
@@ -198,7 +302,7 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInStrictOrder(Comparator<?> comparator) {
-    check().that(actualList).isStrictlyOrdered(comparator);
+    checkAll().isStrictlyOrdered(comparator);
   }
 
   /**
@@ -210,7 +314,10 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInOrder() {
-    check().that(actualList).isOrdered();
+    long[] all = contents.all();
+    if (!isOrdered(all, /* strictly= */ false)) {
+      check().that(Longs.asList(all)).isOrdered();
+    }
   }
 
   /**
@@ -221,13 +328,109 @@ public final class LongStreamSubject extends Subject<LongStreamSubject, LongStre
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInOrder(Comparator<?> comparator) {
-    check().that(actualList).isOrdered(comparator);
+    checkAll().isOrdered(comparator);
   }
 
   private static Object[] box(long[] rest) {
     return LongStream.of(rest).boxed().toArray(Long[]::new);
   }
 
+  /**
+   * Returns a subject for all the elements of the stream if they fit within the retention limit and
+   * the number of elements a failure message shows, or null if they don't.
+   */
+  @NullableDecl
+  private IterableSubject checkAllIfDisplayable() {
+    long[] all = contents.allIfDisplayable();
+    return all == null ? null : check().that(Longs.asList(all));
+  }
+
+  /** Returns a subject for all the elements of the stream, boxing them. */
+  private IterableSubject checkAll() {
+    return check().that(Longs.asList(contents.all()));
+  }
+
+  /**
+   * Checks that the stream contains all of {@code expected}, deferring to {@code checkBoxed} (for
+   * its failure message) only if it doesn't.
+   */
+  private Ordered containsAll(long[] expected, Supplier<Ordered> checkBoxed) {
+    long[] actual = contents.all();
+    if (!containsAll(sortedCopy(actual), sortedCopy(expected))) {
+      return checkBoxed.get();
+    }
+    return () -> {
+      if (!isSubsequence(expected, actual)) {
+        checkBoxed.get().inOrder();
+      }
+    };
+  }
+
+  /**
+   * Checks that the stream contains exactly {@code expected}, deferring to {@code checkBoxed} (for
+   * its failure message) only if it doesn't.
+   */
+  private Ordered containsExactly(long[] expected, Supplier<Ordered> checkBoxed) {
+    long[] actual = contents.all();
+    if (actual.length != expected.length
+        || !Arrays.equals(sortedCopy(actual), sortedCopy(expected))) {
+      return checkBoxed.get();
+    }
+    return () -> {
+      if (!Arrays.equals(actual, expected)) {
+        checkBoxed.get().inOrder();
+      }
+    };
+  }
+
+  /**
+   * Returns whether {@code sortedActual} contains every element of {@code sortedExpected}, as many
+   * times as it appears there.
+   */
+  private static boolean containsAll(long[] sortedActual, long[] sortedExpected) {
+    int a = 0;
+    for (long element : sortedExpected) {
+      while (a < sortedActual.length && sortedActual[a] < element) {
+        a++;
+      }
+      if (a == sortedActual.length || sortedActual[a] != element) {
+        return false;
+      }
+      a++;
+    }
+    return true;
+  }
+
+  /** Returns whether {@code expected} appears in {@code actual} in order, possibly with gaps. */
+  private static boolean isSubsequence(long[] expected, long[] actual) {
+    int e = 0;
+    for (int a = 0; a < actual.length && e < expected.length; a++) {
+      if (actual[a] == expected[e]) {
+        e++;
+      }
+    }
+    return e == expected.length;
+  }
+
+  private static boolean hasDuplicates(long[] elements) {
+    long[] sorted = sortedCopy(elements);
+    for (int i = 1; i < sorted.length; i++) {
+      if (sorted[i] == sorted[i - 1]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isOrdered(long[] elements, boolean strictly) {
+    for (int i = 1; i < elements.length; i++) {
+      if (strictly ? elements[i] <= elements[i - 1] : elements[i] < elements[i - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   // TODO(kak/cpovirk): Do we want to override + deprecate isEqualTo/isNotEqualTo?
 
   // TODO(kak/peteg): Do we want to support comparingElementsUsing() on StreamSubject?
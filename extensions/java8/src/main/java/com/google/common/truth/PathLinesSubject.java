@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+
+import com.google.common.annotations.GwtIncompatible;
+import com.google.common.collect.ImmutableList;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Assertions about the lines of a text file, as split by {@link BufferedReader#readLine}.
+ *
+ * <p>Each assertion streams the file from the start, decoding it with the given charset, and holds
+ * only a bounded number of lines at a time, so memory use does not grow with the size of the file.
+ * Failure messages likewise show at most the first {@value #MAX_REPORTED_LINES} offending lines.
+ * An {@link IOException} thrown while reading a file (including a {@link
+ * java.nio.charset.MalformedInputException}) is rethrown as an {@link UncheckedIOException}.
+ *
+ * @see PathSubject#lines
+ */
+@GwtIncompatible
+public final class PathLinesSubject extends Subject<PathLinesSubject, Path> {
+  /** The number of offending lines to show in a failure message. */
+  static final int MAX_REPORTED_LINES = 10;
+
+  /** The number of lines ahead in each file which {@link #hasSameLinesAs} looks for a match. */
+  static final int RESYNC_WINDOW_LINES = 64;
+
+  private final Charset charset;
+
+  private PathLinesSubject(FailureMetadata failureMetadata, Path actual, Charset charset) {
+    super(failureMetadata, actual);
+    this.charset = charset;
+  }
+
+  static Subject.Factory<PathLinesSubject, Path> pathLines(Charset charset) {
+    checkNotNull(charset);
+    return (metadata, actual) -> new PathLinesSubject(metadata, actual, charset);
+  }
+
+  /** Fails if the file has no line equal to {@code expected}. */
+  public void containsLine(String expected) {
+    checkNotNull(expected);
+    if (!checkRegularFile()) {
+      return;
+    }
+    long lineCount =
+        read(
+            actual(),
+            reader -> {
+              long count = 0;
+              for (String line; (line = reader.readLine()) != null; ) {
+                count++;
+                if (line.equals(expected)) {
+                  return -1L;
+                }
+              }
+              return count;
+            });
+    if (lineCount >= 0) {
+      failWithoutActual(
+          fact("expected to contain line", expected),
+          simpleFact("but did not"),
+          fact("line count", lineCount));
+    }
+  }
+
+  /**
+   * Fails unless the file contains lines equal to each of {@code expected}, in the given order,
+   * though not necessarily consecutively.
+   */
+  public void containsLinesInOrder(String... expected) {
+    containsLinesInOrder(Arrays.asList(expected));
+  }
+
+  /**
+   * Fails unless the file contains lines equal to each of {@code expected}, in the given order,
+   * though not necessarily consecutively.
+   */
+  public void containsLinesInOrder(Iterable<String> expected) {
+    List<String> expectedList = ImmutableList.copyOf(expected);
+    if (!checkRegularFile()) {
+      return;
+    }
+    int found =
+        read(
+            actual(),
+            reader -> {
+              int i = 0;
+              for (String line; i < expectedList.size() && (line = reader.readLine()) != null; ) {
+                if (line.equals(expectedList.get(i))) {
+                  i++;
+                }
+              }
+              return i;
+            });
+    if (found < expectedList.size()) {
+      failWithoutActual(
+          fact("expected to contain lines in order", expectedList),
+          fact("but did not contain, after the earlier ones", expectedList.get(found)));
+    }
+  }
+
+  /** Fails unless every line of the file matches {@code regex} in its entirety. */
+  public void allLinesMatch(String regex) {
+    allLinesMatch(Platform.compilePattern(regex));
+  }
+
+  /** Fails unless every line of the file matches {@code pattern} in its entirety. */
+  public void allLinesMatch(Pattern pattern) {
+    checkNotNull(pattern);
+    if (!checkRegularFile()) {
+      return;
+    }
+    List<Fact> offendingLines = new ArrayList<>();
+    long offendingLineCount =
+        read(
+            actual(),
+            reader -> {
+              long count = 0;
+              long lineNumber = 0;
+              for (String line; (line = reader.readLine()) != null; ) {
+                lineNumber++;
+                if (!pattern.matcher(line).matches() && count++ < MAX_REPORTED_LINES) {
+                  offendingLines.add(fact("line " + lineNumber, line));
+                }
+              }
+              return count;
+            });
+    if (offendingLineCount > 0) {
+      List<Fact> facts = new ArrayList<>();
+      facts.add(fact("but the number of lines which did not was", offendingLineCount));
+      facts.addAll(offendingLines);
+      failWithoutActual(
+          fact("expected all lines to match", pattern), facts.toArray(new Fact[0]));
+    }
+  }
+
+  /** Fails unless the file has exactly {@code expected} lines. */
+  public void hasLineCount(long expected) {
+    if (!checkRegularFile()) {
+      return;
+    }
+    long lineCount =
+        read(
+            actual(),
+            reader -> {
+              long count = 0;
+              while (reader.readLine() != null) {
+                count++;
+              }
+              return count;
+            });
+    if (lineCount != expected) {
+      failWithoutActual(
+          fact("expected line count", expected), fact("but was", lineCount));
+    }
+  }
+
+  /**
+   * Fails unless the file has the same lines as the text file {@code expected}, which is decoded
+   * with the same charset. The failure message shows the first {@value #MAX_REPORTED_LINES} lines
+   * which differ.
+   *
+   * <p>Lines are aligned as by a diff, but within a bounded window: after a mismatch, the files are
+   * resynchronized at the nearest line they share within the next {@value #RESYNC_WINDOW_LINES}
+   * lines of each, and the lines skipped over are reported as unexpected (keyed by their line
+   * number in this file) or missing (keyed by their line number in {@code expected}). A run of
+   * more than {@value #RESYNC_WINDOW_LINES} inserted or deleted lines is therefore reported as
+   * changed lines instead.
+   */
+  public void hasSameLinesAs(Path expected) {
+    checkNotNull(expected);
+    if (!checkRegularFile()) {
+      return;
+    }
+    if (!Files.isRegularFile(expected)) {
+      failWithoutActual(
+          fact("expected to have the same lines as", expected),
+          simpleFact("but that is not a regular file"));
+      return;
+    }
+    List<Fact> differences = new ArrayList<>();
+    long differenceCount =
+        read(
+            actual(),
+            actualReader ->
+                read(
+                    expected,
+                    expectedReader -> compareLines(actualReader, expectedReader, differences)));
+    if (differenceCount > 0) {
+      List<Fact> facts = new ArrayList<>();
+      facts.add(fact("but the number of lines which differed was", differenceCount));
+      facts.addAll(differences);
+      failWithoutActual(
+          fact("expected to have the same lines as", expected), facts.toArray(new Fact[0]));
+    }
+  }
+
+  /**
+   * Compares the lines of the two readers, holding at most {@value #RESYNC_WINDOW_LINES} lines of
+   * each at a time. Adds the first {@value #MAX_REPORTED_LINES} differences to {@code differences}
+   * and returns the number of lines which differed.
+   */
+  private static long compareLines(
+      BufferedReader actualReader, BufferedReader expectedReader, List<Fact> differences)
+      throws IOException {
+    Deque<String> actualLines = new ArrayDeque<>();
+    Deque<String> expectedLines = new ArrayDeque<>();
+    long actualLineNumber = 0;
+    long expectedLineNumber = 0;
+    long count = 0;
+    while (true) {
+      fill(actualLines, actualReader);
+      fill(expectedLines, expectedReader);
+      if (actualLines.isEmpty() && expectedLines.isEmpty()) {
+        return count;
+      }
+      if (!actualLines.isEmpty() && actualLines.peekFirst().equals(expectedLines.peekFirst())) {
+        actualLines.removeFirst();
+        expectedLines.removeFirst();
+        actualLineNumber++;
+        expectedLineNumber++;
+        continue;
+      }
+      int[] skips = nextCommonLine(actualLines, expectedLines);
+      int changed = Math.min(skips[0], skips[1]);
+      for (int i = 0; i < changed; i++) {
+        addDifference(
+            differences,
+            count++,
+            "line " + ++actualLineNumber,
+            describe(expectedLines.removeFirst(), actualLines.removeFirst()));
+        expectedLineNumber++;
+      }
+      for (int i = changed; i < skips[0]; i++) {
+        addDifference(
+            differences,
+            count++,
+            "line " + ++actualLineNumber,
+            describe(null, actualLines.removeFirst()));
+      }
+      for (int i = changed; i < skips[1]; i++) {
+        addDifference(
+            differences,
+            count++,
+            "expected line " + ++expectedLineNumber,
+            describe(expectedLines.removeFirst(), null));
+      }
+    }
+  }
+
+  /** Reads lines into {@code lines} until it holds {@value #RESYNC_WINDOW_LINES} or input ends. */
+  private static void fill(Deque<String> lines, BufferedReader reader) throws IOException {
+    for (String line;
+        lines.size() < RESYNC_WINDOW_LINES && (line = reader.readLine()) != null; ) {
+      lines.addLast(line);
+    }
+  }
+
+  /**
+   * Returns the number of lines to skip in each of {@code actualLines} and {@code expectedLines},
+   * whose first lines differ, to reach the nearest line they share. If they share none, skips one
+   * line of each, or all the lines of one if the other is empty.
+   */
+  private static int[] nextCommonLine(Deque<String> actualLines, Deque<String> expectedLines) {
+    Map<String, Integer> expectedIndexes = new HashMap<>();
+    int index = 0;
+    for (String line : expectedLines) {
+      expectedIndexes.putIfAbsent(line, index++);
+    }
+    int[] best = null;
+    int actualIndex = 0;
+    for (String line : actualLines) {
+      if (best != null && actualIndex >= best[0] + best[1]) {
+        break;
+      }
+      Integer expectedIndex = expectedIndexes.get(line);
+      if (expectedIndex != null
+          && (best == null || actualIndex + expectedIndex < best[0] + best[1])) {
+        best = new int[] {actualIndex, expectedIndex};
+      }
+      actualIndex++;
+    }
+    if (best != null) {
+      return best;
+    }
+    return new int[] {
+      expectedLines.isEmpty() ? actualLines.size() : Math.min(1, actualLines.size()),
+      actualLines.isEmpty() ? expectedLines.size() : Math.min(1, expectedLines.size())
+    };
+  }
+
+  private static void addDifference(
+      List<Fact> differences, long index, String key, String description) {
+    if (index < MAX_REPORTED_LINES) {
+      differences.add(fact(key, description));
+    }
+  }
+
+  private static String describe(String expectedLine, String actualLine) {
+    if (expectedLine == null) {
+      return "expected no such line, but was: " + quote(actualLine);
+    } else if (actualLine == null) {
+      return "expected: " + quote(expectedLine) + ", but there was no such line";
+    } else {
+      return "expected: " + quote(expectedLine) + ", but was: " + quote(actualLine);
+    }
+  }
+
+  private static String quote(String line) {
+    return "\"" + line + "\"";
+  }
+
+  /** Fails and returns false if the path is not a regular file. */
+  private boolean checkRegularFile() {
+    if (!Files.isRegularFile(actual())) {
+      failWithoutActual(
+          simpleFact(
+              Files.exists(actual()) ? "expected a regular file" : "expected a file to exist"));
+      return false;
+    }
+    return true;
+  }
+
+  private <T> T read(Path path, ReaderFunction<T> function) {
+    try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
+      return function.apply(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private interface ReaderFunction<T> {
+    T apply(BufferedReader reader) throws IOException;
+  }
+}
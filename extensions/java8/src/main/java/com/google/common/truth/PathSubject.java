@@ -15,10 +15,32 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+import static com.google.common.truth.FileContents.DEFAULT_WINDOW_SIZE;
+
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.io.BaseEncoding;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
-/** Assertions for {@link Path} instances. */
+/**
+ * Assertions for {@link Path} instances.
+ *
+ * <p>The assertions about file contents map the file a window at a time rather than reading it
+ * onto the heap, so they are suitable for files of many gigabytes. An {@link IOException} thrown
+ * while reading a file is rethrown as an {@link UncheckedIOException}.
+ */
 @GwtIncompatible
 public final class PathSubject extends Subject<PathSubject, Path> {
   private PathSubject(FailureMetadata failureMetadata, Path actual) {
@@ -28,4 +50,188 @@ public final class PathSubject extends Subject<PathSubject, Path> {
   public static Subject.Factory<PathSubject, Path> paths() {
     return PathSubject::new;
   }
+
+  /** Fails if the path does not exist. */
+  public void exists() {
+    if (!Files.exists(actual())) {
+      failWithActual(simpleFact("expected to exist"));
+    }
+  }
+
+  /** Fails if the path exists. */
+  public void doesNotExist() {
+    if (!Files.notExists(actual())) {
+      failWithActual(simpleFact("expected not to exist"));
+    }
+  }
+
+  /** Fails if the path is not a regular file of the given size in bytes. */
+  public void hasSize(long expectedSize) {
+    if (checkRegularFile()) {
+      checkSize("size()", read(FileChannel::size), expectedSize);
+    }
+  }
+
+  /**
+   * Fails if the path is not a regular file with the same contents as the regular file {@code
+   * expected}. The files are compared a window at a time, stopping at the first difference.
+   */
+  public void hasSameContentAs(Path expected) {
+    checkNotNull(expected);
+    if (!checkRegularFile()) {
+      return;
+    }
+    if (!Files.isRegularFile(expected)) {
+      failWithActual(
+          fact("expected to have the same content as", expected),
+          simpleFact("but that is not a regular file"));
+      return;
+    }
+    long mismatch;
+    long actualSize;
+    long expectedSize;
+    try (FileChannel actualChannel = FileChannel.open(actual());
+        FileChannel expectedChannel = FileChannel.open(expected)) {
+      actualSize = actualChannel.size();
+      expectedSize = expectedChannel.size();
+      mismatch = FileContents.mismatch(actualChannel, expectedChannel, DEFAULT_WINDOW_SIZE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (mismatch >= 0) {
+      failWithActual(
+          fact("expected to have the same content as", expected),
+          fact("but first differed at byte offset", mismatch),
+          fact("expected size", expectedSize),
+          fact("actual size", actualSize));
+    }
+  }
+
+  /** Fails if the path is not a regular file whose contents start with the given bytes. */
+  public void startsWithBytes(byte... expectedPrefix) {
+    checkNotNull(expectedPrefix);
+    if (checkRegularFile()) {
+      long mismatch = read(channel -> FileContents.mismatch(channel, expectedPrefix));
+      if (mismatch >= 0) {
+        failWithActual(
+            fact("expected to start with bytes", base16(expectedPrefix)),
+            fact("but first differed at byte offset", mismatch));
+      }
+    }
+  }
+
+  /** Fails if the path is not a regular file whose contents contain the given bytes. */
+  public void containsBytes(byte... expected) {
+    checkNotNull(expected);
+    if (checkRegularFile()) {
+      long index = read(channel -> FileContents.indexOf(channel, expected, DEFAULT_WINDOW_SIZE));
+      if (index < 0) {
+        failWithActual("expected to contain bytes", base16(expected));
+      }
+    }
+  }
+
+  /**
+   * Fails if the path is not a regular file whose contents hash to {@code expected} under {@code
+   * hashFunction}, e.g., {@code hasContentHash(Hashing.sha256(),
+   * HashCode.fromString("e3b0c442..."))}.
+   */
+  public void hasContentHash(HashFunction hashFunction, HashCode expected) {
+    checkNotNull(hashFunction);
+    checkNotNull(expected);
+    if (checkRegularFile()) {
+      HashCode actualHash =
+          read(channel -> FileContents.hash(channel, hashFunction, DEFAULT_WINDOW_SIZE));
+      if (!actualHash.equals(expected)) {
+        failWithActual(
+            fact("expected content hash", expected),
+            fact("but content hashed to", actualHash),
+            fact("hash function", hashFunction));
+      }
+    }
+  }
+
+  /**
+   * Fails if the path is not a directory containing the same tree of files and directories as the
+   * directory {@code expected}, with each regular file having the same contents as its counterpart.
+   * The failure message lists the relative paths which are missing, unexpected, or different.
+   *
+   * <p>Files are first compared by size, and only same-sized files have their contents compared.
+   * Those comparisons are split into chunks which run in parallel, so that large trees are compared
+   * in time proportional to their total size divided by the number of cores.
+   */
+  public void hasSameTreeAs(Path expected) {
+    checkNotNull(expected);
+    if (!Files.isDirectory(actual())) {
+      failWithActual(simpleFact("expected to be a directory"));
+      return;
+    }
+    if (!Files.isDirectory(expected)) {
+      failWithActual(
+          fact("expected to have the same tree as", expected),
+          simpleFact("but that is not a directory"));
+      return;
+    }
+    FileTreeComparison comparison;
+    try {
+      comparison =
+          FileTreeComparison.compare(actual(), expected, FileTreeComparison.DEFAULT_CHUNK_SIZE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (comparison.isSame()) {
+      return;
+    }
+    List<Fact> facts = new ArrayList<>();
+    if (!comparison.missing.isEmpty()) {
+      facts.add(fact("missing", comparison.missing));
+    }
+    if (!comparison.unexpected.isEmpty()) {
+      facts.add(fact("unexpected", comparison.unexpected));
+    }
+    if (!comparison.different.isEmpty()) {
+      List<String> different = new ArrayList<>();
+      for (Map.Entry<String, String> entry : comparison.different.entrySet()) {
+        different.add(entry.getKey() + " (" + entry.getValue() + ")");
+      }
+      facts.add(fact("different", different));
+    }
+    failWithActual(
+        fact("expected to have the same tree as", expected), facts.toArray(new Fact[0]));
+  }
+
+  /**
+   * Returns a subject for the lines of the file, decoded with {@code charset}. Its assertions
+   * stream the file, so they are suitable for text files of any size.
+   */
+  public PathLinesSubject lines(Charset charset) {
+    return check("lines(%s)", charset).about(PathLinesSubject.pathLines(charset)).that(actual());
+  }
+
+  /** Fails and returns false if the path is not a regular file. */
+  private boolean checkRegularFile() {
+    if (!Files.isRegularFile(actual())) {
+      failWithActual(
+          simpleFact(
+              Files.exists(actual()) ? "expected to be a regular file" : "expected to exist"));
+      return false;
+    }
+    return true;
+  }
+
+  private <T> T read(ChannelFunction<T> function) {
+    try (FileChannel channel = FileChannel.open(actual())) {
+      return function.apply(channel);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private interface ChannelFunction<T> {
+    T apply(FileChannel channel) throws IOException;
+  }
+
+  private static String base16(byte[] bytes) {
+    return BaseEncoding.base16().encode(bytes);
+  }
 }
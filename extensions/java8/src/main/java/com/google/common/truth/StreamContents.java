@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.Lists.newArrayList;
+
+import com.google.common.base.Joiner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * The elements of a stream under test, read from the stream only as far as assertions need them.
+ *
+ * <p>Elements which have been read are retained, so that failure messages (and later assertions on
+ * the same subject) can still see them. At most {@code retentionLimit} elements are retained by
+ * assertions which don't inherently need the whole stream; any further elements they read are only
+ * counted. Once elements have been discarded this way, assertions which need to start over from
+ * the first element fail with {@link IllegalStateException}.
+ */
+final class StreamContents<E> {
+  /** Retention limit meaning 'retain every element read'. */
+  static final int UNLIMITED = Integer.MAX_VALUE;
+
+  /**
+   * The number of elements which the string form reads from the stream, so that failure messages
+   * about infinite streams still finish. Elements already read are shown even beyond it.
+   */
+  static final int MAX_DISPLAYED = 1000;
+
+  private final Iterator<? extends E> unread;
+  private final int retentionLimit;
+  private final List<E> retained = new ArrayList<>();
+  private long discarded = 0;
+
+  StreamContents(Iterator<? extends E> unread, int retentionLimit) {
+    checkArgument(retentionLimit > 0, "retentionLimit (%s) must be positive", retentionLimit);
+    this.unread = checkNotNull(unread);
+    this.retentionLimit = retentionLimit;
+  }
+
+  /** Returns whether the stream has no elements, reading at most one. */
+  boolean isEmpty() {
+    return retained.isEmpty() && discarded == 0 && !unread.hasNext();
+  }
+
+  /** Returns whether any element satisfies {@code predicate}, reading only up to the first one. */
+  boolean anyMatch(Predicate<? super E> predicate) {
+    checkNothingDiscarded();
+    for (E element : retained) {
+      if (predicate.test(element)) {
+        return true;
+      }
+    }
+    while (unread.hasNext()) {
+      if (predicate.test(read())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether the stream contains {@code element}, reading only up to the first match. */
+  boolean contains(@NullableDecl Object element) {
+    return anyMatch(actual -> equal(element, actual));
+  }
+
+  /**
+   * Returns whether the stream contains any of {@code elements}, reading only up to the first
+   * match.
+   */
+  boolean containsAnyIn(Iterable<?> elements) {
+    List<?> expected = newArrayList(elements);
+    return anyMatch(actual -> expected.stream().anyMatch(element -> equal(element, actual)));
+  }
+
+  /**
+   * Returns whether the stream begins with {@code expectedPrefix}, reading no further than the
+   * first mismatch.
+   */
+  boolean startsWith(List<?> expectedPrefix) {
+    checkNothingDiscarded();
+    int i = 0;
+    for (; i < expectedPrefix.size() && i < retained.size(); i++) {
+      if (!equal(expectedPrefix.get(i), retained.get(i))) {
+        return false;
+      }
+    }
+    for (; i < expectedPrefix.size(); i++) {
+      if (!unread.hasNext() || !equal(expectedPrefix.get(i), read())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the number of elements in the stream, retaining no more than the limit. */
+  long count() {
+    while (unread.hasNext()) {
+      read();
+    }
+    return retained.size() + discarded;
+  }
+
+  /** Returns every element of the stream, retaining all of them regardless of the limit. */
+  List<E> all() {
+    checkNothingDiscarded();
+    while (unread.hasNext()) {
+      retained.add(unread.next());
+    }
+    return Collections.unmodifiableList(retained);
+  }
+
+  /**
+   * Returns every element of the stream if they all fit within the retention limit, or {@code
+   * null} if they don't, in which case only the retained elements have been read.
+   */
+  @NullableDecl
+  List<E> allIfWithinLimit() {
+    return allIfWithin(retentionLimit);
+  }
+
+  /**
+   * Returns every element of the stream if they all fit within both the retention limit and {@link
+   * #MAX_DISPLAYED}, or {@code null} if they don't, reading no further than that. Failure
+   * messages use this, so that failures about infinite streams still finish.
+   */
+  @NullableDecl
+  List<E> allIfDisplayable() {
+    return allIfWithin(Math.min(retentionLimit, MAX_DISPLAYED));
+  }
+
+  @NullableDecl
+  private List<E> allIfWithin(int limit) {
+    while (discarded == 0 && retained.size() < limit && unread.hasNext()) {
+      read();
+    }
+    return discarded == 0 && !unread.hasNext() ? Collections.unmodifiableList(retained) : null;
+  }
+
+  /**
+   * Returns the string form of the list of elements if they all fit within the retention limit and
+   * {@link #MAX_DISPLAYED}. Otherwise, shows only the retained ones.
+   */
+  @Override
+  public String toString() {
+    List<E> all = allIfDisplayable();
+    if (all != null) {
+      return all.toString();
+    }
+    return "["
+        + Joiner.on(", ").useForNull("null").join(retained)
+        + ", ...] (showing the first "
+        + retained.size()
+        + " elements)";
+  }
+
+  private E read() {
+    E element = unread.next();
+    if (retained.size() < retentionLimit) {
+      retained.add(element);
+    } else {
+      discarded++;
+    }
+    return element;
+  }
+
+  private void checkNothingDiscarded() {
+    checkState(
+        discarded == 0,
+        "%s elements beyond the retention limit of %s were already read and discarded by an "
+            + "earlier assertion on this subject",
+        discarded,
+        retentionLimit);
+  }
+
+  private static boolean equal(@NullableDecl Object expected, @NullableDecl Object actual) {
+    return expected == null ? actual == null : expected.equals(actual);
+  }
+}
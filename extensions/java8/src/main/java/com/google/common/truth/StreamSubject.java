@@ -15,10 +15,12 @@
  */
 package com.google.common.truth;
 
-import static java.util.stream.Collectors.toCollection;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.truth.Fact.simpleFact;
 
+import com.google.common.collect.Lists;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Stream;
@@ -27,9 +29,14 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 /**
  * Propositions for {@link Stream} subjects.
  *
- * <p><b>Note:</b> the wrapped stream will be drained immediately into a private collection to
- * provide more readable failure messages. You should not use this class if you intend to leave the
- * stream un-consumed or if the stream is <i>very</i> large or infinite.
+ * <p><b>Note:</b> the wrapped stream is consumed by the assertions made on it, and the elements
+ * read from it are kept in a private collection to provide more readable failure messages. You
+ * should not use this class if you intend to leave the stream un-consumed.
+ *
+ * <p>{@link #isEmpty}, {@link #isNotEmpty}, {@link #contains}, {@link #containsAnyOf}, {@link
+ * #containsAnyIn} and {@link #startsWith} read only as many elements as they need to pass, so they
+ * may be used on very large or even infinite streams. All other assertions, and all failure
+ * messages, read the whole stream, unless the subject was created by {@link #streams(int)}.
  *
  * <p>If you intend to make multiple assertions on the same stream of data you should instead
  * first collect the contents of the stream into a collection, and then assert directly on that.
@@ -41,30 +48,52 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  */
 public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
 
-  private final List<?> actualList;
+  private final StreamContents<Object> contents;
 
-  private StreamSubject(FailureMetadata failureMetadata, @NullableDecl Stream<?> stream) {
+  private StreamSubject(
+      FailureMetadata failureMetadata, @NullableDecl Stream<?> stream, int retentionLimit) {
     super(failureMetadata, stream);
-    this.actualList = (stream == null) ? null : stream.collect(toCollection(ArrayList::new));
+    this.contents =
+        (stream == null) ? null : new StreamContents<Object>(stream.iterator(), retentionLimit);
   }
 
   @Override
   protected String actualCustomStringRepresentation() {
-    return String.valueOf(actualList);
+    return String.valueOf(contents);
   }
 
   public static Subject.Factory<StreamSubject, Stream<?>> streams() {
-    return (metadata, subject) -> new StreamSubject(metadata, subject);
+    return (metadata, subject) -> new StreamSubject(metadata, subject, StreamContents.UNLIMITED);
+  }
+
+  /**
+   * Returns a factory for subjects which retain at most {@code retentionLimit} of the elements they
+   * read for use in failure messages, for asserting on streams too large to hold in memory. For
+   * example, {@code assertAbout(streams(100)).that(hugeStream).doesNotContain(x)} reads all of
+   * {@code hugeStream} but holds on to at most 100 of its elements.
+   *
+   * <p>Failure messages show only the retained elements. Assertions which inherently need every
+   * element at once, like {@link #containsExactly} and {@link #containsNoDuplicates}, still retain
+   * every element, and throw {@link IllegalStateException} if an earlier assertion on the same
+   * subject has already discarded some.
+   */
+  public static Subject.Factory<StreamSubject, Stream<?>> streams(int retentionLimit) {
+    checkArgument(retentionLimit > 0, "retentionLimit (%s) must be positive", retentionLimit);
+    return (metadata, subject) -> new StreamSubject(metadata, subject, retentionLimit);
   }
 
   /** Fails if the subject is not empty. */
   public void isEmpty() {
-    check().that(actualList).isEmpty();
+    if (!contents.isEmpty()) {
+      failWithActual(simpleFact("expected to be empty"));
+    }
   }
 
   /** Fails if the subject is empty. */
   public void isNotEmpty() {
-    check().that(actualList).isNotEmpty();
+    if (contents.isEmpty()) {
+      failWithoutActual(simpleFact("expected not to be empty"));
+    }
   }
 
   /**
@@ -74,33 +103,62 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    * elements, use {@code assertThat(stream.count()).isEqualTo(...)}.
    */
   public void hasSize(int expectedSize) {
-    check().that(actualList).hasSize(expectedSize);
+    List<?> all = contents.allIfWithinLimit();
+    if (all != null) {
+      check().that(all).hasSize(expectedSize);
+    } else {
+      checkArgument(expectedSize >= 0, "expectedSize(%s) must be >= 0", expectedSize);
+      check("count()").that(contents.count()).isEqualTo((long) expectedSize);
+    }
   }
 
   /** Fails if the subject does not contain the given element. */
   public void contains(@NullableDecl Object element) {
-    check().that(actualList).contains(element);
+    if (!contents.contains(element)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.contains(element);
+      } else {
+        failWithActual("expected to contain", element);
+      }
+    }
   }
 
   /** Fails if the subject contains the given element. */
   public void doesNotContain(@NullableDecl Object element) {
-    check().that(actualList).doesNotContain(element);
+    if (contents.contains(element)) {
+      failWithActual("expected not to contain", element);
+    }
   }
 
   /** Fails if the subject contains duplicate elements. */
   public void containsNoDuplicates() {
-    check().that(actualList).containsNoDuplicates();
+    check().that(contents.all()).containsNoDuplicates();
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyOf(
       @NullableDecl Object first, @NullableDecl Object second, @NullableDecl Object... rest) {
-    check().that(actualList).containsAnyOf(first, second, rest);
+    if (!contents.containsAnyIn(accumulate(first, second, rest))) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsAnyOf(first, second, rest);
+      } else {
+        failWithActual("expected to contain any of", accumulate(first, second, rest));
+      }
+    }
   }
 
   /** Fails if the subject does not contain at least one of the given elements. */
   public void containsAnyIn(Iterable<?> expected) {
-    check().that(actualList).containsAnyIn(expected);
+    if (!contents.containsAnyIn(expected)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsAnyIn(expected);
+      } else {
+        failWithActual("expected to contain any of", expected);
+      }
+    }
   }
 
   /**
@@ -115,7 +173,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
   @CanIgnoreReturnValue
   public Ordered containsAllOf(
       @NullableDecl Object first, @NullableDecl Object second, @NullableDecl Object... rest) {
-    return check().that(actualList).containsAllOf(first, second, rest);
+    return check().that(contents.all()).containsAllOf(first, second, rest);
   }
 
   /**
@@ -129,7 +187,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   @CanIgnoreReturnValue
   public Ordered containsAllIn(Iterable<?> expected) {
-    return check().that(actualList).containsAllIn(expected);
+    return check().that(contents.all()).containsAllIn(expected);
   }
 
   /**
@@ -143,7 +201,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactly(@NullableDecl Object... varargs) {
-    return check().that(actualList).containsExactly(varargs);
+    return check().that(contents.all()).containsExactly(varargs);
   }
 
   /**
@@ -157,7 +215,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   @CanIgnoreReturnValue
   public Ordered containsExactlyElementsIn(Iterable<?> expected) {
-    return check().that(actualList).containsExactlyElementsIn(expected);
+    return check().that(contents.all()).containsExactlyElementsIn(expected);
   }
 
   /**
@@ -166,7 +224,14 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   public void containsNoneOf(
       @NullableDecl Object first, @NullableDecl Object second, @NullableDecl Object... rest) {
-    check().that(actualList).containsNoneOf(first, second, rest);
+    if (contents.containsAnyIn(accumulate(first, second, rest))) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsNoneOf(first, second, rest);
+      } else {
+        failWithActual("expected not to contain any of", accumulate(first, second, rest));
+      }
+    }
   }
 
   /**
@@ -174,7 +239,25 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    * test, which fails if any of the actual elements equal any of the excluded.)
    */
   public void containsNoneIn(Iterable<?> excluded) {
-    check().that(actualList).containsNoneIn(excluded);
+    if (contents.containsAnyIn(excluded)) {
+      IterableSubject all = checkAllIfDisplayable();
+      if (all != null) {
+        all.containsNoneIn(excluded);
+      } else {
+        failWithActual("expected not to contain any of", excluded);
+      }
+    }
+  }
+
+  /**
+   * Fails if the subject does not begin with the given elements, in the given order. Only as many
+   * elements as given are read in order for the check to pass.
+   */
+  public void startsWith(@NullableDecl Object... expectedPrefix) {
+    List<Object> prefix = Arrays.asList(expectedPrefix);
+    if (!contents.startsWith(prefix)) {
+      failWithActual("expected to start with", prefix);
+    }
   }
 
   /**
@@ -187,7 +270,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInStrictOrder() {
-    check().that(actualList).isStrictlyOrdered();
+    check().that(contents.all()).isStrictlyOrdered();
   }
 
   /**
@@ -199,7 +282,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInStrictOrder(Comparator<?> comparator) {
-    check().that(actualList).isStrictlyOrdered(comparator);
+    check().that(contents.all()).isStrictlyOrdered(comparator);
   }
 
   /**
@@ -211,7 +294,7 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInOrder() {
-    check().that(actualList).isOrdered();
+    check().that(contents.all()).isOrdered();
   }
 
   /**
@@ -222,7 +305,24 @@ public final class StreamSubject extends Subject<StreamSubject, Stream<?>> {
    */
   // TODO(kak): Make this public once go/truth-stream-isinorder is decided
   private void isInOrder(Comparator<?> comparator) {
-    check().that(actualList).isOrdered(comparator);
+    check().that(contents.all()).isOrdered(comparator);
+  }
+
+  private static List<Object> accumulate(
+      @NullableDecl Object first, @NullableDecl Object second, @NullableDecl Object... rest) {
+    // As in IterableSubject, a null array means that the caller passed a single null as the third
+    // element.
+    return Lists.asList(first, second, (rest == null) ? new Object[] {null} : rest);
+  }
+
+  /**
+   * Returns a subject for all the elements of the stream if they fit within the retention limit and
+   * the number of elements a failure message shows, or null if they don't.
+   */
+  @NullableDecl
+  private IterableSubject checkAllIfDisplayable() {
+    List<?> all = contents.allIfDisplayable();
+    return all == null ? null : check().that(all);
   }
 
   // TODO(kak/cpovirk): Do we want to override + deprecate isEqualTo/isNotEqualTo?
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link FileContents}, using windows small enough to exercise window boundaries. */
+@RunWith(JUnit4.class)
+public class FileContentsTest {
+  private static final int SIZE = 1000;
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void mismatch() throws IOException {
+    byte[] data = data();
+    try (FileChannel actual = channel(data)) {
+      for (int windowSize : new int[] {1, 7, 64, SIZE, 4 * SIZE}) {
+        try (FileChannel same = channel(data)) {
+          assertThat(FileContents.mismatch(actual, same, windowSize)).isEqualTo(-1);
+        }
+        for (int offset : new int[] {0, 1, 7, 8, 63, 64, 65, SIZE - 1}) {
+          byte[] different = data.clone();
+          different[offset]++;
+          try (FileChannel expected = channel(different)) {
+            assertThat(FileContents.mismatch(actual, expected, windowSize)).isEqualTo(offset);
+          }
+        }
+        try (FileChannel longer = channel(new byte[SIZE + 1])) {
+          // The all-zero file first differs from data() at data()'s first nonzero byte.
+          assertThat(FileContents.mismatch(actual, longer, windowSize)).isEqualTo(1);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void mismatch_prefix() throws IOException {
+    byte[] data = data();
+    try (FileChannel actual = channel(data);
+        FileChannel prefix = channel(Arrays.copyOf(data, SIZE - 10))) {
+      assertThat(FileContents.mismatch(actual, prefix, 64)).isEqualTo(SIZE - 10);
+      assertThat(FileContents.mismatch(prefix, actual, 64)).isEqualTo(SIZE - 10);
+    }
+  }
+
+  @Test
+  public void indexOf() throws IOException {
+    byte[] data = data();
+    try (FileChannel actual = channel(data)) {
+      for (int windowSize : new int[] {1, 5, 64, SIZE, 4 * SIZE}) {
+        for (int offset : new int[] {0, 1, 60, 62, 63, 64, SIZE - 3}) {
+          byte[] target = Arrays.copyOfRange(data, offset, offset + 3);
+          assertThat(FileContents.indexOf(actual, target, windowSize))
+              .isEqualTo(firstIndexOf(data, target));
+        }
+        assertThat(FileContents.indexOf(actual, new byte[] {-1, -1}, windowSize)).isEqualTo(-1);
+      }
+    }
+  }
+
+  @Test
+  public void hash() throws IOException {
+    byte[] data = data();
+    try (FileChannel actual = channel(data)) {
+      for (int windowSize : new int[] {1, 7, 64, SIZE, 4 * SIZE}) {
+        assertThat(FileContents.hash(actual, Hashing.sha256(), windowSize))
+            .isEqualTo(Hashing.sha256().hashBytes(data));
+      }
+    }
+  }
+
+  @Test
+  public void mappedWindows() throws IOException {
+    int size = FileContents.MIN_MAPPED_LENGTH * 5 / 2;
+    int windowSize = FileContents.MIN_MAPPED_LENGTH;
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i ^ (i >>> 8));
+    }
+    byte[] different = data.clone();
+    different[size - 2]++;
+    byte[] target = Arrays.copyOfRange(data, windowSize - 2, windowSize + 2);
+    try (FileChannel actual = channel(data);
+        FileChannel same = channel(data);
+        FileChannel expected = channel(different)) {
+      assertThat(FileContents.mismatch(actual, same, windowSize)).isEqualTo(-1);
+      assertThat(FileContents.mismatch(actual, expected, windowSize)).isEqualTo(size - 2);
+      assertThat(FileContents.indexOf(actual, target, windowSize))
+          .isEqualTo(firstIndexOf(data, target));
+      assertThat(FileContents.hash(actual, Hashing.sha256(), windowSize))
+          .isEqualTo(Hashing.sha256().hashBytes(data));
+    }
+  }
+
+  /** Returns bytes with no run of three repeated within any 256-byte stretch. */
+  private static byte[] data() {
+    byte[] data = new byte[SIZE];
+    for (int i = 0; i < SIZE; i++) {
+      data[i] = (byte) (i * 7 + i / 256);
+    }
+    return data;
+  }
+
+  private static int firstIndexOf(byte[] data, byte[] target) {
+    outer:
+    for (int i = 0; i <= data.length - target.length; i++) {
+      for (int j = 0; j < target.length; j++) {
+        if (data[i + j] != target[j]) {
+          continue outer;
+        }
+      }
+      return i;
+    }
+    return -1;
+  }
+
+  private FileChannel channel(byte[] contents) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, contents);
+    return FileChannel.open(file);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link FileTreeComparison}, using chunks small enough to split files up. */
+@RunWith(JUnit4.class)
+public class FileTreeComparisonTest {
+  private static final int FILE_COUNT = 20;
+  private static final int FILE_SIZE = 1000;
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void sameTrees() throws IOException {
+    Path actual = tree(-1);
+    Path expected = tree(-1);
+    for (long chunkSize : new long[] {1, 7, 100, FILE_SIZE, 10 * FILE_SIZE}) {
+      assertThat(FileTreeComparison.compare(actual, expected, chunkSize).isSame()).isTrue();
+    }
+  }
+
+  @Test
+  public void firstMismatchIsReportedWhicheverChunkFindsItFirst() throws IOException {
+    Path expected = tree(-1);
+    for (int offset : new int[] {0, 99, 100, 101, 555, FILE_SIZE - 1}) {
+      Path actual = tree(offset);
+      // A second difference later in the same file, which must not be reported instead.
+      byte[] contents = Files.readAllBytes(actual.resolve("dir/file7"));
+      contents[FILE_SIZE - 1]++;
+      Files.write(actual.resolve("dir/file7"), contents);
+      for (long chunkSize : new long[] {1, 7, 100, FILE_SIZE}) {
+        FileTreeComparison comparison = FileTreeComparison.compare(actual, expected, chunkSize);
+        assertThat(comparison.missing).isEmpty();
+        assertThat(comparison.unexpected).isEmpty();
+        assertThat(comparison.different)
+            .containsExactly(
+                "dir/file7",
+                "first differed at byte offset " + Math.min(offset, FILE_SIZE - 1));
+      }
+    }
+  }
+
+  /**
+   * Creates a directory of same-sized files. If {@code differentOffset} is nonnegative, the byte at
+   * that offset of {@code dir/file7} is changed.
+   */
+  private Path tree(int differentOffset) throws IOException {
+    Path root = temporaryFolder.newFolder().toPath();
+    Files.createDirectory(root.resolve("dir"));
+    for (int i = 0; i < FILE_COUNT; i++) {
+      byte[] contents = new byte[FILE_SIZE];
+      for (int j = 0; j < FILE_SIZE; j++) {
+        contents[j] = (byte) (i + j);
+      }
+      if (i == 7 && differentOffset >= 0) {
+        contents[differentOffset]++;
+      }
+      Files.write(root.resolve("dir/file" + i), contents);
+    }
+    return root;
+  }
+}
@@ -319,6 +319,75 @@ public final class IntStreamSubjectTest {
     assertThat(IntStream.of(1, 2, 3, 4)).containsExactly(1, 2, 3, 4).inOrder();
   }
 
+  @Test
+  public void testContains_infiniteStream() throws Exception {
+    assertThat(IntStream.iterate(0, i -> i + 1)).contains(1000);
+  }
+
+  @Test
+  public void testIsEmpty_infiniteStream_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(IntStream.iterate(0, i -> i + 1)).isEmpty());
+    assertFailureKeys(failure, "expected to be empty", "but was");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .endsWith(", 999, ...] (showing the first " + StreamContents.MAX_DISPLAYED + " elements)");
+  }
+
+  @Test
+  public void testDoesNotContain_infiniteStream_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(IntStream.iterate(0, i -> i + 1)).doesNotContain(7));
+    assertFailureKeys(failure, "expected not to contain", "but was");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .endsWith("(showing the first " + StreamContents.MAX_DISPLAYED + " elements)");
+  }
+
+  @Test
+  public void testStartsWith() throws Exception {
+    assertThat(IntStream.iterate(0, i -> i + 1)).startsWith(0, 1, 2);
+  }
+
+  @Test
+  public void testStartsWith_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(IntStream.of(42, 43)).startsWith(43));
+    assertFailureKeys(failure, "expected to start with", "but was");
+    assertFailureValue(failure, "but was", "[42, 43]");
+  }
+
+  @Test
+  public void testContainsAllOf_respectsMultiplicity() throws Exception {
+    assertThat(IntStream.of(1, 2, 1)).containsAllOf(1, 1).inOrder();
+    AssertionError unused =
+        expectFailure(whenTesting -> whenTesting.that(IntStream.of(1, 2, 3)).containsAllOf(1, 1));
+  }
+
+  @Test
+  public void testContainsExactly_duplicates() throws Exception {
+    assertThat(IntStream.of(1, 2, 1)).containsExactly(1, 1, 2);
+    AssertionError unused =
+        expectFailure(
+            whenTesting -> whenTesting.that(IntStream.of(1, 2, 2)).containsExactly(1, 1, 2));
+  }
+
+  @Test
+  public void testContainsExactlyElementsIn_wrongType_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting ->
+                whenTesting.that(IntStream.of(42)).containsExactlyElementsIn(asList(42L)));
+  }
+
+  @Test
+  public void testContainsExactly_largeStream() throws Exception {
+    int[] expected = IntStream.range(0, 1_000_000).toArray();
+    assertThat(IntStream.range(0, 1_000_000)).containsExactly(expected).inOrder();
+    assertThat(IntStream.range(0, 1_000_000)).containsNoDuplicates();
+  }
+
   private static AssertionError expectFailure(
       ExpectFailure.SimpleSubjectBuilderCallback<IntStreamSubject, IntStream> assertionCallback) {
     return ExpectFailure.expectFailureAbout(intStreams(), assertionCallback);
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth;
+
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.FailureAssertions.assertFailureKeys;
+import static com.google.common.truth.FailureAssertions.assertFailureValue;
+import static com.google.common.truth.PathSubject.paths;
+import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Tests for {@link PathLinesSubject}. */
+@RunWith(JUnit4.class)
+public class PathLinesSubjectTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void containsLine() throws IOException {
+    Path file = file("alpha\nbeta\r\ngamma");
+    assertThat(file).lines(UTF_8).containsLine("beta");
+    assertThat(file).lines(UTF_8).containsLine("gamma");
+  }
+
+  @Test
+  public void containsLineFailure() throws IOException {
+    Path file = file("alpha\nbeta\n");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).lines(UTF_8).containsLine("alph"));
+    assertFailureKeys(
+        e, "value of", "expected to contain line", "but did not", "line count", "path was");
+    assertFailureValue(e, "value of", "path.lines(UTF-8)");
+    assertFailureValue(e, "line count", "2");
+  }
+
+  @Test
+  public void containsLinesInOrder() throws IOException {
+    Path file = file("a\nb\nc\nd\n");
+    assertThat(file).lines(UTF_8).containsLinesInOrder("a", "c", "d");
+    assertThat(file).lines(UTF_8).containsLinesInOrder();
+  }
+
+  @Test
+  public void containsLinesInOrderFailure() throws IOException {
+    Path file = file("a\nb\nc\nd\n");
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(file).lines(UTF_8).containsLinesInOrder("b", "a"));
+    assertFailureValue(e, "expected to contain lines in order", "[b, a]");
+    assertFailureValue(e, "but did not contain, after the earlier ones", "a");
+  }
+
+  @Test
+  public void allLinesMatch() throws IOException {
+    Path file = file("x=1\ny=22\n");
+    assertThat(file).lines(UTF_8).allLinesMatch("[a-z]=\\d+");
+    assertThat(file).lines(UTF_8).allLinesMatch(Pattern.compile("\\w=\\d+"));
+  }
+
+  @Test
+  public void allLinesMatchFailure() throws IOException {
+    StringBuilder contents = new StringBuilder();
+    for (int i = 1; i <= 25; i++) {
+      contents.append(i % 2 == 0 ? "ok\n" : "bad " + i + "\n");
+    }
+    Path file = file(contents.toString());
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).lines(UTF_8).allLinesMatch("ok"));
+    assertFailureValue(e, "but the number of lines which did not was", "13");
+    assertFailureValue(e, "line 1", "bad 1");
+    assertFailureValue(e, "line 19", "bad 19");
+    assertThat(e).factKeys().doesNotContain("line 21");
+  }
+
+  @Test
+  public void hasLineCount() throws IOException {
+    assertThat(file("a\nb\n")).lines(UTF_8).hasLineCount(2);
+    assertThat(file("a\nb")).lines(UTF_8).hasLineCount(2);
+    assertThat(file("")).lines(UTF_8).hasLineCount(0);
+  }
+
+  @Test
+  public void hasLineCountFailure() throws IOException {
+    Path file = file("a\nb\n");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).lines(UTF_8).hasLineCount(3));
+    assertFailureKeys(e, "value of", "expected line count", "but was", "path was");
+    assertFailureValue(e, "but was", "2");
+  }
+
+  @Test
+  public void hasSameLinesAs() throws IOException {
+    assertThat(file("a\r\nb\n")).lines(UTF_8).hasSameLinesAs(file("a\nb"));
+  }
+
+  @Test
+  public void hasSameLinesAsFailure() throws IOException {
+    Path actual = file("a\nB\nc\nd\n");
+    Path expected = file("a\nb\nc\n");
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(actual).lines(UTF_8).hasSameLinesAs(expected));
+    assertFailureKeys(
+        e,
+        "value of",
+        "expected to have the same lines as",
+        "but the number of lines which differed was",
+        "line 2",
+        "line 4",
+        "path was");
+    assertFailureValue(e, "line 2", "expected: \"b\", but was: \"B\"");
+    assertFailureValue(e, "line 4", "expected no such line, but was: \"d\"");
+  }
+
+  @Test
+  public void hasSameLinesAsFailure_insertedLine() throws IOException {
+    Path actual = file("new\na\nb\nc\n");
+    Path expected = file("a\nb\nc\n");
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(actual).lines(UTF_8).hasSameLinesAs(expected));
+    assertFailureKeys(
+        e,
+        "value of",
+        "expected to have the same lines as",
+        "but the number of lines which differed was",
+        "line 1",
+        "path was");
+    assertFailureValue(e, "line 1", "expected no such line, but was: \"new\"");
+  }
+
+  @Test
+  public void hasSameLinesAsFailure_deletedLines() throws IOException {
+    Path actual = file("a\nd\ne\n");
+    Path expected = file("a\nb\nc\nd\nE\n");
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(actual).lines(UTF_8).hasSameLinesAs(expected));
+    assertFailureKeys(
+        e,
+        "value of",
+        "expected to have the same lines as",
+        "but the number of lines which differed was",
+        "expected line 2",
+        "expected line 3",
+        "line 3",
+        "path was");
+    assertFailureValue(e, "but the number of lines which differed was", "3");
+    assertFailureValue(e, "expected line 2", "expected: \"b\", but there was no such line");
+    assertFailureValue(e, "line 3", "expected: \"E\", but was: \"e\"");
+  }
+
+  @Test
+  public void hasSameLinesAsFailure_insertionBeyondWindow() throws IOException {
+    StringBuilder actual = new StringBuilder();
+    for (int i = 0; i <= PathLinesSubject.RESYNC_WINDOW_LINES; i++) {
+      actual.append("new ").append(i).append('\n');
+    }
+    actual.append("a\n");
+    Path actualFile = file(actual.toString());
+    Path expectedFile = file("a\n");
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(actualFile).lines(UTF_8).hasSameLinesAs(expectedFile));
+    assertFailureValue(e, "line 1", "expected: \"a\", but was: \"new 0\"");
+    assertFailureValue(
+        e,
+        "but the number of lines which differed was",
+        String.valueOf(PathLinesSubject.RESYNC_WINDOW_LINES + 2));
+  }
+
+  @Test
+  public void hasSameLinesAsFailure_truncated() throws IOException {
+    StringBuilder actual = new StringBuilder();
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      actual.append("actual ").append(i).append('\n');
+      expected.append("expected ").append(i).append('\n');
+    }
+    expected.append("extra\n");
+    Path actualFile = file(actual.toString());
+    Path expectedFile = file(expected.toString());
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(actualFile).lines(UTF_8).hasSameLinesAs(expectedFile));
+    assertFailureValue(e, "but the number of lines which differed was", "101");
+    assertThat(e).factKeys().contains("line " + PathLinesSubject.MAX_REPORTED_LINES);
+    assertThat(e).factKeys().doesNotContain("line " + (PathLinesSubject.MAX_REPORTED_LINES + 1));
+  }
+
+  @Test
+  public void missingFile() {
+    Path missing = temporaryFolder.getRoot().toPath().resolve("missing");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(missing).lines(UTF_8).hasLineCount(0));
+    assertFailureKeys(e, "value of", "expected a file to exist", "path was");
+  }
+
+  @Test
+  public void malformedInput() throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, new byte[] {'a', '\n', (byte) 0xff, '\n'});
+    try {
+      assertThat(file).lines(UTF_8).hasLineCount(2);
+      fail();
+    } catch (UncheckedIOException expected) {
+    }
+  }
+
+  private Path file(String contents) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, contents.getBytes(UTF_8));
+    return file;
+  }
+
+  private static AssertionError expectFailure(
+      ExpectFailure.SimpleSubjectBuilderCallback<PathSubject, Path> callback) {
+    return ExpectFailure.expectFailureAbout(paths(), callback);
+  }
+}
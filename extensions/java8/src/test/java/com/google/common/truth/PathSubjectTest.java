@@ -15,17 +15,251 @@
  */
 package com.google.common.truth;
 
+import static com.google.common.truth.ExpectFailure.assertThat;
+import static com.google.common.truth.FailureAssertions.assertFailureKeys;
+import static com.google.common.truth.FailureAssertions.assertFailureValue;
+import static com.google.common.truth.PathSubject.paths;
 import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 @RunWith(JUnit4.class)
 public class PathSubjectTest {
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
   @Test
   public void basicEquality() {
     assertThat(Paths.get("foo")).isEqualTo(Paths.get("foo"));
   }
+
+  @Test
+  public void exists() throws IOException {
+    Path file = file("hello");
+    assertThat(file).exists();
+    assertThat(file.resolveSibling("missing")).doesNotExist();
+  }
+
+  @Test
+  public void existsFailure() {
+    AssertionError e = expectFailure(whenTesting -> whenTesting.that(missing()).exists());
+    assertFailureKeys(e, "expected to exist", "but was");
+  }
+
+  @Test
+  public void doesNotExistFailure() throws IOException {
+    Path file = file("hello");
+    AssertionError e = expectFailure(whenTesting -> whenTesting.that(file).doesNotExist());
+    assertFailureKeys(e, "expected not to exist", "but was");
+  }
+
+  @Test
+  public void hasSize() throws IOException {
+    assertThat(file("hello")).hasSize(5);
+    assertThat(file("")).hasSize(0);
+  }
+
+  @Test
+  public void hasSizeFailure() throws IOException {
+    Path file = file("hello");
+    AssertionError e = expectFailure(whenTesting -> whenTesting.that(file).hasSize(4));
+    assertThat(e).factValue("expected").isEqualTo("4");
+    assertThat(e).factValue("but was").isEqualTo("5");
+  }
+
+  @Test
+  public void hasSizeFailure_directory() {
+    Path directory = temporaryFolder.getRoot().toPath();
+    AssertionError e = expectFailure(whenTesting -> whenTesting.that(directory).hasSize(0));
+    assertFailureKeys(e, "expected to be a regular file", "but was");
+  }
+
+  @Test
+  public void hasSizeFailure_missing() {
+    AssertionError e = expectFailure(whenTesting -> whenTesting.that(missing()).hasSize(0));
+    assertFailureKeys(e, "expected to exist", "but was");
+  }
+
+  @Test
+  public void hasSameContentAs() throws IOException {
+    assertThat(file("hello world")).hasSameContentAs(file("hello world"));
+    assertThat(file("")).hasSameContentAs(file(""));
+  }
+
+  @Test
+  public void hasSameContentAsFailure() throws IOException {
+    Path actual = file("hello world");
+    Path expected = file("hello there");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(expected));
+    assertFailureKeys(
+        e,
+        "expected to have the same content as",
+        "but first differed at byte offset",
+        "expected size",
+        "actual size",
+        "but was");
+    assertFailureValue(e, "but first differed at byte offset", "6");
+  }
+
+  @Test
+  public void hasSameContentAsFailure_prefix() throws IOException {
+    Path actual = file("hello");
+    Path expected = file("hello world");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(expected));
+    assertFailureValue(e, "but first differed at byte offset", "5");
+    assertFailureValue(e, "expected size", "11");
+    assertFailureValue(e, "actual size", "5");
+  }
+
+  @Test
+  public void hasSameContentAsFailure_expectedMissing() throws IOException {
+    Path actual = file("hello");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameContentAs(missing()));
+    assertFailureKeys(
+        e, "expected to have the same content as", "but that is not a regular file", "but was");
+  }
+
+  @Test
+  public void startsWithBytes() throws IOException {
+    Path file = file("hello");
+    assertThat(file).startsWithBytes(bytes("he"));
+    assertThat(file).startsWithBytes(bytes("hello"));
+    assertThat(file).startsWithBytes();
+  }
+
+  @Test
+  public void startsWithBytesFailure() throws IOException {
+    Path file = file("hello");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).startsWithBytes(bytes("help")));
+    assertFailureKeys(
+        e, "expected to start with bytes", "but first differed at byte offset", "but was");
+    assertFailureValue(e, "expected to start with bytes", "68656C70");
+    assertFailureValue(e, "but first differed at byte offset", "3");
+  }
+
+  @Test
+  public void startsWithBytesFailure_tooShort() throws IOException {
+    Path file = file("hello");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).startsWithBytes(bytes("hello!")));
+    assertFailureValue(e, "but first differed at byte offset", "5");
+  }
+
+  @Test
+  public void containsBytes() throws IOException {
+    Path file = file("hello world");
+    assertThat(file).containsBytes(bytes("o w"));
+    assertThat(file).containsBytes(bytes("world"));
+    assertThat(file).containsBytes();
+  }
+
+  @Test
+  public void containsBytesFailure() throws IOException {
+    Path file = file("hello world");
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).containsBytes(bytes("worlds")));
+    assertFailureKeys(e, "expected to contain bytes", "but was");
+  }
+
+  @Test
+  public void hasContentHash() throws IOException {
+    assertThat(file("hello"))
+        .hasContentHash(Hashing.sha256(), Hashing.sha256().hashBytes(bytes("hello")));
+  }
+
+  @Test
+  public void hasContentHashFailure() throws IOException {
+    Path file = file("hello");
+    HashCode expected = Hashing.sha256().hashBytes(bytes("goodbye"));
+    AssertionError e =
+        expectFailure(
+            whenTesting -> whenTesting.that(file).hasContentHash(Hashing.sha256(), expected));
+    assertFailureKeys(
+        e, "expected content hash", "but content hashed to", "hash function", "but was");
+    assertFailureValue(e, "expected content hash", expected.toString());
+  }
+
+  @Test
+  public void hasSameTreeAs() throws IOException {
+    assertThat(tree("a", "b/c", "b/d/e")).hasSameTreeAs(tree("a", "b/c", "b/d/e"));
+    assertThat(tree()).hasSameTreeAs(tree());
+  }
+
+  @Test
+  public void hasSameTreeAsFailure() throws IOException {
+    Path actual = tree("a", "b/c", "b/d/e", "extra");
+    Path expected = tree("a", "b/c", "b/d/e", "gone/f");
+    Files.write(actual.resolve("a"), bytes("A"));
+    Files.write(actual.resolve("b/c"), bytes("not c"));
+    Files.delete(actual.resolve("b/d/e"));
+    Files.createDirectory(actual.resolve("b/d/e"));
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(actual).hasSameTreeAs(expected));
+    assertFailureKeys(
+        e, "expected to have the same tree as", "missing", "unexpected", "different", "but was");
+    assertFailureValue(e, "missing", "[gone, gone/f]");
+    assertFailureValue(e, "unexpected", "[extra]");
+    assertFailureValue(
+        e,
+        "different",
+        "[a (first differed at byte offset 0), "
+            + "b/c (expected size 3, but was 5), "
+            + "b/d/e (expected a regular file, but was a directory)]");
+  }
+
+  @Test
+  public void hasSameTreeAsFailure_notDirectories() throws IOException {
+    Path file = file("hello");
+    Path directory = tree();
+    AssertionError e =
+        expectFailure(whenTesting -> whenTesting.that(file).hasSameTreeAs(directory));
+    assertFailureKeys(e, "expected to be a directory", "but was");
+    e = expectFailure(whenTesting -> whenTesting.that(directory).hasSameTreeAs(file));
+    assertFailureKeys(
+        e, "expected to have the same tree as", "but that is not a directory", "but was");
+  }
+
+  /** Creates a directory of files with the given relative names, each containing its name. */
+  private Path tree(String... names) throws IOException {
+    Path root = temporaryFolder.newFolder().toPath();
+    for (String name : names) {
+      Path file = root.resolve(name);
+      Files.createDirectories(file.getParent());
+      Files.write(file, bytes(name));
+    }
+    return root;
+  }
+
+  private Path file(String contents) throws IOException {
+    Path file = temporaryFolder.newFile().toPath();
+    Files.write(file, bytes(contents));
+    return file;
+  }
+
+  private Path missing() {
+    return temporaryFolder.getRoot().toPath().resolve("missing");
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(UTF_8);
+  }
+
+  private static AssertionError expectFailure(
+      ExpectFailure.SimpleSubjectBuilderCallback<PathSubject, Path> assertionCallback) {
+    return ExpectFailure.expectFailureAbout(paths(), assertionCallback);
+  }
 }
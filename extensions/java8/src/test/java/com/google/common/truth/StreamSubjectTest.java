@@ -18,6 +18,7 @@ package com.google.common.truth;
 import static com.google.common.truth.FailureAssertions.assertFailureKeys;
 import static com.google.common.truth.FailureAssertions.assertFailureValue;
 import static com.google.common.truth.StreamSubject.streams;
+import static com.google.common.truth.Truth.assertAbout;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
 import static java.util.Arrays.asList;
@@ -329,6 +330,150 @@ public final class StreamSubjectTest {
     }
   }
 
+  @Test
+  public void testIsNotEmpty_infiniteStream() throws Exception {
+    assertThat(Stream.generate(() -> "hello")).isNotEmpty();
+  }
+
+  @Test
+  public void testContains_infiniteStream() throws Exception {
+    assertThat(Stream.iterate(0, i -> i + 1)).contains(1000);
+  }
+
+  @Test
+  public void testContainsAnyOf_infiniteStream() throws Exception {
+    assertThat(Stream.iterate(0, i -> i + 1)).containsAnyOf(-1, 1000);
+  }
+
+  @Test
+  public void testIsEmpty_infiniteStream_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).isEmpty());
+    assertFailureKeys(failure, "expected to be empty", "but was");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .startsWith("[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, ");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .endsWith(", 999, ...] (showing the first " + StreamContents.MAX_DISPLAYED + " elements)");
+  }
+
+  @Test
+  public void testDoesNotContain_infiniteStream_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).doesNotContain(7));
+    assertFailureKeys(failure, "expected not to contain", "but was");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .endsWith("(showing the first " + StreamContents.MAX_DISPLAYED + " elements)");
+  }
+
+  @Test
+  public void testContainsNoneOf_infiniteStream_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).containsNoneOf(5, 7));
+    assertFailureKeys(failure, "expected not to contain any of", "but was");
+    ExpectFailure.assertThat(failure)
+        .factValue("but was")
+        .endsWith("(showing the first " + StreamContents.MAX_DISPLAYED + " elements)");
+  }
+
+  @Test
+  public void testStartsWith() throws Exception {
+    assertThat(Stream.of("hell", "hello", "help")).startsWith("hell", "hello");
+    assertThat(Stream.of("hell", "hello")).startsWith();
+  }
+
+  @Test
+  public void testStartsWith_infiniteStream() throws Exception {
+    assertThat(Stream.iterate(0, i -> i + 1)).startsWith(0, 1, 2);
+  }
+
+  @Test
+  public void testStartsWith_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.of("hell", "hello")).startsWith("hello"));
+    assertFailureKeys(failure, "expected to start with", "but was");
+    assertFailureValue(failure, "but was", "[hell, hello]");
+  }
+
+  @Test
+  public void testStartsWith_tooShort_fails() throws Exception {
+    AssertionError unused =
+        expectFailure(
+            whenTesting -> whenTesting.that(Stream.of("hell")).startsWith("hell", "hello"));
+  }
+
+  @Test
+  public void testRetentionLimit_largeStream() throws Exception {
+    assertAbout(streams(10))
+        .that(Stream.iterate(0, i -> i + 1).limit(1_000_000))
+        .doesNotContain(-1);
+    assertAbout(streams(10))
+        .that(Stream.iterate(0, i -> i + 1).limit(1_000_000))
+        .hasSize(1_000_000);
+  }
+
+  @Test
+  public void testRetentionLimit_failureShowsRetainedElements() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            streams(3),
+            whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).startsWith(0, 2));
+    assertFailureKeys(failure, "expected to start with", "but was");
+    assertFailureValue(failure, "but was", "[0, 1, 2, ...] (showing the first 3 elements)");
+  }
+
+  @Test
+  public void testRetentionLimit_doesNotContain_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            streams(3),
+            whenTesting -> whenTesting.that(Stream.iterate(0, i -> i + 1)).doesNotContain(7));
+    assertFailureKeys(failure, "expected not to contain", "but was");
+    assertFailureValue(failure, "but was", "[0, 1, 2, ...] (showing the first 3 elements)");
+  }
+
+  @Test
+  public void testRetentionLimit_hasSize_fails() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            streams(3), whenTesting -> whenTesting.that(Stream.of(1, 2, 3, 4, 5)).hasSize(4));
+    assertFailureKeys(failure, "value of", "expected", "but was", "stream was");
+    assertFailureValue(failure, "value of", "stream.count()");
+  }
+
+  @Test
+  public void testRetentionLimit_withinLimit_sameFailureAsUnlimited() throws Exception {
+    AssertionError failure =
+        expectFailure(
+            streams(3),
+            whenTesting ->
+                whenTesting.that(Stream.of("hell", "hello")).containsNoneOf("hello", "x"));
+    assertFailureKeys(failure, "expected not to contain any of", "but contained", "full contents");
+    assertFailureValue(failure, "full contents", "[hell, hello]");
+  }
+
+  @Test
+  public void testRetentionLimit_rereadingDiscardedElements_throws() throws Exception {
+    StreamSubject subject = assertAbout(streams(2)).that(Stream.of(1, 2, 3, 4));
+    subject.doesNotContain(5);
+    try {
+      subject.contains(1);
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  private static AssertionError expectFailure(
+      Subject.Factory<StreamSubject, Stream<?>> factory,
+      ExpectFailure.SimpleSubjectBuilderCallback<StreamSubject, Stream<?>> assertionCallback) {
+    return ExpectFailure.expectFailureAbout(factory, assertionCallback);
+  }
+
   private static AssertionError expectFailure(
       ExpectFailure.SimpleSubjectBuilderCallback<StreamSubject, Stream<?>> assertionCallback) {
     return ExpectFailure.expectFailureAbout(streams(), assertionCallback);
@@ -16,13 +16,22 @@
 
 package com.google.common.truth.extensions.proto;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.truth.Fact.fact;
+import static com.google.common.truth.Fact.simpleFact;
+
 import com.google.common.base.Objects;
+import com.google.common.truth.Fact;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.IntegerSubject;
+import com.google.common.truth.MapSubject;
 import com.google.common.truth.Subject;
 import com.google.common.truth.Truth;
 import com.google.errorprone.annotations.CheckReturnValue;
 import com.google.protobuf.MessageLite;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
@@ -91,6 +100,11 @@ public class LiteProtoSubject<S extends LiteProtoSubject<S, M>, M extends Messag
   /**
    * Checks whether the MessageLite is equivalent to the argument, using the standard equals()
    * implementation.
+   *
+   * <p>If both are messages of the same type, the failure message lists the field-number paths
+   * whose values differ between their serialized forms. Without descriptors, that comparison can't
+   * tell a string from a sub-message, or a map from a repeated field, so it follows the rules
+   * described on {@link WireFormatTree}.
    */
   @Override
   public void isEqualTo(@NullableDecl Object expected) {
@@ -109,6 +123,17 @@ public class LiteProtoSubject<S extends LiteProtoSubject<S, M>, M extends Messag
           internalCustomName() != null ? internalCustomName() + " (proto)" : "proto",
           expected.getClass().getName());
     } else {
+      List<Fact> differences = WireFormatTree.differences(actual(), (MessageLite) expected);
+      if (!differences.isEmpty()) {
+        // Unlike the toString() comparison below, this needs no reflection, and shows only the
+        // differing fields, however large the messages are.
+        List<Fact> facts = new ArrayList<>(differences);
+        facts.add(fact("proto type", actual().getClass().getName()));
+        failWithoutActual(
+            simpleFact("expected to be equal, but serialized fields differed"),
+            facts.toArray(new Fact[0]));
+        return;
+      }
       /*
        * TODO(cpovirk): If we someday let subjects override formatActualOrExpected(), change this
        * class to do so, and make this code path always delegate to super.isEqualTo().
@@ -199,6 +224,75 @@ public class LiteProtoSubject<S extends LiteProtoSubject<S, M>, M extends Messag
     return check("getSerializedSize()").that(actual().getSerializedSize());
   }
 
+  /**
+   * Returns a {@link MapSubject} on the number of serialized bytes of each top-level field of the
+   * MessageLite, including the bytes of its tags, keyed by field number. The sizes add up to the
+   * {@linkplain #serializedSize serialized size}.
+   *
+   * <p>The sizes are counted while the message is written to a stream which discards its bytes, so
+   * the serialized form is never held in memory.
+   */
+  public MapSubject serializedFieldSizes() {
+    return check("serializedFieldSizes()").that(SerializedBytes.fieldSizes(actual()));
+  }
+
+  /**
+   * Returns an {@link IntegerSubject} on the number of serialized bytes of the top-level field with
+   * the given number, including the bytes of its tags, or zero if the field is not set.
+   *
+   * <p>Assertions can then be made on the size of that field, to support checks such as {@code
+   * assertThat(myProto).serializedSizeOfField(3).isAtMost(1024)}, etc.
+   */
+  public IntegerSubject serializedSizeOfField(int fieldNumber) {
+    checkArgument(fieldNumber > 0, "fieldNumber (%s) must be positive", fieldNumber);
+    Integer size = SerializedBytes.fieldSizes(actual()).get(fieldNumber);
+    return check("serializedSizeOfField(%s)", fieldNumber).that(size == null ? 0 : size);
+  }
+
+  /**
+   * Checks whether the MessageLite serializes to exactly the same bytes as {@code expected}. This
+   * is stricter than {@link #isEqualTo}: equal messages may differ in the order of their map
+   * entries or unknown fields, for example.
+   *
+   * <p>The serializations are compared a chunk at a time as they are written, so neither is ever
+   * held in memory, and messages of hundreds of megabytes can be compared without doubling the
+   * heap. The failure message shows the offset of the first differing byte.
+   */
+  public void isSerializedIdenticallyTo(MessageLite expected) {
+    checkNotNull(expected);
+    long mismatch =
+        SerializedBytes.mismatch(
+            actual(), false, expected, false, SerializedBytes.DEFAULT_CHUNK_SIZE);
+    if (mismatch >= 0) {
+      failWithoutActual(
+          simpleFact("expected to be serialized identically to the given message"),
+          fact("but first differed at byte offset", mismatch),
+          fact("expected serialized size", expected.getSerializedSize()),
+          fact("actual serialized size", actual().getSerializedSize()));
+    }
+  }
+
+  /**
+   * Checks whether the MessageLite serializes to the same bytes as its {@linkplain
+   * com.google.protobuf.CodedOutputStream#useDeterministicSerialization deterministic
+   * serialization}, which for example writes map entries sorted by key rather than in insertion
+   * order. If so, equal messages serialize identically, within a single binary.
+   *
+   * <p>Like {@link #isSerializedIdenticallyTo}, this compares the serializations as they are
+   * written, without holding either in memory.
+   */
+  public void isSerializedDeterministically() {
+    long mismatch =
+        SerializedBytes.mismatch(
+            actual(), false, actual(), true, SerializedBytes.DEFAULT_CHUNK_SIZE);
+    if (mismatch >= 0) {
+      failWithoutActual(
+          simpleFact("expected serialization to be deterministic"),
+          fact("but first differed from the deterministic serialization at byte offset", mismatch),
+          fact("serialized size", actual().getSerializedSize()));
+    }
+  }
+
   static final class MessageLiteSubject extends LiteProtoSubject<MessageLiteSubject, MessageLite> {
     MessageLiteSubject(FailureMetadata failureMetadata, @NullableDecl MessageLite messageLite) {
       super(failureMetadata, messageLite);
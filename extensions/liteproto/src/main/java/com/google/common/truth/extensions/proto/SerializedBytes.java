@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.protobuf.WireFormat.WIRETYPE_END_GROUP;
+import static com.google.protobuf.WireFormat.WIRETYPE_FIXED32;
+import static com.google.protobuf.WireFormat.WIRETYPE_FIXED64;
+import static com.google.protobuf.WireFormat.WIRETYPE_LENGTH_DELIMITED;
+import static com.google.protobuf.WireFormat.WIRETYPE_START_GROUP;
+import static com.google.protobuf.WireFormat.WIRETYPE_VARINT;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Inspects the serialized form of a {@link MessageLite} as it is written, without ever holding the
+ * whole of it in memory: each message is written through a {@link CodedOutputStream} with a small
+ * buffer to an {@link OutputStream} which examines the bytes and discards them.
+ *
+ * <p>Comparisons hash each serialization a chunk at a time, keeping only the chunk hashes, and
+ * serialize both messages once more to find the first differing byte within the first differing
+ * chunk. So comparing two messages of hundreds of megabytes takes memory proportional to a chunk,
+ * plus a hash per chunk, rather than to the messages.
+ */
+final class SerializedBytes {
+  /** The size of the buffer between each message and the stream which inspects its bytes. */
+  private static final int BUFFER_SIZE = 8192;
+
+  static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  private static final HashFunction CHUNK_HASH = Hashing.murmur3_128();
+
+  private SerializedBytes() {}
+
+  /**
+   * Returns the offset of the first byte at which the serializations of {@code actual} and {@code
+   * expected} differ (or the length of the shorter one, if it is a prefix of the other), or -1 if
+   * they are identical.
+   */
+  static long mismatch(
+      MessageLite actual,
+      boolean actualDeterministic,
+      MessageLite expected,
+      boolean expectedDeterministic,
+      int chunkSize) {
+    ChunkHasher actualHashes = new ChunkHasher(chunkSize, null);
+    write(actual, actualDeterministic, actualHashes);
+    ChunkHasher expectedHashes = new ChunkHasher(chunkSize, actualHashes.hashes);
+    write(expected, expectedDeterministic, expectedHashes);
+    long chunk = expectedHashes.mismatchedChunk;
+    if (chunk < 0) {
+      if (actualHashes.offset == expectedHashes.offset) {
+        return -1;
+      }
+      // All complete chunks matched, so the difference is in the last, partial one.
+      chunk = Math.min(actualHashes.offset, expectedHashes.offset) / chunkSize;
+    }
+    ChunkCapture actualChunk = new ChunkCapture(chunk * chunkSize, chunkSize);
+    ChunkCapture expectedChunk = new ChunkCapture(chunk * chunkSize, chunkSize);
+    write(actual, actualDeterministic, actualChunk);
+    write(expected, expectedDeterministic, expectedChunk);
+    int length = Math.min(actualChunk.length, expectedChunk.length);
+    for (int i = 0; i < length; i++) {
+      if (actualChunk.bytes[i] != expectedChunk.bytes[i]) {
+        return chunk * chunkSize + i;
+      }
+    }
+    return chunk * chunkSize + length;
+  }
+
+  /**
+   * Returns the number of serialized bytes of each top-level field of {@code message}, including
+   * the bytes of its tags, keyed by field number. The sizes add up to the message's serialized
+   * size.
+   */
+  static Map<Integer, Integer> fieldSizes(MessageLite message) {
+    FieldSizeCounter counter = new FieldSizeCounter();
+    write(message, false, counter);
+    return counter.sizes;
+  }
+
+  private static void write(MessageLite message, boolean deterministic, OutputStream out) {
+    CodedOutputStream codedStream =
+        CodedOutputStream.newInstance(out, Math.min(message.getSerializedSize(), BUFFER_SIZE));
+    if (deterministic) {
+      codedStream.useDeterministicSerialization();
+    }
+    try {
+      message.writeTo(codedStream);
+      codedStream.flush();
+      out.flush();
+    } catch (StopWriting stop) {
+      // The stream has seen all it needs.
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+  }
+
+  /** Thrown by a stream which has seen all it needs, to cut the serialization short. */
+  private static final class StopWriting extends RuntimeException {
+    StopWriting() {
+      super(null, null, false, false);
+    }
+  }
+
+  /**
+   * Hashes each chunk of the bytes written. If given the hashes of another serialization, stops at
+   * the first chunk whose hash differs, or which the other serialization doesn't have.
+   */
+  private static final class ChunkHasher extends OutputStream {
+    private final int chunkSize;
+    private final List<HashCode> hashes = new ArrayList<>();
+    @NullableDecl private final List<HashCode> otherHashes;
+    private Hasher hasher = CHUNK_HASH.newHasher();
+    private int chunkOffset;
+    long offset;
+    long mismatchedChunk = -1;
+
+    ChunkHasher(int chunkSize, @NullableDecl List<HashCode> otherHashes) {
+      this.chunkSize = chunkSize;
+      this.otherHashes = otherHashes;
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+      while (len > 0) {
+        int count = Math.min(len, chunkSize - chunkOffset);
+        hasher.putBytes(bytes, off, count);
+        off += count;
+        len -= count;
+        offset += count;
+        chunkOffset += count;
+        if (chunkOffset == chunkSize) {
+          endChunk();
+        }
+      }
+    }
+
+    private void endChunk() {
+      HashCode hash = hasher.hash();
+      if (otherHashes != null) {
+        int index = hashes.size();
+        if (index >= otherHashes.size() || !otherHashes.get(index).equals(hash)) {
+          mismatchedChunk = index;
+          throw new StopWriting();
+        }
+      }
+      hashes.add(hash);
+      hasher = CHUNK_HASH.newHasher();
+      chunkOffset = 0;
+    }
+
+    @Override
+    public void flush() {
+      if (chunkOffset > 0) {
+        endChunk();
+      }
+    }
+  }
+
+  /** Captures the bytes written in the range {@code [start, start + capacity)}. */
+  private static final class ChunkCapture extends OutputStream {
+    private final long start;
+    final byte[] bytes;
+    int length;
+    private long offset;
+
+    ChunkCapture(long start, int capacity) {
+      this.start = start;
+      this.bytes = new byte[capacity];
+    }
+
+    @Override
+    public void write(int b) {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] source, int off, int len) {
+      long from = Math.max(offset, start);
+      long to = Math.min(offset + len, start + bytes.length);
+      if (from < to) {
+        System.arraycopy(
+            source, (int) (off + from - offset), bytes, (int) (from - start), (int) (to - from));
+        length = (int) (to - start);
+      }
+      offset += len;
+      if (offset >= start + bytes.length) {
+        throw new StopWriting();
+      }
+    }
+  }
+
+  /**
+   * Follows the wire format of the bytes written just far enough to attribute each byte to a
+   * top-level field. Length-delimited values are skipped over without being examined.
+   */
+  private static final class FieldSizeCounter extends OutputStream {
+    private static final int TAG = 0;
+    private static final int VARINT = 1;
+    private static final int LENGTH = 2;
+    private static final int SKIP = 3;
+
+    final Map<Integer, Integer> sizes = new TreeMap<>();
+
+    private int state = TAG;
+    private long varint;
+    private int shift;
+    private long remaining;
+    private int groupDepth;
+    private int fieldNumber;
+    private int fieldSize;
+
+    @Override
+    public void write(int b) {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+      int end = off + len;
+      while (off < end) {
+        if (state == SKIP) {
+          int count = (int) Math.min(remaining, end - off);
+          off += count;
+          fieldSize += count;
+          remaining -= count;
+          if (remaining == 0) {
+            endValue();
+          }
+          continue;
+        }
+        byte b = bytes[off++];
+        fieldSize++;
+        varint |= (long) (b & 0x7f) << shift;
+        shift += 7;
+        if ((b & 0x80) != 0) {
+          continue;
+        }
+        long value = varint;
+        varint = 0;
+        shift = 0;
+        switch (state) {
+          case TAG:
+            startValue((int) value);
+            break;
+          case LENGTH:
+            remaining = value;
+            if (remaining == 0) {
+              endValue();
+            } else {
+              state = SKIP;
+            }
+            break;
+          default:
+            endValue();
+        }
+      }
+    }
+
+    private void startValue(int tag) {
+      if (groupDepth == 0) {
+        fieldNumber = tag >>> 3;
+      }
+      switch (tag & 7) {
+        case WIRETYPE_VARINT:
+          state = VARINT;
+          break;
+        case WIRETYPE_FIXED64:
+          remaining = 8;
+          state = SKIP;
+          break;
+        case WIRETYPE_FIXED32:
+          remaining = 4;
+          state = SKIP;
+          break;
+        case WIRETYPE_LENGTH_DELIMITED:
+          state = LENGTH;
+          break;
+        case WIRETYPE_START_GROUP:
+          groupDepth++;
+          break;
+        case WIRETYPE_END_GROUP:
+          groupDepth--;
+          endValue();
+          break;
+        default:
+          throw new IllegalStateException("Invalid wire type in tag " + tag);
+      }
+    }
+
+    private void endValue() {
+      state = TAG;
+      if (groupDepth == 0) {
+        Integer size = sizes.get(fieldNumber);
+        sizes.put(fieldNumber, (size == null ? 0 : size) + fieldSize);
+        fieldSize = 0;
+      }
+    }
+  }
+}
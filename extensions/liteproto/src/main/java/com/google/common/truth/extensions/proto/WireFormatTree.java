@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Fact.fact;
+import static com.google.protobuf.WireFormat.WIRETYPE_END_GROUP;
+import static com.google.protobuf.WireFormat.WIRETYPE_FIXED32;
+import static com.google.protobuf.WireFormat.WIRETYPE_FIXED64;
+import static com.google.protobuf.WireFormat.WIRETYPE_LENGTH_DELIMITED;
+import static com.google.protobuf.WireFormat.WIRETYPE_START_GROUP;
+import static com.google.protobuf.WireFormat.WIRETYPE_VARINT;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.google.common.truth.Fact;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Tree representation of the fields of a serialized message, parsed from the wire format with no
+ * descriptors, in the manner of {@code protoc --decode_raw}: a map from each field number to the
+ * values of that field, in the order they were written. Groups are represented by child trees.
+ *
+ * <p>A length-delimited value may be a string, bytes, a packed repeated field, or a sub-message,
+ * and only the descriptor knows which. So such values are kept as bytes, and {@link #differences}
+ * compares two of them as sub-messages only if neither looks like printable text and both parse as
+ * messages. Repeated values are compared by index, so differently-ordered map entries or repeated
+ * fields are reported as differences.
+ */
+final class WireFormatTree {
+  /** The number of differences to show in a failure message. */
+  static final int MAX_REPORTED_DIFFERENCES = 10;
+
+  /** The length beyond which a value is truncated in a failure message. */
+  static final int MAX_VALUE_LENGTH = 200;
+
+  private final Map<Integer, List<Value>> fields = new TreeMap<>();
+
+  /** A single value of a field, with its wire type. */
+  private static final class Value {
+    final int wireType;
+    final long number;
+    @NullableDecl final ByteString bytes;
+    @NullableDecl final WireFormatTree group;
+
+    Value(
+        int wireType,
+        long number,
+        @NullableDecl ByteString bytes,
+        @NullableDecl WireFormatTree group) {
+      this.wireType = wireType;
+      this.number = number;
+      this.bytes = bytes;
+      this.group = group;
+    }
+
+    boolean isPrintableText() {
+      if (!bytes.isValidUtf8()) {
+        return false;
+      }
+      String text = bytes.toStringUtf8();
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c < ' ' || c == 0x7f) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    void appendTo(StringBuilder out) {
+      switch (wireType) {
+        case WIRETYPE_VARINT:
+        case WIRETYPE_FIXED64:
+          out.append(number);
+          break;
+        case WIRETYPE_FIXED32:
+          out.append((int) number);
+          break;
+        case WIRETYPE_START_GROUP:
+          group.appendTo(out);
+          break;
+        default:
+          appendLengthDelimitedTo(out);
+      }
+    }
+
+    private void appendLengthDelimitedTo(StringBuilder out) {
+      // Only the start of a long value survives truncation, so only the start is appended.
+      if (isPrintableText()) {
+        String text = bytes.toStringUtf8();
+        text = text.substring(0, Math.min(text.length(), MAX_VALUE_LENGTH + 1));
+        out.append('"').append(text.replace("\"", "\\\"")).append('"');
+        return;
+      }
+      WireFormatTree message = parse(bytes);
+      if (message != null) {
+        message.appendTo(out);
+      } else {
+        ByteString start = bytes.substring(0, Math.min(bytes.size(), MAX_VALUE_LENGTH / 2 + 1));
+        out.append("0x").append(BaseEncoding.base16().encode(start.toByteArray()));
+      }
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder out = new StringBuilder();
+      appendTo(out);
+      return truncate(out);
+    }
+  }
+
+  /**
+   * Returns a tree of the fields of {@code bytes}, or null if they are not a valid serialized
+   * message.
+   */
+  @NullableDecl
+  static WireFormatTree parse(ByteString bytes) {
+    CodedInputStream input = bytes.newCodedInput();
+    input.enableAliasing(true);
+    WireFormatTree tree = new WireFormatTree();
+    try {
+      tree.readFields(input, 0);
+    } catch (IOException e) {
+      return null;
+    }
+    return tree;
+  }
+
+  /** Reads fields into this tree, until the end of the input or of the group with this number. */
+  private void readFields(CodedInputStream input, int groupFieldNumber) throws IOException {
+    while (true) {
+      int tag = input.readTag();
+      if (tag == 0) {
+        if (groupFieldNumber != 0) {
+          throw new InvalidProtocolBufferException("Group " + groupFieldNumber + " not ended");
+        }
+        return;
+      }
+      int fieldNumber = WireFormat.getTagFieldNumber(tag);
+      int wireType = WireFormat.getTagWireType(tag);
+      Value value;
+      switch (wireType) {
+        case WIRETYPE_VARINT:
+          value = new Value(wireType, input.readRawVarint64(), null, null);
+          break;
+        case WIRETYPE_FIXED64:
+          value = new Value(wireType, input.readRawLittleEndian64(), null, null);
+          break;
+        case WIRETYPE_FIXED32:
+          value = new Value(wireType, input.readRawLittleEndian32(), null, null);
+          break;
+        case WIRETYPE_LENGTH_DELIMITED:
+          value = new Value(wireType, 0, input.readBytes(), null);
+          break;
+        case WIRETYPE_START_GROUP:
+          WireFormatTree group = new WireFormatTree();
+          group.readFields(input, fieldNumber);
+          value = new Value(wireType, 0, null, group);
+          break;
+        case WIRETYPE_END_GROUP:
+          if (fieldNumber != groupFieldNumber) {
+            throw new InvalidProtocolBufferException("Unexpected end of group " + fieldNumber);
+          }
+          return;
+        default:
+          throw new InvalidProtocolBufferException("Invalid wire type " + wireType);
+      }
+      List<Value> values = fields.get(fieldNumber);
+      if (values == null) {
+        values = new ArrayList<>(1);
+        fields.put(fieldNumber, values);
+      }
+      values.add(value);
+    }
+  }
+
+  /**
+   * Returns facts describing how the serialized fields of {@code actual} differ from those of
+   * {@code expected}, keyed by field-number path (for example, {@code field 2[1].4} for field 4 of
+   * the second value of field 2). The first fact is the number of differences, and at most {@value
+   * #MAX_REPORTED_DIFFERENCES} differences follow it. Returns an empty list if there are no
+   * differences, or if either message's serialization can't be parsed.
+   */
+  static List<Fact> differences(MessageLite actual, MessageLite expected) {
+    WireFormatTree actualTree = parse(actual.toByteString());
+    WireFormatTree expectedTree = parse(expected.toByteString());
+    if (actualTree == null || expectedTree == null) {
+      return ImmutableList.of();
+    }
+    DifferenceCollector collector = new DifferenceCollector();
+    diff("", actualTree, expectedTree, collector);
+    if (collector.count == 0) {
+      return ImmutableList.of();
+    }
+    List<Fact> facts = new ArrayList<>();
+    facts.add(fact("number of differences", collector.count));
+    facts.addAll(collector.reported);
+    return facts;
+  }
+
+  private static final class DifferenceCollector {
+    int count;
+    final List<Fact> reported = new ArrayList<>();
+
+    void add(String path, @NullableDecl Value actual, @NullableDecl Value expected) {
+      if (count++ < MAX_REPORTED_DIFFERENCES) {
+        reported.add(fact("field " + path, describe(actual, expected)));
+      }
+    }
+  }
+
+  private static void diff(
+      String path, WireFormatTree actual, WireFormatTree expected, DifferenceCollector collector) {
+    Iterator<Map.Entry<Integer, List<Value>>> actualFields = actual.fields.entrySet().iterator();
+    Iterator<Map.Entry<Integer, List<Value>>> expectedFields =
+        expected.fields.entrySet().iterator();
+    Map.Entry<Integer, List<Value>> actualField = next(actualFields);
+    Map.Entry<Integer, List<Value>> expectedField = next(expectedFields);
+    // Both maps are sorted by field number, so walk them side by side.
+    while (actualField != null || expectedField != null) {
+      int comparison =
+          actualField == null
+              ? 1
+              : expectedField == null
+                  ? -1
+                  : actualField.getKey().compareTo(expectedField.getKey());
+      if (comparison < 0) {
+        diffValues(path, actualField.getKey(), actualField.getValue(), noValues(), collector);
+        actualField = next(actualFields);
+      } else if (comparison > 0) {
+        diffValues(path, expectedField.getKey(), noValues(), expectedField.getValue(), collector);
+        expectedField = next(expectedFields);
+      } else {
+        diffValues(
+            path,
+            actualField.getKey(),
+            actualField.getValue(),
+            expectedField.getValue(),
+            collector);
+        actualField = next(actualFields);
+        expectedField = next(expectedFields);
+      }
+    }
+  }
+
+  private static void diffValues(
+      String parentPath,
+      int fieldNumber,
+      List<Value> actual,
+      List<Value> expected,
+      DifferenceCollector collector) {
+    boolean repeated = actual.size() > 1 || expected.size() > 1;
+    for (int i = 0; i < Math.max(actual.size(), expected.size()); i++) {
+      String path = parentPath + fieldNumber + (repeated ? "[" + i + "]" : "");
+      Value actualValue = i < actual.size() ? actual.get(i) : null;
+      Value expectedValue = i < expected.size() ? expected.get(i) : null;
+      if (actualValue == null || expectedValue == null) {
+        collector.add(path, actualValue, expectedValue);
+      } else {
+        diffValue(path, actualValue, expectedValue, collector);
+      }
+    }
+  }
+
+  private static void diffValue(
+      String path, Value actual, Value expected, DifferenceCollector collector) {
+    if (actual.wireType != expected.wireType) {
+      collector.add(path, actual, expected);
+      return;
+    }
+    switch (actual.wireType) {
+      case WIRETYPE_START_GROUP:
+        diff(path + ".", actual.group, expected.group, collector);
+        return;
+      case WIRETYPE_LENGTH_DELIMITED:
+        if (actual.bytes.equals(expected.bytes)) {
+          return;
+        }
+        if (!actual.isPrintableText() && !expected.isPrintableText()) {
+          WireFormatTree actualMessage = parse(actual.bytes);
+          WireFormatTree expectedMessage = parse(expected.bytes);
+          if (actualMessage != null && expectedMessage != null) {
+            diff(path + ".", actualMessage, expectedMessage, collector);
+            return;
+          }
+        }
+        collector.add(path, actual, expected);
+        return;
+      default:
+        if (actual.number != expected.number) {
+          collector.add(path, actual, expected);
+        }
+    }
+  }
+
+  private static String describe(@NullableDecl Value actual, @NullableDecl Value expected) {
+    if (expected == null) {
+      return "expected no such field, but was: " + actual;
+    } else if (actual == null) {
+      return "expected: " + expected + ", but there was no such field";
+    } else if (actual.wireType != expected.wireType) {
+      return "expected: "
+          + expected
+          + " ("
+          + wireTypeName(expected.wireType)
+          + "), but was: "
+          + actual
+          + " ("
+          + wireTypeName(actual.wireType)
+          + ")";
+    } else {
+      return "expected: " + expected + ", but was: " + actual;
+    }
+  }
+
+  private static String wireTypeName(int wireType) {
+    switch (wireType) {
+      case WIRETYPE_VARINT:
+        return "varint";
+      case WIRETYPE_FIXED64:
+        return "fixed64";
+      case WIRETYPE_FIXED32:
+        return "fixed32";
+      case WIRETYPE_START_GROUP:
+        return "group";
+      default:
+        return "length-delimited";
+    }
+  }
+
+  /** Appends a compact text form of the tree, like {@code {1: 3, 2: {1: "foo"}}}. */
+  private void appendTo(StringBuilder out) {
+    out.append('{');
+    boolean first = true;
+    for (Map.Entry<Integer, List<Value>> field : fields.entrySet()) {
+      for (Value value : field.getValue()) {
+        if (out.length() > MAX_VALUE_LENGTH) {
+          // Whatever follows will be truncated anyway.
+          return;
+        }
+        if (!first) {
+          out.append(", ");
+        }
+        first = false;
+        out.append(field.getKey()).append(": ");
+        value.appendTo(out);
+      }
+    }
+    out.append('}');
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    appendTo(out);
+    return truncate(out);
+  }
+
+  private static String truncate(StringBuilder out) {
+    return out.length() > MAX_VALUE_LENGTH
+        ? out.substring(0, MAX_VALUE_LENGTH) + "..."
+        : out.toString();
+  }
+
+  private static List<Value> noValues() {
+    return Collections.emptyList();
+  }
+
+  @NullableDecl
+  private static <T> T next(Iterator<T> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+}
@@ -178,7 +178,8 @@ public class LiteProtoSubjectTest {
       assertThat(config.nonEmptyMessage()).isEqualTo(config.nonEmptyMessageOfOtherValue());
       fail("Should have failed.");
     } catch (AssertionError e) {
-      expectRegex(e, ".*expected:.*\"foo\".*");
+      expectRegex(
+          e, ".*field \\d+\\s*: expected: \\{\\d+: \"foo\"\\}, but there was no such field.*");
       expectNoRegex(e, ".*but was:.*\"foo\".*");
     }
 
@@ -289,6 +290,56 @@ public class LiteProtoSubjectTest {
     }
   }
 
+  @Test
+  public void testSerializedFieldSizes_success() {
+    int size = config.nonEmptyMessage().getSerializedSize();
+    expectThat(config.nonEmptyMessage()).serializedFieldSizes().hasSize(1);
+    expectThat(config.nonEmptyMessage()).serializedFieldSizes().containsEntry(1, size);
+    expectThat(config.defaultInstance()).serializedFieldSizes().isEmpty();
+    expectThat(config.defaultInstance()).serializedSizeOfField(1).isEqualTo(0);
+  }
+
+  @Test
+  public void testSerializedSizeOfField_failure() {
+    try {
+      assertThat(config.defaultInstance()).serializedSizeOfField(1).isGreaterThan(0);
+      fail("Should have failed.");
+    } catch (AssertionError e) {
+      assertThat(e).factValue("value of").isEqualTo("messageLite.serializedSizeOfField(1)");
+    }
+  }
+
+  @Test
+  public void testIsSerializedIdenticallyTo_success() {
+    expectThat(config.nonEmptyMessage()).isSerializedIdenticallyTo(config.nonEmptyMessage());
+    expectThat(config.nonEmptyMessage())
+        .isSerializedIdenticallyTo(config.equivalentNonEmptyMessage());
+    expectThat(config.defaultInstance())
+        .isSerializedIdenticallyTo(config.defaultInstanceOfOtherType());
+    expectThat(config.nonEmptyMessage()).isSerializedDeterministically();
+  }
+
+  @Test
+  public void testIsSerializedIdenticallyTo_failure() {
+    int size = config.nonEmptyMessage().getSerializedSize();
+
+    try {
+      assertThat(config.nonEmptyMessage())
+          .isSerializedIdenticallyTo(config.nonEmptyMessageOfOtherValue());
+      fail("Should have failed.");
+    } catch (AssertionError e) {
+      assertThat(e)
+          .factKeys()
+          .containsExactly(
+              "expected to be serialized identically to the given message",
+              "but first differed at byte offset",
+              "expected serialized size",
+              "actual serialized size")
+          .inOrder();
+      assertThat(e).factValue("actual serialized size").isEqualTo("" + size);
+    }
+  }
+
   // TODO(cgruber): These probably belong in ThrowableSubject.
   private void expectRegex(AssertionError e, String regex) {
     expect
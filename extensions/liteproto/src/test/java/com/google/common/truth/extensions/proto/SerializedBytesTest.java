@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SerializedBytes}. */
+@RunWith(JUnit4.class)
+public class SerializedBytesTest {
+  private static final int[] CHUNK_SIZES = {1, 3, 7, SerializedBytes.DEFAULT_CHUNK_SIZE};
+
+  @Test
+  public void testMismatch_identical() {
+    for (int chunkSize : CHUNK_SIZES) {
+      assertThat(mismatch(message("foo", 1, 2, 3), message("foo", 1, 2, 3), chunkSize))
+          .isEqualTo(-1);
+      assertThat(
+              mismatch(
+                  DescriptorProto.getDefaultInstance(),
+                  DescriptorProto.getDefaultInstance(),
+                  chunkSize))
+          .isEqualTo(-1);
+    }
+  }
+
+  @Test
+  public void testMismatch_matchesByteArrays() {
+    MessageLite[] messages = {
+      DescriptorProto.getDefaultInstance(),
+      message("foo"),
+      message("foo", 1, 2, 3),
+      message("foo", 1, 2, 4),
+      message("foo", 1, 2, 3, 4),
+      message("fob", 1, 2, 3),
+    };
+    for (int chunkSize : CHUNK_SIZES) {
+      for (MessageLite actual : messages) {
+        for (MessageLite expected : messages) {
+          assertThat(mismatch(actual, expected, chunkSize))
+              .isEqualTo(byteArrayMismatch(actual.toByteArray(), expected.toByteArray()));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMismatch_deterministicSerialization() {
+    Struct unsorted =
+        Struct.newBuilder()
+            .putFields("b", Value.newBuilder().setNumberValue(1).build())
+            .putFields("a", Value.newBuilder().setNumberValue(2).build())
+            .build();
+    Struct sorted =
+        Struct.newBuilder()
+            .putFields("a", Value.newBuilder().setNumberValue(2).build())
+            .putFields("b", Value.newBuilder().setNumberValue(1).build())
+            .build();
+    for (int chunkSize : CHUNK_SIZES) {
+      assertThat(SerializedBytes.mismatch(sorted, false, sorted, true, chunkSize)).isEqualTo(-1);
+      assertThat(SerializedBytes.mismatch(unsorted, false, unsorted, true, chunkSize))
+          .isAtLeast(0L);
+    }
+  }
+
+  @Test
+  public void testFieldSizes() {
+    MessageLite message = message("foo", 1, 2);
+    Map<Integer, Integer> sizes = SerializedBytes.fieldSizes(message);
+    // Field 1 is a tag byte, a length byte, and "foo".
+    assertThat(sizes).containsExactly(1, 5, 2, message.getSerializedSize() - 5);
+    assertThat(SerializedBytes.fieldSizes(DescriptorProto.getDefaultInstance())).isEmpty();
+  }
+
+  @Test
+  public void testFieldSizes_groupsAndLongValues() throws InvalidProtocolBufferException {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      name.append('x');
+    }
+    byte[] group = {
+      0x7b, // field 15, start group
+      0x08, 0x05, // field 1, varint 5
+      0x7c, // field 15, end group
+    };
+    DescriptorProto message =
+        DescriptorProto.newBuilder()
+            .mergeFrom(message(name.toString()).toByteArray())
+            .mergeFrom(group)
+            .build();
+    // Field 1 is a tag byte, a three-byte length, and the name.
+    assertThat(SerializedBytes.fieldSizes(message)).containsExactly(1, 100004, 15, 4);
+  }
+
+  private static long mismatch(MessageLite actual, MessageLite expected, int chunkSize) {
+    return SerializedBytes.mismatch(actual, false, expected, false, chunkSize);
+  }
+
+  private static long byteArrayMismatch(byte[] actual, byte[] expected) {
+    int length = Math.min(actual.length, expected.length);
+    for (int i = 0; i < length; i++) {
+      if (actual[i] != expected[i]) {
+        return i;
+      }
+    }
+    return actual.length == expected.length ? -1 : length;
+  }
+
+  private static MessageLite message(String name, int... fieldNumbers) {
+    DescriptorProto.Builder builder = DescriptorProto.newBuilder().setName(name);
+    for (int fieldNumber : fieldNumbers) {
+      builder.addField(
+          FieldDescriptorProto.newBuilder().setName("f" + fieldNumber).setNumber(fieldNumber));
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.truth.Fact;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.MessageLite;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link WireFormatTree}. */
+@RunWith(JUnit4.class)
+public class WireFormatTreeTest {
+
+  @Test
+  public void testDifferences_none() {
+    assertThat(WireFormatTree.differences(message("foo", 1, 2), message("foo", 1, 2))).isEmpty();
+    assertThat(
+            WireFormatTree.differences(
+                DescriptorProto.getDefaultInstance(), DescriptorProto.getDefaultInstance()))
+        .isEmpty();
+  }
+
+  @Test
+  public void testDifferences_string() {
+    assertThat(describe(WireFormatTree.differences(message("foo"), message("bar"))))
+        .containsExactly(
+            "number of differences: 1", "field 1: expected: \"bar\", but was: \"foo\"")
+        .inOrder();
+  }
+
+  @Test
+  public void testDifferences_nestedAndRepeated() {
+    assertThat(describe(WireFormatTree.differences(message("foo", 1, 2), message("foo", 1, 3))))
+        .containsExactly(
+            "number of differences: 2",
+            "field 2[1].1: expected: \"f3\", but was: \"f2\"",
+            "field 2[1].3: expected: 3, but was: 2")
+        .inOrder();
+  }
+
+  @Test
+  public void testDifferences_missingAndUnexpected() {
+    assertThat(describe(WireFormatTree.differences(message("foo", 1), message("foo", 1, 2))))
+        .containsExactly(
+            "number of differences: 1",
+            "field 2[1]: expected: {1: \"f2\", 3: 2}, but there was no such field")
+        .inOrder();
+    assertThat(describe(WireFormatTree.differences(message("foo"), message(""))))
+        .containsExactly("number of differences: 1", "field 1: expected: \"\", but was: \"foo\"")
+        .inOrder();
+    assertThat(
+            describe(
+                WireFormatTree.differences(message("foo"), DescriptorProto.getDefaultInstance())))
+        .containsExactly(
+            "number of differences: 1", "field 1: expected no such field, but was: \"foo\"")
+        .inOrder();
+  }
+
+  @Test
+  public void testDifferences_reportsLimitedDifferences() {
+    int count = WireFormatTree.MAX_REPORTED_DIFFERENCES + 5;
+    int[] actualNumbers = new int[count];
+    int[] expectedNumbers = new int[count];
+    for (int i = 0; i < count; i++) {
+      actualNumbers[i] = i;
+      expectedNumbers[i] = i + 100;
+    }
+    List<String> differences =
+        describe(
+            WireFormatTree.differences(
+                message("foo", actualNumbers), message("foo", expectedNumbers)));
+    assertThat(differences).hasSize(WireFormatTree.MAX_REPORTED_DIFFERENCES + 1);
+    assertThat(differences.get(0)).isEqualTo("number of differences: " + count * 2);
+  }
+
+  @Test
+  public void testParse_groupsAndFixedWidthValues() {
+    ByteString bytes =
+        ByteString.copyFrom(
+            new byte[] {
+              0x0b, // field 1, start group
+              0x10, 0x05, // field 2, varint 5
+              0x0c, // field 1, end group
+              0x1d, 0x07, 0x00, 0x00, 0x00, // field 3, fixed32 7
+              0x21, 0x08, 0, 0, 0, 0, 0, 0, 0, // field 4, fixed64 8
+              0x2a, 0x02, 0x00, (byte) 0xff, // field 5, bytes which are neither text nor a message
+            });
+    assertThat(String.valueOf(WireFormatTree.parse(bytes)))
+        .isEqualTo("{1: {2: 5}, 3: 7, 4: 8, 5: 0x00FF}");
+  }
+
+  @Test
+  public void testParse_invalid() {
+    assertThat(WireFormatTree.parse(ByteString.copyFrom(new byte[] {0x0f}))).isNull();
+    assertThat(WireFormatTree.parse(ByteString.copyFrom(new byte[] {0x0b}))).isNull();
+    assertThat(WireFormatTree.parse(ByteString.copyFrom(new byte[] {0x0a, 0x05}))).isNull();
+  }
+
+  @Test
+  public void testToString_truncatesLongValues() {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < WireFormatTree.MAX_VALUE_LENGTH * 10; i++) {
+      name.append('x');
+    }
+    String string = String.valueOf(WireFormatTree.parse(message(name.toString()).toByteString()));
+    assertThat(string).hasLength(WireFormatTree.MAX_VALUE_LENGTH + 3);
+    assertThat(string).endsWith("xxx...");
+  }
+
+  private static List<String> describe(List<Fact> facts) {
+    List<String> strings = new ArrayList<>();
+    for (Fact fact : facts) {
+      strings.add(fact.toString());
+    }
+    return strings;
+  }
+
+  private static MessageLite message(String name, int... fieldNumbers) {
+    DescriptorProto.Builder builder = DescriptorProto.newBuilder().setName(name);
+    for (int fieldNumber : fieldNumbers) {
+      builder.addField(
+          FieldDescriptorProto.newBuilder().setName("f" + fieldNumber).setNumber(fieldNumber));
+    }
+    return builder.build();
+  }
+}
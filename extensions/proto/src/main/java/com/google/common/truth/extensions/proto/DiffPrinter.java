@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Optional;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import com.google.protobuf.TextFormat;
+import java.io.IOException;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * Streams the text of a {@link DiffResult} report to an {@link Appendable}, stopping once a budget
+ * of lines or characters has been used up.
+ *
+ * <p>The human-readable path of the entity being printed (e.g., {@code foo.bar[3].baz}) is kept in
+ * a single buffer which entities push onto and pop off of as the report recurses, rather than
+ * building a new prefix string at every level.
+ *
+ * <p>Once the budget is exhausted, further output is dropped, and entities which would have
+ * reported a difference are only counted. {@link #finish()} then appends a trailer saying how many
+ * differences were left out.
+ */
+final class DiffPrinter {
+  /** Budget value meaning 'no limit'. */
+  static final int UNLIMITED = Integer.MAX_VALUE;
+
+  private final Appendable out;
+  private final int maxLines;
+  private final int maxChars;
+  private final StringBuilder fieldPath = new StringBuilder();
+  private final Appendable budgetedOut = new BudgetedAppendable();
+
+  private int lines = 0;
+  private int chars = 0;
+  private boolean truncated = false;
+  private int omittedDifferences = 0;
+  @NullableDecl private IOException ioException = null;
+
+  DiffPrinter(Appendable out, int maxLines, int maxChars) {
+    checkArgument(maxLines > 0, "maxLines (%s) must be positive", maxLines);
+    checkArgument(maxChars > 0, "maxChars (%s) must be positive", maxChars);
+    this.out = checkNotNull(out);
+    this.maxLines = maxLines;
+    this.maxChars = maxChars;
+  }
+
+  /**
+   * Appends {@code fieldName} to the current field path, returning a mark to later pass to {@link
+   * #popFieldPath}.
+   */
+  int pushFieldName(String fieldName) {
+    int mark = fieldPath.length();
+    if (mark > 0) {
+      fieldPath.append('.');
+    }
+    fieldPath.append(fieldName);
+    return mark;
+  }
+
+  /**
+   * Appends an array-index specifier to the current field path, returning a mark to later pass to
+   * {@link #popFieldPath}.
+   */
+  int pushIndex(Optional<Integer> fieldIndex) {
+    int mark = fieldPath.length();
+    appendIndex(fieldPath, fieldIndex);
+    return mark;
+  }
+
+  /** Restores the field path to what it was when {@code mark} was returned. */
+  void popFieldPath(int mark) {
+    fieldPath.setLength(mark);
+  }
+
+  /**
+   * Returns whether the next entry of the report should be printed. If the budget is already used
+   * up, returns false, and counts the entry as omitted if {@code isDifference}.
+   */
+  boolean startEntry(boolean isDifference) {
+    if (isBudgetUsedUp()) {
+      if (isDifference) {
+        omittedDifferences++;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  /** Returns whether any output has been dropped for lack of budget. */
+  boolean isTruncated() {
+    return truncated;
+  }
+
+  /** Returns whether no further output fits in the budget, marking the report truncated if so. */
+  private boolean isBudgetUsedUp() {
+    if (lines >= maxLines || chars >= maxChars) {
+      truncated = true;
+    }
+    return truncated;
+  }
+
+  @CanIgnoreReturnValue
+  DiffPrinter print(CharSequence text) {
+    try {
+      budgetedOut.append(text);
+    } catch (BudgetExhaustedException expected) {
+      // The text was cut short at the budget limit; nothing more to do.
+    } catch (IOException e) {
+      recordIoException(e);
+    }
+    return this;
+  }
+
+  /** Prints the current field path. */
+  @CanIgnoreReturnValue
+  DiffPrinter printFieldPath() {
+    return print(fieldPath);
+  }
+
+  /** Prints the current field path, followed by an array-index specifier. */
+  @CanIgnoreReturnValue
+  DiffPrinter printIndexedFieldPath(Optional<Integer> fieldIndex) {
+    int mark = pushIndex(fieldIndex);
+    printFieldPath();
+    popFieldPath(mark);
+    return this;
+  }
+
+  /** Prints {@code message} in text format, as {@link Message#toString()} would. */
+  @CanIgnoreReturnValue
+  DiffPrinter printMessage(Message message) {
+    if (isBudgetUsedUp()) {
+      return this;
+    }
+    try {
+      TextFormat.print(message, budgetedOut);
+    } catch (BudgetExhaustedException expected) {
+      // Abandon the rest of the message rather than formatting text which would be dropped anyway.
+    } catch (IOException e) {
+      recordIoException(e);
+    }
+    return this;
+  }
+
+  /** Prints a single field value, in text format. */
+  @CanIgnoreReturnValue
+  DiffPrinter printValue(FieldDescriptorOrUnknown fieldDescriptorOrUnknown, Object o) {
+    if (fieldDescriptorOrUnknown.fieldDescriptor().isPresent()) {
+      return printValue(fieldDescriptorOrUnknown.fieldDescriptor().get(), o);
+    }
+    if (isBudgetUsedUp()) {
+      return this;
+    }
+    try {
+      TextFormat.printUnknownFieldValue(
+          fieldDescriptorOrUnknown.unknownFieldDescriptor().get().type().wireType(),
+          o,
+          budgetedOut);
+    } catch (BudgetExhaustedException expected) {
+      // The value was cut short at the budget limit; nothing more to do.
+    } catch (IOException e) {
+      recordIoException(e);
+    }
+    return this;
+  }
+
+  /** Prints a single field value, in text format. */
+  @CanIgnoreReturnValue
+  DiffPrinter printValue(FieldDescriptor fieldDescriptor, Object o) {
+    if (isBudgetUsedUp()) {
+      return this;
+    }
+    try {
+      TextFormat.printFieldValue(fieldDescriptor, o, budgetedOut);
+    } catch (BudgetExhaustedException expected) {
+      // The value was cut short at the budget limit; nothing more to do.
+    } catch (IOException e) {
+      recordIoException(e);
+    }
+    return this;
+  }
+
+  /**
+   * Appends the trailer summarizing omitted output, if the budget was used up. The trailer itself
+   * is not subject to the budget.
+   *
+   * @throws IOException if the underlying {@link Appendable} threw at any point while printing
+   */
+  void finish() throws IOException {
+    if (ioException != null) {
+      throw ioException;
+    }
+    if (!truncated) {
+      return;
+    }
+    out.append("\n... (report truncated after ")
+        .append(Integer.toString(lines))
+        .append(" lines / ")
+        .append(Integer.toString(chars))
+        .append(" characters");
+    if (omittedDifferences > 0) {
+      out.append("; ")
+          .append(Integer.toString(omittedDifferences))
+          .append(omittedDifferences == 1 ? " further difference" : " further differences")
+          .append(" not shown");
+    }
+    out.append(")\n");
+  }
+
+  private void recordIoException(IOException e) {
+    if (ioException == null) {
+      ioException = e;
+    }
+    truncated = true;
+  }
+
+  private static void appendIndex(StringBuilder sb, Optional<Integer> fieldIndex) {
+    sb.append('[');
+    if (fieldIndex.isPresent()) {
+      sb.append(fieldIndex.get().intValue());
+    } else {
+      sb.append('?');
+    }
+    sb.append(']');
+  }
+
+  /**
+   * Thrown by {@link BudgetedAppendable} when text had to be dropped, so that {@link TextFormat}
+   * stops walking a large message early.
+   */
+  private static final class BudgetExhaustedException extends IOException {
+    BudgetExhaustedException() {
+      super("Diff report budget exhausted");
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+      return this;
+    }
+  }
+
+  /** Forwards to {@code out}, enforcing the budget. */
+  private final class BudgetedAppendable implements Appendable {
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+      if (start == end) {
+        return this;
+      }
+      if (isBudgetUsedUp()) {
+        throw new BudgetExhaustedException();
+      }
+      int allowedEnd = (int) Math.min(end, start + (long) maxChars - chars);
+      for (int i = start; i < allowedEnd; i++) {
+        if (csq.charAt(i) == '\n' && ++lines >= maxLines) {
+          allowedEnd = i + 1;
+        }
+      }
+      out.append(csq, start, allowedEnd);
+      chars += allowedEnd - start;
+      if (allowedEnd < end) {
+        truncated = true;
+        throw new BudgetExhaustedException();
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) throws IOException {
+      return append(String.valueOf(c), 0, 1);
+    }
+  }
+}
@@ -29,7 +29,6 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.ForOverride;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
-import com.google.protobuf.TextFormat;
 import com.google.protobuf.UnknownFieldSet;
 import java.io.IOException;
 import java.util.Set;
@@ -45,6 +44,12 @@ import java.util.Set;
  */
 @AutoValue
 abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
+  /** Line budget for {@link #printToString}, beyond which the report is truncated. */
+  static final int DEFAULT_MAX_REPORT_LINES = 10000;
+
+  /** Character budget for {@link #printToString}, beyond which the report is truncated. */
+  static final int DEFAULT_MAX_REPORT_CHARS = 1 << 20;
+
   /**
    * Structural summary of the difference between two singular (non-repeated) fields.
    *
@@ -98,54 +103,76 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+    final void printContents(boolean includeMatches, DiffPrinter printer) {
       if (!includeMatches && isMatched()) {
         return;
       }
 
-      fieldPrefix = newFieldPrefix(fieldPrefix, fieldName());
+      int mark = printer.pushFieldName(fieldName());
+      printFieldContents(includeMatches, printer);
+      printer.popFieldPath(mark);
+    }
+
+    private void printFieldContents(boolean includeMatches, DiffPrinter printer) {
       switch (result()) {
         case ADDED:
-          sb.append("added: ").append(fieldPrefix).append(": ");
+          if (!printer.startEntry(/* isDifference = */ true)) {
+            return;
+          }
+          printer.print("added: ").printFieldPath().print(": ");
           if (actual().get() instanceof Message) {
-            sb.append("\n").append(actual().get());
+            printer.print("\n").printMessage((Message) actual().get());
           } else {
-            sb.append(valueString(fieldDescriptorOrUnknown().get(), actual().get())).append("\n");
+            printer.printValue(fieldDescriptorOrUnknown().get(), actual().get()).print("\n");
           }
           return;
         case IGNORED:
-          sb.append("ignored: ").append(fieldPrefix).append("\n");
+          if (printer.startEntry(/* isDifference = */ false)) {
+            printer.print("ignored: ").printFieldPath().print("\n");
+          }
           return;
         case MATCHED:
-          sb.append("matched: ").append(fieldPrefix);
+          if (!printer.startEntry(/* isDifference = */ false)) {
+            return;
+          }
+          printer.print("matched: ").printFieldPath();
           if (actualOrExpected() instanceof Message) {
-            sb.append("\n");
-            printChildContents(includeMatches, fieldPrefix, sb);
+            printer.print("\n");
+            printChildContents(includeMatches, printer);
           } else {
-            sb.append(": ")
-                .append(valueString(fieldDescriptorOrUnknown().get(), actualOrExpected()))
-                .append("\n");
+            printer
+                .print(": ")
+                .printValue(fieldDescriptorOrUnknown().get(), actualOrExpected())
+                .print("\n");
           }
           return;
         case MODIFIED:
-          sb.append("modified: ").append(fieldPrefix);
           if (actualOrExpected() instanceof Message) {
-            sb.append("\n");
-            printChildContents(includeMatches, fieldPrefix, sb);
-          } else {
-            sb.append(": ")
-                .append(valueString(fieldDescriptorOrUnknown().get(), expected().get()))
-                .append(" -> ")
-                .append(valueString(fieldDescriptorOrUnknown().get(), actual().get()))
-                .append("\n");
+            // The differences are counted by the children, even if this header doesn't fit.
+            if (printer.startEntry(/* isDifference = */ false)) {
+              printer.print("modified: ").printFieldPath().print("\n");
+            }
+            printChildContents(includeMatches, printer);
+          } else if (printer.startEntry(/* isDifference = */ true)) {
+            printer
+                .print("modified: ")
+                .printFieldPath()
+                .print(": ")
+                .printValue(fieldDescriptorOrUnknown().get(), expected().get())
+                .print(" -> ")
+                .printValue(fieldDescriptorOrUnknown().get(), actual().get())
+                .print("\n");
           }
           return;
         case REMOVED:
-          sb.append("deleted: ").append(fieldPrefix).append(": ");
+          if (!printer.startEntry(/* isDifference = */ true)) {
+            return;
+          }
+          printer.print("deleted: ").printFieldPath().print(": ");
           if (expected().get() instanceof Message) {
-            sb.append("\n").append(expected().get());
+            printer.print("\n").printMessage((Message) expected().get());
           } else {
-            sb.append(valueString(fieldDescriptorOrUnknown().get(), expected().get())).append("\n");
+            printer.printValue(fieldDescriptorOrUnknown().get(), expected().get()).print("\n");
           }
           return;
         default:
@@ -241,117 +268,134 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
         return actual().orNull() instanceof Message || expected().orNull() instanceof Message;
       }
 
-      private static String indexed(String fieldPrefix, Optional<Integer> fieldIndex) {
-        String index = fieldIndex.isPresent() ? fieldIndex.get().toString() : "?";
-        return fieldPrefix + "[" + index + "]";
-      }
-
       @Override
-      final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
-        printContentsForRepeatedField(
-            /* includeSelfAlways = */ false, includeMatches, fieldPrefix, sb);
+      final void printContents(boolean includeMatches, DiffPrinter printer) {
+        printContentsForRepeatedField(/* includeSelfAlways = */ false, includeMatches, printer);
       }
 
       // When printing results for a repeated field, we want to print matches even if
       // !includeMatches if there's a mismatch on the repeated field itself, but not recursively.
       // So we define a second printing method for use by the parent.
       final void printContentsForRepeatedField(
-          boolean includeSelfAlways, boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+          boolean includeSelfAlways, boolean includeMatches, DiffPrinter printer) {
         if (!includeSelfAlways && !includeMatches && isMatched()) {
           return;
         }
 
         switch (result()) {
           case ADDED:
-            sb.append("added: ").append(indexed(fieldPrefix, actualFieldIndex())).append(": ");
+            if (!printer.startEntry(/* isDifference = */ true)) {
+              return;
+            }
+            printer.print("added: ").printIndexedFieldPath(actualFieldIndex()).print(": ");
             if (isMessage()) {
-              sb.append("\n").append(actual().get());
+              printer.print("\n").printMessage((Message) actual().get());
             } else {
-              sb.append(valueString(fieldDescriptor(), actual().get())).append("\n");
+              printer.printValue(fieldDescriptor(), actual().get()).print("\n");
             }
             return;
           case IGNORED:
-            sb.append("ignored: ");
+            if (!printer.startEntry(/* isDifference = */ false)) {
+              return;
+            }
+            printer.print("ignored: ");
             if (actualFieldIndex().equals(expectedFieldIndex())) {
-              sb.append(indexed(fieldPrefix, actualFieldIndex()));
+              printer.printIndexedFieldPath(actualFieldIndex());
             } else {
-              sb.append(indexed(fieldPrefix, expectedFieldIndex()))
-                  .append(" -> ")
-                  .append(indexed(fieldPrefix, actualFieldIndex()));
+              printMove(printer);
             }
 
             // We output the message contents for ignored pair results, since it's likely not clear
             // from the index alone why they were ignored.
-            sb.append(":");
-            if (isMessage()) {
-              sb.append("\n");
-              printChildContents(includeMatches, indexed(fieldPrefix, actualFieldIndex()), sb);
-            } else {
-              sb.append(" ").append(valueString(fieldDescriptor(), actual().get())).append("\n");
-            }
+            printer.print(":");
+            printActualContents(includeMatches, printer);
             return;
           case MATCHED:
-            if (actualFieldIndex().get().equals(expectedFieldIndex().get())) {
-              sb.append("matched: ").append(indexed(fieldPrefix, actualFieldIndex()));
-            } else {
-              sb.append("moved: ")
-                  .append(indexed(fieldPrefix, expectedFieldIndex()))
-                  .append(" -> ")
-                  .append(indexed(fieldPrefix, actualFieldIndex()));
+            if (!printer.startEntry(/* isDifference = */ false)) {
+              return;
             }
-            sb.append(":");
-            if (isMessage()) {
-              sb.append("\n");
-              printChildContents(includeMatches, indexed(fieldPrefix, actualFieldIndex()), sb);
+            if (actualFieldIndex().get().equals(expectedFieldIndex().get())) {
+              printer.print("matched: ").printIndexedFieldPath(actualFieldIndex());
             } else {
-              sb.append(" ").append(valueString(fieldDescriptor(), actual().get())).append("\n");
+              printer.print("moved: ");
+              printMove(printer);
             }
+            printer.print(":");
+            printActualContents(includeMatches, printer);
             return;
           case MOVED_OUT_OF_ORDER:
-            sb.append("out_of_order: ")
-                .append(indexed(fieldPrefix, expectedFieldIndex()))
-                .append(" -> ")
-                .append(indexed(fieldPrefix, actualFieldIndex()));
-            sb.append(":");
-            if (isMessage()) {
-              sb.append("\n");
-              printChildContents(includeMatches, indexed(fieldPrefix, actualFieldIndex()), sb);
-            } else {
-              sb.append(" ").append(valueString(fieldDescriptor(), actual().get())).append("\n");
+            if (!printer.startEntry(/* isDifference = */ true)) {
+              return;
             }
+            printer.print("out_of_order: ");
+            printMove(printer);
+            printer.print(":");
+            printActualContents(includeMatches, printer);
             return;
           case MODIFIED:
-            sb.append("modified: ");
-            if (actualFieldIndex().get().equals(expectedFieldIndex().get())) {
-              sb.append(indexed(fieldPrefix, actualFieldIndex()));
-            } else {
-              sb.append(indexed(fieldPrefix, expectedFieldIndex()))
-                  .append(" -> ")
-                  .append(indexed(fieldPrefix, actualFieldIndex()));
-            }
-            sb.append(":");
-            if (isMessage()) {
-              sb.append("\n");
-              printChildContents(includeMatches, indexed(fieldPrefix, actualFieldIndex()), sb);
-            } else {
-              sb.append(" ")
-                  .append(valueString(fieldDescriptor(), expected().get()))
-                  .append(" -> ")
-                  .append(valueString(fieldDescriptor(), actual().get()));
+            // For messages, the differences are counted by the children, even if this header
+            // doesn't fit.
+            if (printer.startEntry(/* isDifference = */ !isMessage())) {
+              printer.print("modified: ");
+              if (actualFieldIndex().get().equals(expectedFieldIndex().get())) {
+                printer.printIndexedFieldPath(actualFieldIndex());
+              } else {
+                printMove(printer);
+              }
+              printer.print(":");
+              if (!isMessage()) {
+                printer
+                    .print(" ")
+                    .printValue(fieldDescriptor(), expected().get())
+                    .print(" -> ")
+                    .printValue(fieldDescriptor(), actual().get());
+                return;
+              }
+              printer.print("\n");
+            } else if (!isMessage()) {
+              return;
             }
+            printBreakdown(includeMatches, printer);
             return;
           case REMOVED:
-            sb.append("deleted: ").append(indexed(fieldPrefix, expectedFieldIndex())).append(": ");
+            if (!printer.startEntry(/* isDifference = */ true)) {
+              return;
+            }
+            printer.print("deleted: ").printIndexedFieldPath(expectedFieldIndex()).print(": ");
             if (isMessage()) {
-              sb.append("\n").append(expected().get());
+              printer.print("\n").printMessage((Message) expected().get());
             } else {
-              sb.append(valueString(fieldDescriptor(), expected().get())).append("\n");
+              printer.printValue(fieldDescriptor(), expected().get()).print("\n");
             }
             return;
         }
         throw new AssertionError("Impossible: " + result());
       }
 
+      /** Prints "{@code field[expected] -> field[actual]}". */
+      private void printMove(DiffPrinter printer) {
+        printer
+            .printIndexedFieldPath(expectedFieldIndex())
+            .print(" -> ")
+            .printIndexedFieldPath(actualFieldIndex());
+      }
+
+      /** Prints the breakdown if this is a message pair, or else the actual value. */
+      private void printActualContents(boolean includeMatches, DiffPrinter printer) {
+        if (isMessage()) {
+          printer.print("\n");
+          printBreakdown(includeMatches, printer);
+        } else {
+          printer.print(" ").printValue(fieldDescriptor(), actual().get()).print("\n");
+        }
+      }
+
+      private void printBreakdown(boolean includeMatches, DiffPrinter printer) {
+        int mark = printer.pushIndex(actualFieldIndex());
+        printChildContents(includeMatches, printer);
+        printer.popFieldPath(mark);
+      }
+
       @Override
       final boolean isContentEmpty() {
         return false;
@@ -406,12 +450,13 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
-      fieldPrefix = newFieldPrefix(fieldPrefix, fieldDescriptor().getName());
+    final void printContents(boolean includeMatches, DiffPrinter printer) {
+      int mark = printer.pushFieldName(fieldDescriptor().getName());
       for (PairResult pairResult : pairResults()) {
         pairResult.printContentsForRepeatedField(
-            /* includeSelfAlways = */ !isMatched(), includeMatches, fieldPrefix, sb);
+            /* includeSelfAlways = */ !isMatched(), includeMatches, printer);
       }
+      printer.popFieldPath(mark);
     }
 
     @Override
@@ -469,14 +514,14 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     }
 
     @Override
-    final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+    final void printContents(boolean includeMatches, DiffPrinter printer) {
       if (!includeMatches && isMatched()) {
         return;
       }
 
       for (int fieldNumber : singularFields().keySet()) {
         for (SingularField singularField : singularFields().get(fieldNumber)) {
-          singularField.printContents(includeMatches, fieldPrefix, sb);
+          singularField.printContents(includeMatches, printer);
         }
       }
     }
@@ -553,37 +598,62 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     return builder.build();
   }
 
-  /** Prints the full {@link DiffResult} to a human-readable string, for use in test outputs. */
+  /**
+   * Prints the full {@link DiffResult} to a human-readable string, for use in test outputs.
+   *
+   * <p>The report is cut off after {@link #DEFAULT_MAX_REPORT_LINES} lines or {@link
+   * #DEFAULT_MAX_REPORT_CHARS} characters, whichever comes first.
+   */
   final String printToString(boolean reportMismatchesOnly) {
     StringBuilder sb = new StringBuilder();
+    try {
+      printTo(sb, reportMismatchesOnly, DEFAULT_MAX_REPORT_LINES, DEFAULT_MAX_REPORT_CHARS);
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return sb.toString();
+  }
 
-    if (!isMatched()) {
-      sb.append("Differences were found:\n");
-      printContents(/* includeMatches = */ false, /* fieldPrefix = */ "", sb);
+  /**
+   * Streams the full {@link DiffResult} to {@code out}, as {@link #printToString} would.
+   *
+   * <p>Output stops once {@code maxLines} lines or {@code maxChars} characters have been written
+   * (pass {@link DiffPrinter#UNLIMITED} for no limit), and is then followed by a trailer saying how
+   * many differences were left out.
+   */
+  final void printTo(Appendable out, boolean reportMismatchesOnly, int maxLines, int maxChars)
+      throws IOException {
+    DiffPrinter printer = new DiffPrinter(out, maxLines, maxChars);
 
-      if (!reportMismatchesOnly && isAnyChildMatched()) {
-        sb.append("\nFull diff report:\n");
-        printContents(/* includeMatches = */ true, /* fieldPrefix = */ "", sb);
+    if (!isMatched()) {
+      printer.print("Differences were found:\n");
+      printContents(/* includeMatches = */ false, printer);
+
+      // Once truncated, the full report could only contribute to the omitted count, and would
+      // count every difference twice.
+      if (!reportMismatchesOnly && isAnyChildMatched() && !printer.isTruncated()) {
+        printer.print("\nFull diff report:\n");
+        printContents(/* includeMatches = */ true, printer);
       }
     } else {
-      sb.append("No differences were found.");
+      printer.print("No differences were found.");
       if (!reportMismatchesOnly) {
         if (isAnyChildIgnored()) {
-          sb.append("\nSome fields were ignored for comparison, however.\n");
+          printer.print("\nSome fields were ignored for comparison, however.\n");
         } else {
-          sb.append("\nFull diff report:\n");
+          printer.print("\nFull diff report:\n");
         }
-        printContents(/* includeMatches = */ true, /* fieldPrefix = */ "", sb);
+        printContents(/* includeMatches = */ true, printer);
       }
     }
 
-    return sb.toString();
+    printer.finish();
   }
 
   @Override
-  final void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+  final void printContents(boolean includeMatches, DiffPrinter printer) {
     for (RecursableDiffEntity child : childEntities()) {
-      child.printContents(includeMatches, fieldPrefix, sb);
+      child.printContents(includeMatches, printer);
     }
   }
 
@@ -596,38 +666,6 @@ abstract class DiffResult extends RecursableDiffEntity.WithoutResultCode {
     return new AutoValue_DiffResult.Builder();
   }
 
-  private static String newFieldPrefix(String rootFieldPrefix, String toAdd) {
-    return rootFieldPrefix.isEmpty() ? toAdd : (rootFieldPrefix + "." + toAdd);
-  }
-
-  private static String valueString(FieldDescriptorOrUnknown fieldDescriptorOrUnknown, Object o) {
-    if (fieldDescriptorOrUnknown.fieldDescriptor().isPresent()) {
-      return valueString(fieldDescriptorOrUnknown.fieldDescriptor().get(), o);
-    } else {
-      return valueString(fieldDescriptorOrUnknown.unknownFieldDescriptor().get(), o);
-    }
-  }
-
-  private static String valueString(FieldDescriptor fieldDescriptor, Object o) {
-    StringBuilder sb = new StringBuilder();
-    try {
-      TextFormat.printFieldValue(fieldDescriptor, o, sb);
-      return sb.toString();
-    } catch (IOException impossible) {
-      throw new AssertionError(impossible);
-    }
-  }
-
-  private static String valueString(UnknownFieldDescriptor unknownFieldDescriptor, Object o) {
-    StringBuilder sb = new StringBuilder();
-    try {
-      TextFormat.printUnknownFieldValue(unknownFieldDescriptor.type().wireType(), o, sb);
-      return sb.toString();
-    } catch (IOException impossible) {
-      throw new AssertionError(impossible);
-    }
-  }
-
   @CanIgnoreReturnValue
   @AutoValue.Builder
   abstract static class Builder {
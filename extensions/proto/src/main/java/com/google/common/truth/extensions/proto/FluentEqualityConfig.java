@@ -33,6 +33,7 @@ import com.google.protobuf.Descriptors.Descriptor;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import com.google.errorprone.annotations.CheckReturnValue;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -52,6 +53,7 @@ abstract class FluentEqualityConfig {
           .setCompareExpectedFieldsOnly(false)
           .setFieldScopeLogic(FieldScopeLogic.all())
           .setReportMismatchesOnly(false)
+          .setParallelFieldDiffThreshold(Integer.MAX_VALUE)
           .setUsingCorrespondenceStringFunction(Functions.constant(""))
           .build();
 
@@ -97,6 +99,19 @@ abstract class FluentEqualityConfig {
 
   abstract boolean reportMismatchesOnly();
 
+  // If present, iterable, map and multimap assertions evaluate their pairwise comparisons on this
+  // pool before running the (unchanged) assertion logic. Does not affect the result or the failure
+  // message, so it is deliberately left out of usingCorrespondenceString().
+  abstract Optional<ForkJoinPool> parallelComparisonPool();
+
+  // If present, ProtoTruthMessageDifferencer diffs the top-level fields of a message, and the
+  // elements of its top-level repeated and map fields, on this pool whenever there are at least
+  // parallelFieldDiffThreshold() of them. Like parallelComparisonPool(), this does not affect the
+  // result or the failure message.
+  abstract Optional<ForkJoinPool> parallelFieldDiffPool();
+
+  abstract int parallelFieldDiffThreshold();
+
   // For pretty-printing, does not affect behavior.
   abstract Function<? super Optional<Descriptor>, String> usingCorrespondenceStringFunction();
 
@@ -202,10 +217,36 @@ abstract class FluentEqualityConfig {
         .build();
   }
 
+  final FluentEqualityConfig comparingInParallel(ForkJoinPool pool) {
+    return toBuilder().setParallelComparisonPool(pool).build();
+  }
+
+  final FluentEqualityConfig comparingFieldsInParallel(ForkJoinPool pool, int minFieldCount) {
+    return toBuilder()
+        .setParallelFieldDiffPool(pool)
+        .setParallelFieldDiffThreshold(minFieldCount)
+        .build();
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // Converters into comparison utilities.
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
+  /**
+   * Returns true if messages which are {@code equals()} are guaranteed to compare equal under this
+   * config, so that the message differencer can be skipped for them.
+   *
+   * <p>Ignoring field absence, repeated field order and extra repeated field elements only loosen
+   * the comparison. Tolerances don't (they never match NaN), and field scopes must still be
+   * validated against the descriptor, so either of those rules out the shortcut.
+   */
+  final boolean isEqualsSufficientForMatch() {
+    return !doubleCorrespondence().isPresent()
+        && !floatCorrespondence().isPresent()
+        && !compareExpectedFieldsOnly()
+        && fieldScopeLogic() == FieldScopeLogic.all();
+  }
+
   final ProtoTruthMessageDifferencer toMessageDifferencer(Descriptor descriptor) {
     checkState(expectedMessages().isPresent(), "expectedMessages() not set");
     return messageDifferencers.getUnchecked(descriptor);
@@ -214,9 +255,24 @@ abstract class FluentEqualityConfig {
   final <M extends Message> Correspondence<M, M> toCorrespondence(
       final Optional<Descriptor> optDescriptor) {
     checkState(expectedMessages().isPresent(), "expectedMessages() not set");
+    final boolean isEqualsSufficientForMatch = isEqualsSufficientForMatch();
+    final SerializedHashCache serializedHashes = new SerializedHashCache();
     return new Correspondence<M, M>() {
       @Override
       public final boolean compare(@NullableDecl M actual, @NullableDecl M expected) {
+        if (isEqualsSufficientForMatch
+            && actual != null
+            && expected != null
+            && actual.getDescriptorForType() == expected.getDescriptorForType()) {
+          // Each message is typically compared against many others, so its serialized hash is
+          // computed once and used to rule out most unequal pairs before calling equals().
+          if (serializedHashes.mightBeEqual(actual, expected) && actual.equals(expected)) {
+            return true;
+          }
+          return toMessageDifferencer(actual.getDescriptorForType())
+              .diffMessages(actual, expected)
+              .isMatched();
+        }
         return ProtoTruth.assertThat(actual)
             .usingConfig(FluentEqualityConfig.this)
             .testIsEqualTo(expected);
@@ -270,6 +326,12 @@ abstract class FluentEqualityConfig {
 
     abstract Builder setReportMismatchesOnly(boolean reportMismatchesOnly);
 
+    abstract Builder setParallelComparisonPool(ForkJoinPool parallelComparisonPool);
+
+    abstract Builder setParallelFieldDiffPool(ForkJoinPool parallelFieldDiffPool);
+
+    abstract Builder setParallelFieldDiffThreshold(int parallelFieldDiffThreshold);
+
     @CheckReturnValue
     abstract Function<? super Optional<Descriptor>, String> usingCorrespondenceStringFunction();
 
@@ -17,6 +17,7 @@ package com.google.common.truth.extensions.proto;
 
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Fluent API to perform detailed, customizable comparison of iterables of protocol buffers. The
@@ -246,6 +247,20 @@ public interface IterableOfProtosFluentAssertion<M extends Message>
    */
   IterableOfProtosFluentAssertion<M> reportingMismatchesOnly();
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected elements is compared up front, so this is most
+   * useful for assertions like {@code containsExactlyElementsIn} on large iterables of large
+   * protos, which compare most pairs anyway. The assertion itself then runs as usual on the
+   * precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  IterableOfProtosFluentAssertion<M> comparingInParallel(ForkJoinPool pool);
+
   /**
    * @deprecated Do not call {@code equals()} on a {@code IterableOfProtosFluentAssertion}.
    * @see com.google.common.truth.Subject#equals(Object)
@@ -32,6 +32,7 @@ import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -647,6 +648,22 @@ public class IterableOfProtosSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected elements is compared up front, so this is most
+   * useful for assertions like {@code containsExactlyElementsIn} on large iterables of large
+   * protos, which compare most pairs anyway. The assertion itself then runs as usual on the
+   * precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  public IterableOfProtosFluentAssertion<M> comparingInParallel(ForkJoinPool pool) {
+    return usingConfig(config.comparingInParallel(checkNotNull(pool, "pool")));
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
@@ -668,12 +685,21 @@ public class IterableOfProtosSubject<
     }
 
     private IterableSubject.UsingCorrespondence<M, M> delegate(Iterable<? extends M> messages) {
+      Correspondence<M, M> correspondence =
+          subject
+              .config
+              .withExpectedMessages(messages)
+              .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(subject.actual()));
+      if (subject.config.parallelComparisonPool().isPresent() && subject.actual() != null) {
+        correspondence =
+            ParallelCorrespondence.forAllPairs(
+                correspondence,
+                subject.config.parallelComparisonPool().get(),
+                subject.actual(),
+                messages);
+      }
       IterableSubject.UsingCorrespondence<M, M> usingCorrespondence =
-          subject.comparingElementsUsing(
-              subject
-                  .config
-                  .withExpectedMessages(messages)
-                  .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(subject.actual())));
+          subject.comparingElementsUsing(correspondence);
       if (keyFunction != null) {
         usingCorrespondence = usingCorrespondence.displayingDiffsPairedBy(keyFunction);
       }
@@ -852,6 +878,11 @@ public class IterableOfProtosSubject<
       return subject.reportingMismatchesOnly();
     }
 
+    @Override
+    public IterableOfProtosFluentAssertion<M> comparingInParallel(ForkJoinPool pool) {
+      return subject.comparingInParallel(pool);
+    }
+
     @Override
     public IterableOfProtosUsingCorrespondence<M> displayingDiffsPairedBy(
         Function<? super M, ?> keyFunction) {
@@ -20,6 +20,7 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -255,6 +256,19 @@ public interface MapWithProtoValuesFluentAssertion<M extends Message> {
    */
   MapWithProtoValuesFluentAssertion<M> reportingMismatchesOnlyForValues();
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected values with equal keys is compared up front, so
+   * this is most useful for assertions like {@code containsExactlyEntriesIn} on large maps of
+   * large protos. The assertion itself then runs as usual on the precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  MapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(ForkJoinPool pool);
+
   /**
    * Fails if the map does not contain an entry with the given key and a value that corresponds to
    * the given value.
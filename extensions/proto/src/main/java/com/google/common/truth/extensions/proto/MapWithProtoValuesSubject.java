@@ -20,6 +20,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.truth.Correspondence;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.MapSubject;
@@ -28,10 +31,9 @@ import com.google.common.truth.Subject;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -458,16 +460,40 @@ public class MapWithProtoValuesSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected values with equal keys is compared up front, so
+   * this is most useful for assertions like {@code containsExactlyEntriesIn} on large maps of
+   * large protos. The assertion itself then runs as usual on the precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  public MapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(ForkJoinPool pool) {
+    return usingConfig(config.comparingInParallel(checkNotNull(pool, "pool")));
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   private MapSubject.UsingCorrespondence<M, M> usingCorrespondence(
-      Iterable<? extends M> expectedValues) {
-    return comparingValuesUsing(
+      Multimap<?, ? extends M> expectedEntries) {
+    Correspondence<M, M> correspondence =
         config
-            .withExpectedMessages(expectedValues)
-            .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values())));
+            .withExpectedMessages(expectedEntries.values())
+            .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values()));
+    if (config.parallelComparisonPool().isPresent()) {
+      correspondence =
+          ParallelCorrespondence.forPairsWithEqualKeys(
+              correspondence,
+              config.parallelComparisonPool().get(),
+              Multimaps.forMap(actual()),
+              expectedEntries);
+    }
+    return comparingValuesUsing(correspondence);
   }
 
   // The UsingCorrespondence methods have conflicting erasure with default MapSubject methods,
@@ -551,10 +577,16 @@ public class MapWithProtoValuesSubject<
       return subject.reportingMismatchesOnlyForValues();
     }
 
+    @Override
+    public MapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(ForkJoinPool pool) {
+      return subject.comparingInParallelForValues(pool);
+    }
+
     @Override
     public void containsEntry(@NullableDecl Object expectedKey, @NullableDecl M expectedValue) {
       subject
-          .usingCorrespondence(Arrays.asList(expectedValue))
+          .usingCorrespondence(
+              Multimaps.forMap(Collections.singletonMap(expectedKey, expectedValue)))
           .containsEntry(expectedKey, expectedValue);
     }
 
@@ -562,7 +594,8 @@ public class MapWithProtoValuesSubject<
     public void doesNotContainEntry(
         @NullableDecl Object excludedKey, @NullableDecl M excludedValue) {
       subject
-          .usingCorrespondence(Arrays.asList(excludedValue))
+          .usingCorrespondence(
+              Multimaps.forMap(Collections.singletonMap(excludedKey, excludedValue)))
           .doesNotContainEntry(excludedKey, excludedValue);
     }
 
@@ -570,19 +603,19 @@ public class MapWithProtoValuesSubject<
     @CanIgnoreReturnValue
     @SuppressWarnings("unchecked") // ClassCastException is fine
     public Ordered containsExactly(@NullableDecl Object k0, @NullableDecl M v0, Object... rest) {
-      List<M> expectedValues = new ArrayList<>();
-      expectedValues.add(v0);
+      Multimap<Object, M> expectedEntries = LinkedListMultimap.create();
+      expectedEntries.put(k0, v0);
       for (int i = 1; i < rest.length; i += 2) {
-        expectedValues.add((M) rest[i]);
+        expectedEntries.put(rest[i - 1], (M) rest[i]);
       }
-      return subject.usingCorrespondence(expectedValues).containsExactly(k0, v0, rest);
+      return subject.usingCorrespondence(expectedEntries).containsExactly(k0, v0, rest);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactlyEntriesIn(Map<?, ? extends M> expectedMap) {
       return subject
-          .usingCorrespondence(expectedMap.values())
+          .usingCorrespondence(Multimaps.forMap(expectedMap))
           .containsExactlyEntriesIn(expectedMap);
     }
 
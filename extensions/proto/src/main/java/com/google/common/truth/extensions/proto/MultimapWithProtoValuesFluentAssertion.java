@@ -20,6 +20,7 @@ import com.google.common.truth.Ordered;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -256,6 +257,19 @@ public interface MultimapWithProtoValuesFluentAssertion<M extends Message> {
    */
   MultimapWithProtoValuesFluentAssertion<M> reportingMismatchesOnlyForValues();
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected values with equal keys is compared up front, so
+   * this is most useful for assertions like {@code containsExactlyEntriesIn} on large multimaps of
+   * large protos. The assertion itself then runs as usual on the precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  MultimapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(ForkJoinPool pool);
+
   /**
    * Fails if the multimap does not contain an entry with the given key and a value that corresponds
    * to the given value.
@@ -20,6 +20,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
 
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.truth.Correspondence;
 import com.google.common.truth.FailureMetadata;
@@ -29,10 +31,7 @@ import com.google.common.truth.Subject;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -505,16 +504,37 @@ public class MultimapWithProtoValuesSubject<
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  /**
+   * Evaluates the proto comparisons needed by the terminal assertion concurrently on the given
+   * {@link ForkJoinPool}, instead of one after another on the calling thread.
+   *
+   * <p>Every candidate pair of actual and expected values with equal keys is compared up front, so
+   * this is most useful for assertions like {@code containsExactlyEntriesIn} on large multimaps of
+   * large protos. The assertion itself then runs as usual on the precomputed results.
+   *
+   * <p>This is purely a performance setting: it has no effect on the outcome of the test or on the
+   * failure message.
+   */
+  public MultimapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(ForkJoinPool pool) {
+    return usingConfig(config.comparingInParallel(checkNotNull(pool, "pool")));
+  }
+
   //////////////////////////////////////////////////////////////////////////////////////////////////
   // UsingCorrespondence Methods
   //////////////////////////////////////////////////////////////////////////////////////////////////
 
   private MultimapSubject.UsingCorrespondence<M, M> usingCorrespondence(
-      Iterable<? extends M> expectedValues) {
-    return comparingValuesUsing(
+      Multimap<?, ? extends M> expectedEntries) {
+    Correspondence<M, M> correspondence =
         config
-            .withExpectedMessages(expectedValues)
-            .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values())));
+            .withExpectedMessages(expectedEntries.values())
+            .<M>toCorrespondence(FieldScopeUtil.getSingleDescriptor(actual().values()));
+    if (config.parallelComparisonPool().isPresent()) {
+      correspondence =
+          ParallelCorrespondence.forPairsWithEqualKeys(
+              correspondence, config.parallelComparisonPool().get(), actual(), expectedEntries);
+    }
+    return comparingValuesUsing(correspondence);
   }
 
   // The UsingCorrespondence methods have conflicting erasure with default MapSubject methods,
@@ -601,10 +621,16 @@ public class MultimapWithProtoValuesSubject<
       return subject.reportingMismatchesOnlyForValues();
     }
 
+    @Override
+    public MultimapWithProtoValuesFluentAssertion<M> comparingInParallelForValues(
+        ForkJoinPool pool) {
+      return subject.comparingInParallelForValues(pool);
+    }
+
     @Override
     public void containsEntry(@NullableDecl Object expectedKey, @NullableDecl M expectedValue) {
       subject
-          .usingCorrespondence(Arrays.asList(expectedValue))
+          .usingCorrespondence(singletonMultimap(expectedKey, expectedValue))
           .containsEntry(expectedKey, expectedValue);
     }
 
@@ -612,7 +638,7 @@ public class MultimapWithProtoValuesSubject<
     public void doesNotContainEntry(
         @NullableDecl Object excludedKey, @NullableDecl M excludedValue) {
       subject
-          .usingCorrespondence(Arrays.asList(excludedValue))
+          .usingCorrespondence(singletonMultimap(excludedKey, excludedValue))
           .doesNotContainEntry(excludedKey, excludedValue);
     }
 
@@ -620,26 +646,33 @@ public class MultimapWithProtoValuesSubject<
     @CanIgnoreReturnValue
     public Ordered containsExactlyEntriesIn(Multimap<?, ? extends M> expectedMap) {
       return subject
-          .usingCorrespondence(expectedMap.values())
+          .usingCorrespondence(expectedMap)
           .containsExactlyEntriesIn(expectedMap);
     }
 
     @Override
     @CanIgnoreReturnValue
     public Ordered containsExactly() {
-      return subject.usingCorrespondence(Collections.<M>emptyList()).containsExactly();
+      return subject.usingCorrespondence(ImmutableMultimap.<Object, M>of()).containsExactly();
     }
 
     @Override
     @CanIgnoreReturnValue
     @SuppressWarnings("unchecked") // ClassCastException is fine
     public Ordered containsExactly(@NullableDecl Object k0, @NullableDecl M v0, Object... rest) {
-      List<M> expectedValues = new ArrayList<>();
-      expectedValues.add(v0);
+      Multimap<Object, M> expectedEntries = singletonMultimap(k0, v0);
       for (int i = 1; i < rest.length; i += 2) {
-        expectedValues.add((M) rest[i]);
+        expectedEntries.put(rest[i - 1], (M) rest[i]);
       }
-      return subject.usingCorrespondence(expectedValues).containsExactly(k0, v0, rest);
+      return subject.usingCorrespondence(expectedEntries).containsExactly(k0, v0, rest);
+    }
+
+    // Unlike ImmutableMultimap.of(), allows a null key or value.
+    private static <M> Multimap<Object, M> singletonMultimap(
+        @NullableDecl Object key, @NullableDecl M value) {
+      Multimap<Object, M> multimap = LinkedListMultimap.create();
+      multimap.put(key, value);
+      return multimap;
     }
 
     @Override
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Lists.newArrayList;
+
+import com.google.common.collect.Multimap;
+import com.google.common.truth.Correspondence;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * A {@link Correspondence} which evaluates a known set of (actual, expected) pairs up front on a
+ * {@link ForkJoinPool}, and afterwards answers {@link #compare} from the precomputed results.
+ *
+ * <p>The assertion logic in {@code IterableSubject}, {@code MapSubject} and {@code MultimapSubject}
+ * is left untouched: it calls {@link #compare} in the same order as it would for the delegate, so
+ * pass/fail decisions and failure messages are identical to the serial ones. Pairs which were not
+ * precomputed (or whose comparison threw) are delegated to at call time, so exceptions also surface
+ * exactly where they would without parallelism.
+ *
+ * <p>Results are looked up by the identity of the compared objects, which is sound since the
+ * delegate is a pure function of its inputs.
+ */
+final class ParallelCorrespondence<A, E> extends Correspondence<A, E> {
+  private static final byte UNKNOWN = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+
+  /** The number of leaf tasks to aim for per worker thread, to balance uneven comparison costs. */
+  private static final int BATCHES_PER_WORKER = 4;
+
+  /**
+   * Returns a {@code Correspondence} which has precomputed {@code delegate} over the pairs which
+   * {@code IterableSubject.UsingCorrespondence} compares.
+   *
+   * <p>Its assertions first compare the elements pairwise in order, and only compare every actual
+   * element with every expected element if that fails. So the in-order pairs are compared first,
+   * and the cross-product is computed only from the first pair which doesn't correspond, reusing
+   * the results of the in-order pairs within it. A passing in-order assertion thus costs one
+   * comparison per element, as it does serially. Any other pairs the assertion needs are compared
+   * when it asks for them.
+   */
+  static <A, E> Correspondence<A, E> forAllPairs(
+      Correspondence<A, E> delegate,
+      ForkJoinPool pool,
+      Iterable<? extends A> actual,
+      Iterable<? extends E> expected) {
+    final List<A> actualList = newArrayList(actual);
+    final List<E> expectedList = newArrayList(expected);
+    if ((long) actualList.size() * expectedList.size() <= 1) {
+      return delegate; // Nothing to gain from a round trip through the pool.
+    }
+
+    byte[] inOrder =
+        compareAll(
+            delegate,
+            pool,
+            new Pairs() {
+              @Override
+              int size() {
+                return Math.min(actualList.size(), expectedList.size());
+              }
+
+              @Override
+              Object actual(int index) {
+                return actualList.get(index);
+              }
+
+              @Override
+              Object expected(int index) {
+                return expectedList.get(index);
+              }
+            });
+    int firstMismatch = 0;
+    while (firstMismatch < inOrder.length && inOrder[firstMismatch] == TRUE) {
+      firstMismatch++;
+    }
+
+    final byte[] inOrderResults = inOrder;
+    final int start = firstMismatch;
+    final int width = expectedList.size() - start;
+    long crossSize = (long) (actualList.size() - start) * width;
+    byte[] crossProduct;
+    if (crossSize == 0 || crossSize > Integer.MAX_VALUE) {
+      // Either the elements correspond in order, or there are too many pairs to hold the results.
+      crossProduct = new byte[0];
+    } else {
+      crossProduct =
+          compareAll(
+              delegate,
+              pool,
+              new Pairs() {
+                @Override
+                int size() {
+                  return (int) ((long) (actualList.size() - start) * width);
+                }
+
+                @Override
+                Object actual(int index) {
+                  return actualList.get(start + index / width);
+                }
+
+                @Override
+                Object expected(int index) {
+                  return expectedList.get(start + index % width);
+                }
+
+                @Override
+                byte known(int index) {
+                  int actualIndex = start + index / width;
+                  return actualIndex == start + index % width && actualIndex < inOrderResults.length
+                      ? inOrderResults[actualIndex]
+                      : UNKNOWN;
+                }
+              });
+    }
+    return new ParallelCorrespondence<>(
+        delegate,
+        new InOrderThenCrossProduct(
+            indexesOf(actualList), indexesOf(expectedList), inOrder, start, width, crossProduct));
+  }
+
+  /**
+   * Returns a {@code Correspondence} which has precomputed {@code delegate} over the pairs of
+   * values sharing a key in {@code actual} and {@code expected}, as needed by the map and multimap
+   * {@code UsingCorrespondence} implementations, which only compare values under equal keys.
+   */
+  static <A, E> Correspondence<A, E> forPairsWithEqualKeys(
+      Correspondence<A, E> delegate,
+      ForkJoinPool pool,
+      Multimap<?, ? extends A> actual,
+      Multimap<?, ? extends E> expected) {
+    final List<Object> actualValues = new ArrayList<>();
+    final List<Object> expectedValues = new ArrayList<>();
+    Map<?, ? extends Collection<? extends A>> actualMap = actual.asMap();
+    for (Map.Entry<?, ? extends Collection<? extends E>> entry : expected.asMap().entrySet()) {
+      @NullableDecl Collection<? extends A> actualValuesForKey = actualMap.get(entry.getKey());
+      if (actualValuesForKey == null) {
+        continue;
+      }
+      for (A actualValue : actualValuesForKey) {
+        for (E expectedValue : entry.getValue()) {
+          actualValues.add(actualValue);
+          expectedValues.add(expectedValue);
+        }
+      }
+    }
+    if (actualValues.size() <= 1) {
+      return delegate; // Nothing to gain from a round trip through the pool.
+    }
+
+    byte[] results =
+        compareAll(
+            delegate,
+            pool,
+            new Pairs() {
+              @Override
+              int size() {
+                return actualValues.size();
+              }
+
+              @Override
+              Object actual(int index) {
+                return actualValues.get(index);
+              }
+
+              @Override
+              Object expected(int index) {
+                return expectedValues.get(index);
+              }
+            });
+    Map<IdentityPair, Byte> resultMap = new HashMap<>();
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] != UNKNOWN) {
+        resultMap.put(new IdentityPair(actualValues.get(i), expectedValues.get(i)), results[i]);
+      }
+    }
+    return new ParallelCorrespondence<>(delegate, new PairsByIdentity(resultMap));
+  }
+
+  /** Compares each of {@code pairs} on {@code pool}, in batches. */
+  private static <A, E> byte[] compareAll(
+      Correspondence<A, E> delegate, ForkJoinPool pool, Pairs pairs) {
+    byte[] results = new byte[pairs.size()];
+    if (results.length > 0) {
+      int batchSize =
+          Math.max(1, results.length / (pool.getParallelism() * BATCHES_PER_WORKER));
+      ProtoTruthMessageDifferencer.invokeOn(
+          pool, new CompareTask<>(delegate, pairs, results, batchSize, 0, results.length));
+    }
+    return results;
+  }
+
+  /** Returns the index of each element of {@code list}, by identity. */
+  private static Map<Object, Integer> indexesOf(List<?> list) {
+    Map<Object, Integer> indexes = new IdentityHashMap<>();
+    for (int i = 0; i < list.size(); i++) {
+      indexes.put(list.get(i), i);
+    }
+    return indexes;
+  }
+
+  private final Correspondence<A, E> delegate;
+  private final Results results;
+
+  private ParallelCorrespondence(Correspondence<A, E> delegate, Results results) {
+    this.delegate = checkNotNull(delegate);
+    this.results = results;
+  }
+
+  @Override
+  public boolean compare(@NullableDecl A actual, @NullableDecl E expected) {
+    byte result = results.get(actual, expected);
+    return result == UNKNOWN ? delegate.compare(actual, expected) : result == TRUE;
+  }
+
+  @Override
+  @NullableDecl
+  public String formatDiff(@NullableDecl A actual, @NullableDecl E expected) {
+    return delegate.formatDiff(actual, expected);
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /** A sequence of (actual, expected) pairs to compare, computed from their index. */
+  private abstract static class Pairs {
+    abstract int size();
+
+    abstract Object actual(int index);
+
+    abstract Object expected(int index);
+
+    /** Returns the result for the pair if it is already known, without comparing it again. */
+    byte known(int index) {
+      return UNKNOWN;
+    }
+  }
+
+  /** The precomputed results, looked up by the identity of the compared objects. */
+  private abstract static class Results {
+    /** Returns {@code TRUE} or {@code FALSE}, or {@code UNKNOWN} if the pair wasn't compared. */
+    abstract byte get(@NullableDecl Object actual, @NullableDecl Object expected);
+  }
+
+  /**
+   * The results for {@link #forAllPairs}: the in-order pairs, and the cross-product of the actual
+   * and expected elements from index {@code start} on.
+   */
+  private static final class InOrderThenCrossProduct extends Results {
+    private final Map<Object, Integer> actualIndexes;
+    private final Map<Object, Integer> expectedIndexes;
+    private final byte[] inOrder;
+    private final int start;
+    private final int width;
+    private final byte[] crossProduct;
+
+    InOrderThenCrossProduct(
+        Map<Object, Integer> actualIndexes,
+        Map<Object, Integer> expectedIndexes,
+        byte[] inOrder,
+        int start,
+        int width,
+        byte[] crossProduct) {
+      this.actualIndexes = actualIndexes;
+      this.expectedIndexes = expectedIndexes;
+      this.inOrder = inOrder;
+      this.start = start;
+      this.width = width;
+      this.crossProduct = crossProduct;
+    }
+
+    @Override
+    byte get(@NullableDecl Object actual, @NullableDecl Object expected) {
+      Integer actualIndex = actualIndexes.get(actual);
+      Integer expectedIndex = expectedIndexes.get(expected);
+      if (actualIndex == null || expectedIndex == null) {
+        return UNKNOWN;
+      }
+      if (actualIndex >= start && expectedIndex >= start && crossProduct.length > 0) {
+        return crossProduct[(actualIndex - start) * width + (expectedIndex - start)];
+      }
+      if (actualIndex.equals(expectedIndex) && actualIndex < inOrder.length) {
+        return inOrder[actualIndex];
+      }
+      return UNKNOWN;
+    }
+  }
+
+  /** The results for {@link #forPairsWithEqualKeys}, keyed by each pair. */
+  private static final class PairsByIdentity extends Results {
+    private final Map<IdentityPair, Byte> results;
+
+    PairsByIdentity(Map<IdentityPair, Byte> results) {
+      this.results = results;
+    }
+
+    @Override
+    byte get(@NullableDecl Object actual, @NullableDecl Object expected) {
+      @NullableDecl Byte result = results.get(new IdentityPair(actual, expected));
+      return result != null ? result : UNKNOWN;
+    }
+  }
+
+  /**
+   * Compares the pairs in {@code [from, to)}, splitting the range in halves across the pool down to
+   * batches of at most {@code batchSize} pairs.
+   */
+  private static final class CompareTask<A, E> extends RecursiveAction {
+    private final Correspondence<A, E> delegate;
+    private final Pairs pairs;
+    private final byte[] results;
+    private final int batchSize;
+    private final int from;
+    private final int to;
+
+    CompareTask(
+        Correspondence<A, E> delegate,
+        Pairs pairs,
+        byte[] results,
+        int batchSize,
+        int from,
+        int to) {
+      this.delegate = delegate;
+      this.pairs = pairs;
+      this.results = results;
+      this.batchSize = batchSize;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= batchSize) {
+        for (int i = from; i < to; i++) {
+          byte known = pairs.known(i);
+          results[i] = known != UNKNOWN ? known : compareOrUnknown(i);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new CompareTask<>(delegate, pairs, results, batchSize, from, mid),
+          new CompareTask<>(delegate, pairs, results, batchSize, mid, to));
+    }
+
+    @SuppressWarnings("unchecked") // the pairs were drawn from Iterable<A> and Iterable<E>
+    private byte compareOrUnknown(int index) {
+      try {
+        return delegate.compare((A) pairs.actual(index), (E) pairs.expected(index)) ? TRUE : FALSE;
+      } catch (RuntimeException e) {
+        // Leave this pair to be re-evaluated (and to throw again) on the calling thread.
+        return UNKNOWN;
+      }
+    }
+  }
+
+  /** A pair of references, compared by identity. */
+  private static final class IdentityPair {
+    @NullableDecl private final Object first;
+    @NullableDecl private final Object second;
+
+    IdentityPair(@NullableDecl Object first, @NullableDecl Object second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public boolean equals(@NullableDecl Object o) {
+      if (o instanceof IdentityPair) {
+        IdentityPair that = (IdentityPair) o;
+        return this.first == that.first && this.second == that.second;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(first) + System.identityHashCode(second);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.google.common.truth.extensions.proto;
 
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -243,6 +244,19 @@ public interface ProtoFluentAssertion {
    */
   ProtoFluentAssertion reportingMismatchesOnly();
 
+  /**
+   * Diffs the fields of the protos concurrently on the given {@link ForkJoinPool}, for messages
+   * with at least {@code minFieldCount} fields set. The elements of large repeated and map fields
+   * (again, at least {@code minFieldCount} of them) are likewise diffed concurrently. Nested
+   * submessages are diffed on the same thread as their parent field.
+   *
+   * <p>This is purely a performance setting, meant for very large protos: it has no effect on the
+   * outcome of the test or on the failure message.
+   *
+   * @throws IllegalArgumentException if {@code minFieldCount} is not positive
+   */
+  ProtoFluentAssertion comparingFieldsInParallel(ForkJoinPool pool, int minFieldCount);
+
   /**
    * Compares the subject of the assertion to {@code expected}, using all of the rules specified by
    * earlier operations. If no settings are changed, this invokes the default {@code equals}
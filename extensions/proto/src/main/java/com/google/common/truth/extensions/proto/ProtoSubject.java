@@ -16,6 +16,7 @@
 
 package com.google.common.truth.extensions.proto;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.Lists.asList;
 import static com.google.common.truth.extensions.proto.FieldScopeUtil.asList;
@@ -26,6 +27,7 @@ import com.google.common.truth.Subject;
 import com.google.protobuf.Descriptors.FieldDescriptor;
 import com.google.protobuf.Message;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -140,6 +142,13 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
     return usingConfig(config.reportingMismatchesOnly());
   }
 
+  @Override
+  public ProtoFluentAssertion comparingFieldsInParallel(ForkJoinPool pool, int minFieldCount) {
+    checkArgument(minFieldCount > 0, "minFieldCount (%s) must be positive", minFieldCount);
+    return usingConfig(
+        config.comparingFieldsInParallel(checkNotNull(pool, "pool"), minFieldCount));
+  }
+
   private static boolean notMessagesWithSameDescriptor(
       @NullableDecl Message actual, @NullableDecl Object expected) {
     if (actual != null && expected instanceof Message) {
@@ -152,6 +161,9 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
   public void isEqualTo(@NullableDecl Object expected) {
     if (notMessagesWithSameDescriptor(actual(), expected)) {
       super.isEqualTo(expected);
+    } else if (isExactlyEqual((Message) expected)) {
+      // Equal messages always match, so there's nothing to report.
+      return;
     } else {
       DiffResult diffResult =
           makeDifferencer((Message) expected).diffMessages(actual(), (Message) expected);
@@ -171,6 +183,8 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
   boolean testIsEqualTo(@NullableDecl Object expected) {
     if (notMessagesWithSameDescriptor(actual(), expected)) {
       return Objects.equal(actual(), expected);
+    } else if (isExactlyEqual((Message) expected)) {
+      return true;
     } else {
       return makeDifferencer((Message) expected)
           .diffMessages(actual(), (Message) expected)
@@ -203,6 +217,12 @@ public class ProtoSubject<S extends ProtoSubject<S, M>, M extends Message>
     }
   }
 
+  // Message.equals() is much cheaper than running the differencer, so try it first when it's
+  // conclusive. A failed equals() proves nothing under a lenient config, so we still diff then.
+  private boolean isExactlyEqual(Message expected) {
+    return config.isEqualsSufficientForMatch() && actual().equals(expected);
+  }
+
   private ProtoTruthMessageDifferencer makeDifferencer(Message expected) {
     return config
         .withExpectedMessages(Arrays.asList(expected))
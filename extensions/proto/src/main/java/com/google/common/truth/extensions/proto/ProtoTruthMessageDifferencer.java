@@ -38,6 +38,7 @@ import com.google.protobuf.TextFormat;
 import com.google.protobuf.UnknownFieldSet;
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
@@ -45,6 +46,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 /**
@@ -146,88 +150,41 @@ final class ProtoTruthMessageDifferencer {
         actual.getDescriptorForType(),
         expected.getDescriptorForType());
 
-    return diffMessages(actual, expected, config.fieldScopeLogic());
+    return diffMessages(
+        actual, expected, config.fieldScopeLogic(), config.parallelFieldDiffPool().orNull());
   }
 
   private DiffResult diffMessages(
       Message actual, Message expected, FieldScopeLogic fieldScopeLogic) {
+    return diffMessages(actual, expected, fieldScopeLogic, /* pool = */ null);
+  }
+
+  // If 'pool' is non-null, the fields of this message, and the elements of its repeated and map
+  // fields, are diffed on it when there are enough of them. Submessages are always diffed serially,
+  // since the top level already provides enough parallelism to keep the pool busy.
+  private DiffResult diffMessages(
+      final Message actual,
+      final Message expected,
+      final FieldScopeLogic fieldScopeLogic,
+      @NullableDecl final ForkJoinPool pool) {
     DiffResult.Builder builder = DiffResult.newBuilder().setActual(actual).setExpected(expected);
 
     // Compare known fields.
-    Map<FieldDescriptor, Object> actualFields = actual.getAllFields();
-    Map<FieldDescriptor, Object> expectedFields = expected.getAllFields();
-    for (FieldDescriptor fieldDescriptor :
-        Sets.union(actualFields.keySet(), expectedFields.keySet())) {
-      // Check if we should ignore this field.  If ShouldIgnore.MAYBE, proceed anyway, but the field
-      // will be considered ignored in the final diff report if no sub-fields get compared (i.e.,
-      // the sub-DiffResult winds up empty). This allows us support FieldScopeLogic disjunctions
-      // without repeating recursive work.
-      FieldDescriptorOrUnknown fieldDescriptorOrUnknown =
-          FieldDescriptorOrUnknown.fromFieldDescriptor(fieldDescriptor);
-      ShouldIgnore shouldIgnore =
-          fieldScopeLogic.shouldIgnore(rootDescriptor, fieldDescriptorOrUnknown);
-      if (shouldIgnore == ShouldIgnore.YES) {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
-        continue;
-      }
-
-      if (fieldDescriptor.isRepeated()) {
-        if (fieldDescriptor.isMapField()) {
-          Map<Object, Object> actualMap = toProtoMap(actualFields.get(fieldDescriptor));
-          Map<Object, Object> expectedMap = toProtoMap(expectedFields.get(fieldDescriptor));
-
-          ImmutableSet<Object> keyOrder =
-              Sets.union(actualMap.keySet(), expectedMap.keySet()).immutableCopy();
-          builder.addAllSingularFields(
-              fieldDescriptor.getNumber(),
-              compareMapFieldsByKey(
-                  actualMap, expectedMap, keyOrder, fieldDescriptor, fieldScopeLogic));
-        } else {
-          List<?> actualList = toProtoList(actualFields.get(fieldDescriptor));
-          List<?> expectedList = toProtoList(expectedFields.get(fieldDescriptor));
-
-          if (config.ignoreRepeatedFieldOrder()) {
-            builder.addRepeatedField(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldIgnoringOrder(
-                    actualList,
-                    expectedList,
-                    shouldIgnore.shouldMaybeIgnore(),
-                    fieldDescriptor,
-                    fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-          } else if (config.ignoreExtraRepeatedFieldElements() && !expectedList.isEmpty()) {
-            builder.addRepeatedField(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldExpectingSubsequence(
-                    actualList,
-                    expectedList,
-                    shouldIgnore.shouldMaybeIgnore(),
-                    fieldDescriptor,
-                    fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-          } else {
-            builder.addAllSingularFields(
-                fieldDescriptor.getNumber(),
-                compareRepeatedFieldByIndices(
-                    actualList,
-                    expectedList,
-                    shouldIgnore.shouldMaybeIgnore(),
-                    fieldDescriptor,
-                    fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-          }
-        }
-      } else {
-        builder.addSingularField(
-            fieldDescriptor.getNumber(),
-            compareSingularValue(
-                actualFields.get(fieldDescriptor),
-                expectedFields.get(fieldDescriptor),
-                actual.getDefaultInstanceForType().getField(fieldDescriptor),
-                shouldIgnore.shouldMaybeIgnore(),
-                fieldDescriptor,
-                name(fieldDescriptor),
-                fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
-      }
+    final List<FieldDescriptor> fieldDescriptors = fieldsSetOnEither(actual, expected);
+    List<FieldDiff> fieldDiffs =
+        diffAll(
+            fieldDescriptors.size(),
+            pool,
+            new IndexedDiff<FieldDiff>() {
+              @Override
+              FieldDiff diff(int index) {
+                return diffField(
+                    fieldDescriptors.get(index), actual, expected, fieldScopeLogic, pool);
+              }
+            });
+    // Added in a fixed order, so the result is the same no matter how the diffs were computed.
+    for (FieldDiff fieldDiff : fieldDiffs) {
+      fieldDiff.addTo(builder);
     }
 
     // Compare unknown fields.
@@ -240,6 +197,130 @@ final class ProtoTruthMessageDifferencer {
     return builder.build();
   }
 
+  private FieldDiff diffField(
+      FieldDescriptor fieldDescriptor,
+      Message actual,
+      Message expected,
+      FieldScopeLogic fieldScopeLogic,
+      @NullableDecl ForkJoinPool pool) {
+    // Check if we should ignore this field.  If ShouldIgnore.MAYBE, proceed anyway, but the field
+    // will be considered ignored in the final diff report if no sub-fields get compared (i.e.,
+    // the sub-DiffResult winds up empty). This allows us support FieldScopeLogic disjunctions
+    // without repeating recursive work.
+    FieldDescriptorOrUnknown fieldDescriptorOrUnknown =
+        FieldDescriptorOrUnknown.fromFieldDescriptor(fieldDescriptor);
+    ShouldIgnore shouldIgnore =
+        fieldScopeLogic.shouldIgnore(rootDescriptor, fieldDescriptorOrUnknown);
+    if (shouldIgnore == ShouldIgnore.YES) {
+      return FieldDiff.singularField(
+          fieldDescriptor.getNumber(), SingularField.ignored(name(fieldDescriptor)));
+    }
+
+    if (fieldDescriptor.isRepeated()) {
+      if (fieldDescriptor.isMapField()) {
+        Map<Object, Object> actualMap = toProtoMap(fieldValueOrNull(actual, fieldDescriptor));
+        Map<Object, Object> expectedMap = toProtoMap(fieldValueOrNull(expected, fieldDescriptor));
+
+        ImmutableSet<Object> keyOrder =
+            Sets.union(actualMap.keySet(), expectedMap.keySet()).immutableCopy();
+        return FieldDiff.singularFields(
+            fieldDescriptor.getNumber(),
+            compareMapFieldsByKey(
+                actualMap, expectedMap, keyOrder, fieldDescriptor, fieldScopeLogic, pool));
+      } else {
+        List<?> actualList = toProtoList(fieldValueOrNull(actual, fieldDescriptor));
+        List<?> expectedList = toProtoList(fieldValueOrNull(expected, fieldDescriptor));
+
+        if (config.ignoreRepeatedFieldOrder()) {
+          return FieldDiff.repeatedField(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldIgnoringOrder(
+                  actualList,
+                  expectedList,
+                  shouldIgnore.shouldMaybeIgnore(),
+                  fieldDescriptor,
+                  fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
+        } else if (config.ignoreExtraRepeatedFieldElements() && !expectedList.isEmpty()) {
+          return FieldDiff.repeatedField(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldExpectingSubsequence(
+                  actualList,
+                  expectedList,
+                  shouldIgnore.shouldMaybeIgnore(),
+                  fieldDescriptor,
+                  fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
+        } else {
+          return FieldDiff.singularFields(
+              fieldDescriptor.getNumber(),
+              compareRepeatedFieldByIndices(
+                  actualList,
+                  expectedList,
+                  shouldIgnore.shouldMaybeIgnore(),
+                  fieldDescriptor,
+                  fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown),
+                  pool));
+        }
+      }
+    } else {
+      return FieldDiff.singularField(
+          fieldDescriptor.getNumber(),
+          compareSingularValue(
+              fieldValueOrNull(actual, fieldDescriptor),
+              fieldValueOrNull(expected, fieldDescriptor),
+              actual.getDefaultInstanceForType().getField(fieldDescriptor),
+              shouldIgnore.shouldMaybeIgnore(),
+              fieldDescriptor,
+              name(fieldDescriptor),
+              fieldScopeLogic.subLogic(rootDescriptor, fieldDescriptorOrUnknown)));
+    }
+  }
+
+  // Returns the fields which are set on either message, as getAllFields() would report them, but
+  // without building (and boxing into) a sorted map of each message's fields. Fields are returned
+  // in declaration order, followed by extensions.
+  private static List<FieldDescriptor> fieldsSetOnEither(Message actual, Message expected) {
+    Descriptor descriptor = actual.getDescriptorForType();
+    List<FieldDescriptor> fields = descriptor.getFields();
+    List<FieldDescriptor> setFields = new ArrayList<>(fields.size());
+    for (FieldDescriptor fieldDescriptor : fields) {
+      if (isFieldSet(actual, fieldDescriptor) || isFieldSet(expected, fieldDescriptor)) {
+        setFields.add(fieldDescriptor);
+      }
+    }
+
+    // The Message API offers no way to enumerate the extensions which are set other than
+    // getAllFields(), so we only pay for it on messages which can have extensions.
+    if (descriptor.isExtendable()) {
+      Set<FieldDescriptor> extensions = new LinkedHashSet<>();
+      addExtensions(actual, extensions);
+      addExtensions(expected, extensions);
+      setFields.addAll(extensions);
+    }
+    return setFields;
+  }
+
+  private static void addExtensions(Message message, Set<FieldDescriptor> extensions) {
+    for (FieldDescriptor fieldDescriptor : message.getAllFields().keySet()) {
+      if (fieldDescriptor.isExtension()) {
+        extensions.add(fieldDescriptor);
+      }
+    }
+  }
+
+  // Matches the criteria getAllFields() uses: non-empty for repeated fields, hasField() otherwise.
+  private static boolean isFieldSet(Message message, FieldDescriptor fieldDescriptor) {
+    return fieldDescriptor.isRepeated()
+        ? message.getRepeatedFieldCount(fieldDescriptor) > 0
+        : message.hasField(fieldDescriptor);
+  }
+
+  // Returns the value of the field, or null if it's not set.  Equivalent to
+  // 'message.getAllFields().get(fieldDescriptor)'.
+  @NullableDecl
+  private static Object fieldValueOrNull(Message message, FieldDescriptor fieldDescriptor) {
+    return isFieldSet(message, fieldDescriptor) ? message.getField(fieldDescriptor) : null;
+  }
+
   // Helper which takes a proto map in List<Message> form, and converts it to a Map<Object, Object>
   // by extracting the keys and values from the generated map-entry submessages.  Returns an empty
   // map if null is passed in.
@@ -252,9 +333,9 @@ final class ProtoTruthMessageDifferencer {
     Map<Object, Object> retVal = Maps.newHashMap();
     for (Object entry : entryMessages) {
       Message message = (Message) entry;
-      Object key = message.getAllFields().get(message.getDescriptorForType().findFieldByNumber(1));
+      Object key = fieldValueOrNull(message, message.getDescriptorForType().findFieldByNumber(1));
       Object value =
-          message.getAllFields().get(message.getDescriptorForType().findFieldByNumber(2));
+          fieldValueOrNull(message, message.getDescriptorForType().findFieldByNumber(2));
       retVal.put(key, value);
     }
     return retVal;
@@ -270,49 +351,55 @@ final class ProtoTruthMessageDifferencer {
   }
 
   private List<SingularField> compareMapFieldsByKey(
-      Map<Object, Object> actualMap,
-      Map<Object, Object> expectedMap,
-      Set<Object> keyOrder,
-      FieldDescriptor mapFieldDescriptor,
-      FieldScopeLogic mapFieldScopeLogic) {
-    FieldDescriptor keyFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(1);
-    FieldDescriptor valueFieldDescriptor = mapFieldDescriptor.getMessageType().findFieldByNumber(2);
+      final Map<Object, Object> actualMap,
+      final Map<Object, Object> expectedMap,
+      ImmutableSet<Object> keyOrder,
+      final FieldDescriptor mapFieldDescriptor,
+      FieldScopeLogic mapFieldScopeLogic,
+      @NullableDecl ForkJoinPool pool) {
+    final FieldDescriptor keyFieldDescriptor =
+        mapFieldDescriptor.getMessageType().findFieldByNumber(1);
+    final FieldDescriptor valueFieldDescriptor =
+        mapFieldDescriptor.getMessageType().findFieldByNumber(2);
     FieldDescriptorOrUnknown valueFieldDescriptorOrUnknown =
         FieldDescriptorOrUnknown.fromFieldDescriptor(valueFieldDescriptor);
-    FieldScopeLogic valueFieldScopeLogic =
+    final FieldScopeLogic valueFieldScopeLogic =
         mapFieldScopeLogic.subLogic(rootDescriptor, valueFieldDescriptorOrUnknown);
 
     // We never ignore the key, no matter what the logic dictates.
-    ShouldIgnore shouldIgnoreValue =
+    final ShouldIgnore shouldIgnoreValue =
         valueFieldScopeLogic.shouldIgnore(rootDescriptor, valueFieldDescriptorOrUnknown);
     if (shouldIgnoreValue == ShouldIgnore.YES) {
       return ImmutableList.of(SingularField.ignored(name(mapFieldDescriptor)));
     }
 
-    ImmutableList.Builder<SingularField> builder =
-        ImmutableList.builderWithExpectedSize(keyOrder.size());
-    for (Object key : keyOrder) {
-      @NullableDecl Object actualValue = actualMap.get(key);
-      @NullableDecl Object expectedValue = expectedMap.get(key);
-      if (config.ignoreExtraRepeatedFieldElements()
-          && !expectedMap.isEmpty()
-          && expectedValue == null) {
-        builder.add(
-            SingularField.ignored(indexedName(mapFieldDescriptor, key, keyFieldDescriptor)));
-      } else {
-        builder.add(
-            compareSingularValue(
-                actualValue,
-                expectedValue,
-                /*defaultValue=*/ null,
-                shouldIgnoreValue.shouldMaybeIgnore(),
-                valueFieldDescriptor,
-                indexedName(mapFieldDescriptor, key, keyFieldDescriptor),
-                valueFieldScopeLogic));
-      }
-    }
-
-    return builder.build();
+    final ImmutableList<Object> keys = keyOrder.asList();
+    return diffAll(
+        keys.size(),
+        pool,
+        new IndexedDiff<SingularField>() {
+          @Override
+          SingularField diff(int index) {
+            Object key = keys.get(index);
+            @NullableDecl Object actualValue = actualMap.get(key);
+            @NullableDecl Object expectedValue = expectedMap.get(key);
+            if (config.ignoreExtraRepeatedFieldElements()
+                && !expectedMap.isEmpty()
+                && expectedValue == null) {
+              return SingularField.ignored(
+                  indexedName(mapFieldDescriptor, key, keyFieldDescriptor));
+            } else {
+              return compareSingularValue(
+                  actualValue,
+                  expectedValue,
+                  /*defaultValue=*/ null,
+                  shouldIgnoreValue.shouldMaybeIgnore(),
+                  valueFieldDescriptor,
+                  indexedName(mapFieldDescriptor, key, keyFieldDescriptor),
+                  valueFieldScopeLogic);
+            }
+          }
+        });
   }
 
   private RepeatedField compareRepeatedFieldIgnoringOrder(
@@ -556,28 +643,31 @@ final class ProtoTruthMessageDifferencer {
    * @return A list in index order, containing the diff results for each message.
    */
   private List<SingularField> compareRepeatedFieldByIndices(
-      List<?> actualList,
-      List<?> expectedList,
-      boolean shouldMaybeIgnore,
-      FieldDescriptor fieldDescriptor,
-      FieldScopeLogic fieldScopeLogic) {
+      final List<?> actualList,
+      final List<?> expectedList,
+      final boolean shouldMaybeIgnore,
+      final FieldDescriptor fieldDescriptor,
+      final FieldScopeLogic fieldScopeLogic,
+      @NullableDecl ForkJoinPool pool) {
     int maxSize = Math.max(actualList.size(), expectedList.size());
-    ImmutableList.Builder<SingularField> builder = ImmutableList.builderWithExpectedSize(maxSize);
-    for (int i = 0; i < maxSize; i++) {
-      @NullableDecl Object actual = actualList.size() > i ? actualList.get(i) : null;
-      @NullableDecl Object expected = expectedList.size() > i ? expectedList.get(i) : null;
-      builder.add(
-          compareSingularValue(
-              actual,
-              expected,
-              /*defaultValue=*/ null,
-              shouldMaybeIgnore,
-              fieldDescriptor,
-              indexedName(fieldDescriptor, i),
-              fieldScopeLogic));
-    }
-
-    return builder.build();
+    return diffAll(
+        maxSize,
+        pool,
+        new IndexedDiff<SingularField>() {
+          @Override
+          SingularField diff(int i) {
+            @NullableDecl Object actual = actualList.size() > i ? actualList.get(i) : null;
+            @NullableDecl Object expected = expectedList.size() > i ? expectedList.get(i) : null;
+            return compareSingularValue(
+                actual,
+                expected,
+                /*defaultValue=*/ null,
+                shouldMaybeIgnore,
+                fieldDescriptor,
+                indexedName(fieldDescriptor, i),
+                fieldScopeLogic);
+          }
+        });
   }
 
   private SingularField compareSingularValue(
@@ -886,6 +976,113 @@ final class ProtoTruthMessageDifferencer {
     return singularFieldBuilder.build();
   }
 
+  /** A diff computation over an index range, which may be split up across a ForkJoinPool. */
+  private abstract static class IndexedDiff<T> {
+    abstract T diff(int index);
+  }
+
+  /**
+   * Returns {@code indexedDiff.diff(i)} for each {@code i} in {@code [0, count)}, in order.
+   *
+   * <p>The diffs are computed on {@code pool} if it's non-null and there are at least {@link
+   * FluentEqualityConfig#parallelFieldDiffThreshold()} of them, and serially otherwise.
+   */
+  private <T> ImmutableList<T> diffAll(
+      int count, @NullableDecl ForkJoinPool pool, IndexedDiff<T> indexedDiff) {
+    Object[] results = new Object[count];
+    if (pool == null || count < config.parallelFieldDiffThreshold()) {
+      for (int i = 0; i < count; i++) {
+        results[i] = indexedDiff.diff(i);
+      }
+    } else {
+      invokeOn(pool, new DiffTask(indexedDiff, results, 0, count));
+    }
+
+    @SuppressWarnings("unchecked") // every element was produced by indexedDiff
+    ImmutableList<T> resultList = (ImmutableList<T>) ImmutableList.copyOf(results);
+    return resultList;
+  }
+
+  /**
+   * Runs {@code task} on {@code pool}. If the current thread is already one of the pool's workers
+   * (e.g., diffing the elements of a top-level repeated field), the task is forked from here;
+   * otherwise it is submitted to the pool, even if the current thread belongs to some other pool.
+   */
+  static void invokeOn(ForkJoinPool pool, ForkJoinTask<?> task) {
+    if (ForkJoinTask.getPool() == pool) {
+      task.invoke();
+    } else {
+      pool.invoke(task);
+    }
+  }
+
+  /** Computes an {@link IndexedDiff} over {@code [from, to)}, splitting the range in halves. */
+  private static final class DiffTask extends RecursiveAction {
+    private final IndexedDiff<?> indexedDiff;
+    private final Object[] results;
+    private final int from;
+    private final int to;
+
+    DiffTask(IndexedDiff<?> indexedDiff, Object[] results, int from, int to) {
+      this.indexedDiff = indexedDiff;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= 1) {
+        for (int i = from; i < to; i++) {
+          results[i] = indexedDiff.diff(i);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new DiffTask(indexedDiff, results, from, mid),
+          new DiffTask(indexedDiff, results, mid, to));
+    }
+  }
+
+  /**
+   * The diff of a single known field of a message, waiting to be added to the message's {@link
+   * DiffResult.Builder}.
+   */
+  private static final class FieldDiff {
+    static FieldDiff singularField(int fieldNumber, SingularField singularField) {
+      return new FieldDiff(fieldNumber, ImmutableList.of(singularField), null);
+    }
+
+    static FieldDiff singularFields(int fieldNumber, List<SingularField> singularFields) {
+      return new FieldDiff(fieldNumber, singularFields, null);
+    }
+
+    static FieldDiff repeatedField(int fieldNumber, RepeatedField repeatedField) {
+      return new FieldDiff(fieldNumber, ImmutableList.<SingularField>of(), repeatedField);
+    }
+
+    private final int fieldNumber;
+    private final List<SingularField> singularFields;
+    @NullableDecl private final RepeatedField repeatedField;
+
+    private FieldDiff(
+        int fieldNumber,
+        List<SingularField> singularFields,
+        @NullableDecl RepeatedField repeatedField) {
+      this.fieldNumber = fieldNumber;
+      this.singularFields = singularFields;
+      this.repeatedField = repeatedField;
+    }
+
+    void addTo(DiffResult.Builder builder) {
+      builder.addAllSingularFields(fieldNumber, singularFields);
+      if (repeatedField != null) {
+        builder.addRepeatedField(fieldNumber, repeatedField);
+      }
+    }
+  }
+
   private static String name(FieldDescriptor fieldDescriptor) {
     return fieldDescriptor.isExtension() ? "[" + fieldDescriptor + "]" : fieldDescriptor.getName();
   }
@@ -98,21 +98,20 @@ abstract class RecursableDiffEntity {
   }
 
   /**
-   * Prints the contents of this diff entity to {@code sb}.
+   * Prints the contents of this diff entity to {@code printer}.
    *
    * @param includeMatches Whether to include reports for fields which matched.
-   * @param fieldPrefix The human-readable field path leading to this entity. Empty if this is the
-   *     root entity.
-   * @param sb Builder to print the text to.
+   * @param printer Printer to print the text to. Its field path holds the human-readable field path
+   *     leading to this entity, which is empty if this is the root entity.
    */
-  abstract void printContents(boolean includeMatches, String fieldPrefix, StringBuilder sb);
+  abstract void printContents(boolean includeMatches, DiffPrinter printer);
 
   /** Returns true if this entity has no contents to print, with or without includeMatches. */
   abstract boolean isContentEmpty();
 
-  final void printChildContents(boolean includeMatches, String fieldPrefix, StringBuilder sb) {
+  final void printChildContents(boolean includeMatches, DiffPrinter printer) {
     for (RecursableDiffEntity entity : childEntities()) {
-      entity.printContents(includeMatches, fieldPrefix, sb);
+      entity.printContents(includeMatches, printer);
     }
   }
 
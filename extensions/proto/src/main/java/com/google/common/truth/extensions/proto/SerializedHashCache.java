@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Message;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Caches a hash of the deterministic serialization of each {@link Message} it's asked about.
+ *
+ * <p>Messages with different hashes have different serializations, and so are practically never
+ * {@code equals()} (the exception being NaN fields with different bit patterns). This lets a {@link
+ * com.google.common.truth.Correspondence} which compares every actual message against every
+ * expected one cheaply rule out the exact-equality fast path for most pairs, paying for each
+ * message's serialization only once. Pairs which are ruled out still go through the full
+ * differencer, so an occasional false negative costs time, not correctness.
+ *
+ * <p>Entries are keyed by identity, and weakly, so the cache never holds on to messages, and is
+ * safe to share across threads.
+ */
+final class SerializedHashCache {
+  private final LoadingCache<Message, Integer> hashes =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              new CacheLoader<Message, Integer>() {
+                @Override
+                public Integer load(Message message) {
+                  return serializedHash(message);
+                }
+              });
+
+  /**
+   * Returns false if {@code actual} and {@code expected} have different serializations, and true if
+   * they might be {@code equals()}.
+   */
+  boolean mightBeEqual(Message actual, Message expected) {
+    return actual == expected || hashes.getUnchecked(actual).equals(hashes.getUnchecked(expected));
+  }
+
+  /** Hashes the deterministic serialization of {@code message}, without materializing it. */
+  static int serializedHash(Message message) {
+    HashingOutputStream hashingStream = new HashingOutputStream();
+    CodedOutputStream codedStream =
+        CodedOutputStream.newInstance(hashingStream, Math.min(message.getSerializedSize(), 4096));
+    codedStream.useDeterministicSerialization();
+    try {
+      message.writeTo(codedStream);
+      codedStream.flush();
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return hashingStream.hash;
+  }
+
+  /** Computes the same hash as {@link java.util.Arrays#hashCode(byte[])} over the bytes written. */
+  private static final class HashingOutputStream extends OutputStream {
+    private int hash = 1;
+
+    @Override
+    public void write(int b) {
+      hash = 31 * hash + (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+      int h = hash;
+      for (int i = offset; i < offset + length; i++) {
+        h = 31 * h + bytes[i];
+      }
+      hash = h;
+    }
+  }
+}
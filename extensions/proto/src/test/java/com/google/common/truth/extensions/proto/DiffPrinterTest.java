@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import java.io.IOException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link DiffPrinter}, as driven by {@link DiffResult#printTo}. */
+@RunWith(JUnit4.class)
+public class DiffPrinterTest {
+  private static final int FIELD_COUNT = 20;
+
+  private final DiffResult diffResult = diff();
+
+  @Test
+  public void testUnlimited_matchesPrintToString() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    diffResult.printTo(
+        sb, /* reportMismatchesOnly = */ false, DiffPrinter.UNLIMITED, DiffPrinter.UNLIMITED);
+
+    assertThat(sb.toString()).isEqualTo(diffResult.printToString(false));
+    assertThat(sb.toString()).contains("modified: field[19].name: \"g19\" -> \"f19\"\n");
+    assertThat(sb.toString()).doesNotContain("report truncated");
+  }
+
+  @Test
+  public void testLineBudget() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    diffResult.printTo(sb, /* reportMismatchesOnly = */ false, 5, DiffPrinter.UNLIMITED);
+
+    // Of the 22 differences (name, each field's name, and the added nested type), two were shown.
+    assertThat(sb.toString())
+        .isEqualTo(
+            "Differences were found:\n"
+                + "modified: name: \"E\" -> \"A\"\n"
+                + "modified: field[0]\n"
+                + "modified: field[0].name: \"g0\" -> \"f0\"\n"
+                + "modified: field[1]\n"
+                + "\n... (report truncated after 5 lines / 127 characters; "
+                + "20 further differences not shown)\n");
+  }
+
+  @Test
+  public void testCharBudget_cutsOffLargeMessage() throws IOException {
+    StringBuilder full = new StringBuilder();
+    diffResult.printTo(
+        full, /* reportMismatchesOnly = */ true, DiffPrinter.UNLIMITED, DiffPrinter.UNLIMITED);
+    int maxChars = full.length() - 100;
+
+    StringBuilder sb = new StringBuilder();
+    diffResult.printTo(sb, /* reportMismatchesOnly = */ true, DiffPrinter.UNLIMITED, maxChars);
+
+    assertThat(sb.toString()).startsWith(full.substring(0, maxChars));
+    // The nested type is the last difference, and was started, so nothing was omitted entirely.
+    assertThat(sb.substring(maxChars))
+        .matches(
+            "\n\\.\\.\\. \\(report truncated after \\d+ lines / "
+                + maxChars
+                + " characters\\)\n");
+  }
+
+  @Test
+  public void testFieldPathRestoredAfterRecursion() throws IOException {
+    StringBuilder sb = new StringBuilder();
+    diffResult.printTo(
+        sb, /* reportMismatchesOnly = */ true, DiffPrinter.UNLIMITED, DiffPrinter.UNLIMITED);
+
+    assertThat(sb.toString()).contains("\nadded: nested_type[0]: \nname: \"big\"\n");
+  }
+
+  private static DiffResult diff() {
+    DescriptorProto.Builder actual = DescriptorProto.newBuilder().setName("A");
+    DescriptorProto.Builder expected = DescriptorProto.newBuilder().setName("E");
+    for (int i = 0; i < FIELD_COUNT; i++) {
+      actual.addField(FieldDescriptorProto.newBuilder().setName("f" + i).setNumber(i));
+      expected.addField(FieldDescriptorProto.newBuilder().setName("g" + i).setNumber(i));
+    }
+    DescriptorProto.Builder big = actual.addNestedTypeBuilder().setName("big");
+    for (int i = 0; i < 100; i++) {
+      big.addReservedName("reserved" + i);
+    }
+
+    return ProtoTruthMessageDifferencer.create(
+            FluentEqualityConfig.defaultInstance(), DescriptorProto.getDescriptor())
+        .diffMessages(actual.build(), expected.build());
+  }
+}
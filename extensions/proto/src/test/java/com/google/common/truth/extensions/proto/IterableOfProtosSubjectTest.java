@@ -20,6 +20,7 @@ import com.google.common.base.Function;
 import com.google.protobuf.Message;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -453,6 +454,37 @@ public class IterableOfProtosSubjectTest extends ProtoSubjectTestBase {
                 + ".isEqualTo(target)");
   }
 
+  @Test
+  public void testFluent_comparingInParallel() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      expectThat(listOf(message1, message2))
+          .ignoringFields(ignoreFieldNumber)
+          .comparingInParallel(pool)
+          .containsExactly(eqIgnoredMessage2, eqIgnoredMessage1);
+      expectThat(listOf(message1, message2))
+          .comparingInParallel(pool)
+          .ignoringRepeatedFieldOrder()
+          .containsExactlyElementsIn(listOf(eqRepeatedMessage1, eqRepeatedMessage2))
+          .inOrder();
+
+      // The failure message must not depend on whether comparisons ran in parallel.
+      expectFailureWhenTesting()
+          .that(listOf(message1, message2))
+          .ignoringRepeatedFieldOrder()
+          .containsExactly(eqMessage2, eqIgnoredMessage1);
+      String serialMessage = multiExpectFailure.getFailure().getMessage();
+      expectFailureWhenTesting()
+          .that(listOf(message1, message2))
+          .ignoringRepeatedFieldOrder()
+          .comparingInParallel(pool)
+          .containsExactly(eqMessage2, eqIgnoredMessage1);
+      expectThatFailure().hasMessageThat().isEqualTo(serialMessage);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testFormatDiff() {
     expectFailureWhenTesting()
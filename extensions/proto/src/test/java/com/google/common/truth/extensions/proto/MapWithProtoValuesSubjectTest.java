@@ -19,6 +19,7 @@ package com.google.common.truth.extensions.proto;
 import com.google.common.collect.ImmutableMap;
 import com.google.protobuf.Message;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -228,6 +229,34 @@ public class MapWithProtoValuesSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().isNotNull();
   }
 
+  @Test
+  public void testFluent_comparingInParallel() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      expectThat(mapOf(1, message1, 2, message2))
+          .ignoringFieldsForValues(ignoreFieldNumber)
+          .comparingInParallelForValues(pool)
+          .containsExactlyEntriesIn(mapOf(2, eqIgnoredMessage2, 1, eqIgnoredMessage1));
+      expectThat(mapOf(1, message1, 2, message2))
+          .comparingInParallelForValues(pool)
+          .ignoringRepeatedFieldOrderForValues()
+          .containsEntry(2, eqRepeatedMessage2);
+
+      expectFailureWhenTesting()
+          .that(mapOf(1, message1, 2, message2))
+          .ignoringRepeatedFieldOrderForValues()
+          .comparingInParallelForValues(pool)
+          .containsExactly(1, eqRepeatedMessage1, 2, eqIgnoredMessage2);
+      expectThatFailure()
+          .hasMessageThat()
+          .contains(
+              "is equivalent according to "
+                  + "assertThat(proto).ignoringRepeatedFieldOrder().isEqualTo(target)");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testCompareMultipleMessageTypes() {
     // Don't run this test twice.
@@ -20,6 +20,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.protobuf.Message;
 import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -291,6 +292,30 @@ public class MultimapWithProtoValuesSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().isNotNull();
   }
 
+  @Test
+  public void testFluent_comparingInParallel() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      expectThat(multimapOf(1, message1, 1, message2, 2, message1))
+          .ignoringFieldsForValues(ignoreFieldNumber)
+          .comparingInParallelForValues(pool)
+          .containsExactlyEntriesIn(
+              multimapOf(1, eqIgnoredMessage2, 2, eqIgnoredMessage1, 1, eqIgnoredMessage1));
+      expectThat(multimapOf(1, message1, 1, message2))
+          .comparingInParallelForValues(pool)
+          .containsEntry(1, eqMessage2);
+
+      expectFailureWhenTesting()
+          .that(multimapOf(1, message1, 2, message2))
+          .comparingInParallelForValues(pool)
+          .ignoringFieldsForValues(ignoreFieldNumber)
+          .containsExactly(1, eqIgnoredMessage2, 2, eqIgnoredMessage1);
+      expectThatFailure().isNotNull();
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testCompareMultipleMessageTypes() {
     // Don't run this test twice.
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.truth.Correspondence;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ParallelCorrespondence}. */
+@RunWith(JUnit4.class)
+public class ParallelCorrespondenceTest {
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+  private final CountingCorrespondence counting = new CountingCorrespondence();
+
+  @After
+  public void shutDownPool() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void testForAllPairs_inOrderComparesOnlyInOrderPairs() {
+    List<String> actual = strings(0, 200);
+    List<String> expected = strings(0, 200);
+    Correspondence<String, String> correspondence =
+        ParallelCorrespondence.forAllPairs(counting, pool, actual, expected);
+    assertThat(counting.count.get()).isEqualTo(200);
+
+    assertThat(actual)
+        .comparingElementsUsing(correspondence)
+        .containsExactlyElementsIn(expected)
+        .inOrder();
+    assertThat(counting.count.get()).isEqualTo(200);
+  }
+
+  @Test
+  public void testForAllPairs_crossProductStartsAtFirstMismatch() {
+    List<String> actual = strings(0, 100);
+    List<String> expected = strings(0, 100);
+    Collections.swap(expected, 90, 99);
+    ParallelCorrespondence.forAllPairs(counting, pool, actual, expected);
+    // The in-order pairs, then the 10x10 cross-product of the rest, less its in-order pairs.
+    assertThat(counting.count.get()).isEqualTo(100 + 10 * 10 - 10);
+  }
+
+  @Test
+  public void testForAllPairs_sameOutcomeAsSerial() {
+    List<String> actual = strings(0, 50);
+    List<String> expected = strings(0, 50);
+    Collections.reverse(expected);
+    assertThat(actual)
+        .comparingElementsUsing(
+            ParallelCorrespondence.forAllPairs(counting, pool, actual, expected))
+        .containsExactlyElementsIn(expected);
+
+    List<String> other = strings(1, 51);
+    String serialMessage = failureMessage(actual, other, counting);
+    assertThat(
+            failureMessage(
+                actual, other, ParallelCorrespondence.forAllPairs(counting, pool, actual, other)))
+        .isEqualTo(serialMessage);
+  }
+
+  @Test
+  public void testForAllPairs_singleExpected() {
+    List<String> actual = strings(0, 100);
+    List<String> expected = strings(99, 100);
+    Correspondence<String, String> correspondence =
+        ParallelCorrespondence.forAllPairs(counting, pool, actual, expected);
+    assertThat(counting.count.get()).isEqualTo(100);
+    assertThat(actual).comparingElementsUsing(correspondence).contains(expected.get(0));
+    assertThat(counting.count.get()).isEqualTo(100);
+  }
+
+  private static String failureMessage(
+      List<String> actual, List<String> expected, Correspondence<String, String> correspondence) {
+    try {
+      assertThat(actual).comparingElementsUsing(correspondence).containsExactlyElementsIn(expected);
+    } catch (AssertionError e) {
+      return e.getMessage();
+    }
+    fail("Expected a failure");
+    return null;
+  }
+
+  /** Returns new strings for the numbers in {@code [from, to)}, so that none are interned. */
+  private static List<String> strings(int from, int to) {
+    List<String> strings = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      strings.add(new String(Integer.toString(i)));
+    }
+    return strings;
+  }
+
+  /** Tests for equality, counting the comparisons. */
+  private static final class CountingCorrespondence extends Correspondence<String, String> {
+    final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public boolean compare(String actual, String expected) {
+      count.incrementAndGet();
+      return actual.equals(expected);
+    }
+
+    @Override
+    public String toString() {
+      return "is equal to";
+    }
+  }
+}
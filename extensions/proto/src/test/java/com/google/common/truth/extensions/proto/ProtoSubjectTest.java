@@ -22,6 +22,7 @@ import com.google.protobuf.Message;
 import com.google.protobuf.UnknownFieldSet;
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -383,6 +384,41 @@ public class ProtoSubjectTest extends ProtoSubjectTestBase {
     expectThatFailure().hasMessageThat().doesNotContain("bar");
   }
 
+  @Test
+  public void testComparingFieldsInParallel() {
+    Message message = parse("o_int: 3 r_string: \"foo\" r_string: \"bar\"");
+    Message diffMessage =
+        parse("o_int: 4 r_string: \"foo\" r_string: \"not_bar\" r_string: \"baz\"");
+    Message mapMessage = makeProtoMap(ImmutableMap.of("foo", 2, "bar", 3));
+    Message diffMapMessage = makeProtoMap(ImmutableMap.of("foo", 2, "bar", 4));
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      expectThat(diffMessage).comparingFieldsInParallel(pool, 1).isNotEqualTo(message);
+      expectThat(diffMapMessage).comparingFieldsInParallel(pool, 1).isNotEqualTo(mapMessage);
+      expectThat(mapMessage).comparingFieldsInParallel(pool, 1).isEqualTo(mapMessage);
+
+      // The failure message must not depend on whether fields were diffed in parallel.
+      expectFailureWhenTesting().that(diffMessage).isEqualTo(message);
+      String serialMessage = multiExpectFailure.getFailure().getMessage();
+      expectFailureWhenTesting()
+          .that(diffMessage)
+          .comparingFieldsInParallel(pool, 1)
+          .isEqualTo(message);
+      expectThatFailure().hasMessageThat().isEqualTo(serialMessage);
+
+      expectFailureWhenTesting().that(diffMapMessage).isEqualTo(mapMessage);
+      serialMessage = multiExpectFailure.getFailure().getMessage();
+      expectFailureWhenTesting()
+          .that(diffMapMessage)
+          .comparingFieldsInParallel(pool, 2)
+          .isEqualTo(mapMessage);
+      expectThatFailure().hasMessageThat().isEqualTo(serialMessage);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void testHasAllRequiredFields() {
     // Proto 3 doesn't have required fields.
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ProtoTruthMessageDifferencer}. */
+@RunWith(JUnit4.class)
+public class ProtoTruthMessageDifferencerTest {
+
+  @Test
+  public void testInvokeOn_fromOutsideAnyPool() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      PoolRecorder task = new PoolRecorder();
+      ProtoTruthMessageDifferencer.invokeOn(pool, task);
+      assertThat(task.pool).isSameAs(pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testInvokeOn_fromAnotherPool() {
+    final ForkJoinPool pool = new ForkJoinPool(2);
+    ForkJoinPool otherPool = new ForkJoinPool(2);
+    try {
+      final PoolRecorder task = new PoolRecorder();
+      otherPool.invoke(
+          new RecursiveAction() {
+            @Override
+            protected void compute() {
+              ProtoTruthMessageDifferencer.invokeOn(pool, task);
+            }
+          });
+      assertThat(task.pool).isSameAs(pool);
+    } finally {
+      pool.shutdown();
+      otherPool.shutdown();
+    }
+  }
+
+  @Test
+  public void testInvokeOn_fromTheSamePool() {
+    final ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      final PoolRecorder task = new PoolRecorder();
+      pool.invoke(
+          new RecursiveAction() {
+            @Override
+            protected void compute() {
+              ProtoTruthMessageDifferencer.invokeOn(pool, task);
+            }
+          });
+      assertThat(task.pool).isSameAs(pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /** Records the pool of the worker thread it runs on. */
+  private static final class PoolRecorder extends RecursiveAction {
+    volatile ForkJoinPool pool;
+
+    @Override
+    protected void compute() {
+      pool = ForkJoinTask.getPool();
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.common.truth.extensions.proto;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link SerializedHashCache}. */
+@RunWith(JUnit4.class)
+public class SerializedHashCacheTest {
+  private final SerializedHashCache cache = new SerializedHashCache();
+
+  @Test
+  public void testSerializedHash_matchesArraysHashCode() {
+    DescriptorProto message = message("foo", 1, 2, 3);
+
+    assertThat(SerializedHashCache.serializedHash(message))
+        .isEqualTo(Arrays.hashCode(message.toByteArray()));
+    assertThat(SerializedHashCache.serializedHash(DescriptorProto.getDefaultInstance()))
+        .isEqualTo(Arrays.hashCode(new byte[0]));
+  }
+
+  @Test
+  public void testMightBeEqual() {
+    DescriptorProto message = message("foo", 1, 2, 3);
+
+    assertThat(cache.mightBeEqual(message, message)).isTrue();
+    assertThat(cache.mightBeEqual(message, message("foo", 1, 2, 3))).isTrue();
+    assertThat(cache.mightBeEqual(message, message("foo", 1, 3, 2))).isFalse();
+    assertThat(cache.mightBeEqual(message, message("bar", 1, 2, 3))).isFalse();
+    assertThat(cache.mightBeEqual(message, DescriptorProto.getDefaultInstance())).isFalse();
+  }
+
+  private static DescriptorProto message(String name, int... fieldNumbers) {
+    DescriptorProto.Builder builder = DescriptorProto.newBuilder().setName(name);
+    for (int fieldNumber : fieldNumbers) {
+      builder.addField(
+          FieldDescriptorProto.newBuilder().setName("f" + fieldNumber).setNumber(fieldNumber));
+    }
+    return builder.build();
+  }
+}
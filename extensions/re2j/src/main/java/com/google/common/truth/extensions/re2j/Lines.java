@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.re2j;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.AbstractIterator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+/** Lazily split views of text as lines, for {@link Re2jLinesSubject}. */
+final class Lines {
+  static Iterable<CharSequence> of(final CharSequence text) {
+    checkNotNull(text);
+    return new Iterable<CharSequence>() {
+      @Override
+      public Iterator<CharSequence> iterator() {
+        return new AbstractIterator<CharSequence>() {
+          private int start = 0;
+
+          @Override
+          protected CharSequence computeNext() {
+            if (start >= text.length()) {
+              return endOfData();
+            }
+            int end = start;
+            while (end < text.length() && text.charAt(end) != '\n') {
+              end++;
+            }
+            int next = end + 1;
+            if (end > start && text.charAt(end - 1) == '\r') {
+              end--;
+            }
+            CharSequence line = text.subSequence(start, end);
+            start = next;
+            return line;
+          }
+        };
+      }
+
+      @Override
+      public String toString() {
+        return "lines of <" + text.length() + " characters>";
+      }
+    };
+  }
+
+  static Iterable<String> of(ReadableByteChannel channel, Charset charset) {
+    final BufferedReader reader =
+        new BufferedReader(Channels.newReader(checkNotNull(channel), charset.newDecoder(), -1));
+    return new Iterable<String>() {
+      private boolean iterated = false;
+
+      @Override
+      public Iterator<String> iterator() {
+        checkState(!iterated, "The lines of a channel can only be iterated over once");
+        iterated = true;
+        return new AbstractIterator<String>() {
+          @Override
+          protected String computeNext() {
+            String line;
+            try {
+              line = reader.readLine();
+            } catch (IOException e) {
+              throw new IllegalStateException("Failed to read lines", e);
+            }
+            return line == null ? endOfData() : line;
+          }
+        };
+      }
+
+      @Override
+      public String toString() {
+        return "lines of a channel";
+      }
+    };
+  }
+
+  private Lines() {}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.re2j;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Lists;
+import com.google.common.truth.FailureMetadata;
+import com.google.common.truth.Subject;
+import com.google.re2j.Pattern;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Subject for asserting that the lines of a (possibly very large) body of text match a set of
+ * {@link com.google.re2j.Pattern} regexes.
+ *
+ * <p>Each assertion compiles its regexes into a single alternation, which RE2J matches in one pass
+ * over each line, however many regexes there are. The individual regexes are only consulted for
+ * lines on which the alternation found a match, to work out which of them did. Each line is read
+ * once, so the lines may come from a one-shot source such as {@link
+ * Re2jSubjects#linesOf(java.nio.channels.ReadableByteChannel, java.nio.charset.Charset)}.
+ *
+ * <p>Failure messages report the offending regexes and the numbers (starting from 1) and contents
+ * of the first offending lines, rather than the full text.
+ *
+ * @see Re2jSubjects#re2jLines
+ */
+public final class Re2jLinesSubject
+    extends Subject<Re2jLinesSubject, Iterable<? extends CharSequence>> {
+  static final Subject.Factory<Re2jLinesSubject, Iterable<? extends CharSequence>> FACTORY =
+      new Subject.Factory<Re2jLinesSubject, Iterable<? extends CharSequence>>() {
+        @Override
+        public Re2jLinesSubject createSubject(
+            FailureMetadata failureMetadata, Iterable<? extends CharSequence> target) {
+          return new Re2jLinesSubject(failureMetadata, target);
+        }
+      };
+
+  /** The number of offending lines to show in a failure message. */
+  private static final int MAX_REPORTED_LINES = 10;
+
+  /** The number of characters of each offending line to show in a failure message. */
+  private static final int MAX_REPORTED_LINE_LENGTH = 200;
+
+  private Re2jLinesSubject(
+      FailureMetadata failureMetadata, Iterable<? extends CharSequence> subject) {
+    super(failureMetadata, subject);
+  }
+
+  /** Fails unless every line contains a match for at least one of the given regexes. */
+  public void eachLineContainsMatchForAnyOf(String firstRegex, String... restOfRegexes) {
+    eachLineContainsMatchForAnyIn(Lists.asList(firstRegex, restOfRegexes));
+  }
+
+  /** Fails unless every line contains a match for at least one of the given regexes. */
+  public void eachLineContainsMatchForAnyIn(Iterable<String> regexes) {
+    List<String> regexList = regexList(regexes);
+    Pattern any = anyOf(regexList);
+    List<String> offendingLines = new ArrayList<>();
+    long offendingLineCount = 0;
+    long lineNumber = 0;
+    for (CharSequence line : actual()) {
+      lineNumber++;
+      if (!any.matcher(line).find()) {
+        if (offendingLineCount++ < MAX_REPORTED_LINES) {
+          offendingLines.add(describeLine(lineNumber, line));
+        }
+      }
+    }
+    if (offendingLineCount > 0) {
+      failWithRawMessage(
+          "Not true that each line contains a match for any of <%s>. %s of %s lines did not:\n%s",
+          regexList,
+          offendingLineCount,
+          lineNumber,
+          describeLines(offendingLines, offendingLineCount));
+    }
+  }
+
+  /** Fails if any line contains a match for any of the given regexes. */
+  public void noLineContainsMatchForAnyOf(String firstRegex, String... restOfRegexes) {
+    noLineContainsMatchForAnyIn(Lists.asList(firstRegex, restOfRegexes));
+  }
+
+  /** Fails if any line contains a match for any of the given regexes. */
+  public void noLineContainsMatchForAnyIn(Iterable<String> regexes) {
+    List<String> regexList = regexList(regexes);
+    Pattern any = anyOf(regexList);
+    Map<String, Long> firstMatchingLines = new LinkedHashMap<>();
+    List<String> offendingLines = new ArrayList<>();
+    long offendingLineCount = 0;
+    long lineNumber = 0;
+    for (CharSequence line : actual()) {
+      lineNumber++;
+      if (any.matcher(line).find()) {
+        List<String> matched = new ArrayList<>();
+        for (String regex : regexList) {
+          if (Re2jSubjects.compile(regex).matcher(line).find()) {
+            matched.add(regex);
+            if (!firstMatchingLines.containsKey(regex)) {
+              firstMatchingLines.put(regex, lineNumber);
+            }
+          }
+        }
+        if (offendingLineCount++ < MAX_REPORTED_LINES) {
+          offendingLines.add(describeLine(lineNumber, line) + " (matched " + matched + ")");
+        }
+      }
+    }
+    if (offendingLineCount > 0) {
+      failWithRawMessage(
+          "Not true that no line contains a match for any of <%s>. First matching line for each "
+              + "regex that matched: %s. %s of %s lines matched:\n%s",
+          regexList,
+          firstMatchingLines,
+          offendingLineCount,
+          lineNumber,
+          describeLines(offendingLines, offendingLineCount));
+    }
+  }
+
+  /**
+   * Fails unless each of the given regexes has a match in some line. Stops reading lines as soon
+   * as every regex has matched.
+   */
+  public void containsMatchForEachOf(String firstRegex, String... restOfRegexes) {
+    containsMatchForEachIn(Lists.asList(firstRegex, restOfRegexes));
+  }
+
+  /**
+   * Fails unless each of the given regexes has a match in some line. Stops reading lines as soon
+   * as every regex has matched.
+   */
+  public void containsMatchForEachIn(Iterable<String> regexes) {
+    List<String> regexList = regexList(regexes);
+    List<String> unmatched = new ArrayList<>(regexList);
+    Map<String, Long> firstMatchingLines = new LinkedHashMap<>();
+    // Only the regexes which haven't matched yet are worth looking for, so the alternation is
+    // recompiled whenever one of them matches: at most once per regex.
+    Pattern anyUnmatched = anyOf(unmatched);
+    long lineNumber = 0;
+    for (CharSequence line : actual()) {
+      lineNumber++;
+      if (anyUnmatched.matcher(line).find()) {
+        for (int i = 0; i < unmatched.size(); i++) {
+          String regex = unmatched.get(i);
+          if (Re2jSubjects.compile(regex).matcher(line).find()) {
+            firstMatchingLines.put(regex, lineNumber);
+            unmatched.remove(i--);
+          }
+        }
+        if (unmatched.isEmpty()) {
+          return;
+        }
+        anyUnmatched = anyOf(unmatched);
+      }
+    }
+    failWithRawMessage(
+        "Not true that the lines contain a match for each of <%s>. No line contained a match for "
+            + "<%s>. First matching line for each regex that matched: %s (of %s lines)",
+        regexList,
+        unmatched,
+        firstMatchingLines,
+        lineNumber);
+  }
+
+  private static List<String> regexList(Iterable<String> regexes) {
+    List<String> regexList = new ArrayList<>();
+    for (String regex : regexes) {
+      regexList.add(checkNotNull(regex));
+    }
+    checkArgument(!regexList.isEmpty(), "At least one regex must be given");
+    return regexList;
+  }
+
+  /**
+   * Returns a pattern which finds a match wherever any of {@code regexes} would. Each regex is
+   * compiled on its own first, so that a syntax error is reported against the regex which has it.
+   */
+  private static Pattern anyOf(List<String> regexes) {
+    if (regexes.size() == 1) {
+      return Re2jSubjects.compile(regexes.get(0));
+    }
+    StringBuilder alternation = new StringBuilder();
+    for (String regex : regexes) {
+      Re2jSubjects.compile(regex);
+      if (alternation.length() > 0) {
+        alternation.append('|');
+      }
+      alternation.append("(?:").append(regex).append(')');
+    }
+    return Pattern.compile(alternation.toString());
+  }
+
+  private static String describeLine(long lineNumber, CharSequence line) {
+    String quoted =
+        line.length() <= MAX_REPORTED_LINE_LENGTH
+            ? "\"" + line + "\""
+            : "\"" + line.subSequence(0, MAX_REPORTED_LINE_LENGTH) + "\"...";
+    return "  line " + lineNumber + ": " + quoted;
+  }
+
+  private static String describeLines(List<String> reportedLines, long totalLines) {
+    String described = Joiner.on('\n').join(reportedLines);
+    return totalLines > reportedLines.size()
+        ? described + "\n  ... and " + (totalLines - reportedLines.size()) + " more"
+        : described;
+  }
+}
@@ -16,9 +16,14 @@
 package com.google.common.truth.extensions.re2j;
 
 import com.google.common.annotations.GwtIncompatible;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.truth.FailureMetadata;
 import com.google.common.truth.Subject;
 import com.google.re2j.Pattern;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 
 /**
  * Truth subjects for re2j regular expressions.
@@ -41,6 +46,70 @@ public final class Re2jSubjects {
     return Re2jStringSubject.FACTORY;
   }
 
+  /**
+   * Returns a subject factory for the lines of a body of text, which you can use to assert that
+   * the lines match a set of {@link com.google.re2j.Pattern} regexes, reading each line only once.
+   *
+   * <p>The lines may be given as any {@link Iterable}, including one returned by {@link
+   * #linesOf(CharSequence)} or {@link #linesOf(ReadableByteChannel, Charset)}.
+   */
+  public static Subject.Factory<Re2jLinesSubject, Iterable<? extends CharSequence>> re2jLines() {
+    return Re2jLinesSubject.FACTORY;
+  }
+
+  /**
+   * Returns the lines of {@code text}, as split by {@code \n} or {@code \r\n}. The lines are found
+   * as they are iterated over, and share {@code text}'s storage if its {@link
+   * CharSequence#subSequence} does (e.g., if it is a {@link java.nio.CharBuffer}).
+   */
+  public static Iterable<CharSequence> linesOf(CharSequence text) {
+    return Lines.of(text);
+  }
+
+  /**
+   * Returns the lines read from {@code channel}, decoded with {@code charset}, as {@link
+   * java.io.BufferedReader#readLine} would split them. The returned {@link Iterable} can be
+   * iterated over only once: it reads the channel as it goes, without holding on to earlier lines,
+   * so it is suitable for files too large to read into memory. The channel is not closed.
+   *
+   * <p>An {@link java.io.IOException} thrown while reading is rethrown as an {@link
+   * IllegalStateException}.
+   */
+  public static Iterable<String> linesOf(ReadableByteChannel channel, Charset charset) {
+    return Lines.of(channel, charset);
+  }
+
+  /**
+   * Compiled patterns for the methods which accept a regex as a {@code String}, which tests often
+   * call with the same few patterns many times.
+   */
+  private static final Cache<String, Pattern> PATTERN_CACHE =
+      CacheBuilder.newBuilder()
+          .maximumSize(
+              Long.getLong("com.google.common.truth.extensions.re2j.regex_cache_size", 1000))
+          .recordStats()
+          .build();
+
+  /**
+   * Returns statistics for the cache of compiled patterns used by the {@link Re2jStringSubject}
+   * methods which accept a regex as a {@code String}. By default, the cache holds up to 1000
+   * patterns. The system property {@code com.google.common.truth.extensions.re2j.regex_cache_size}
+   * overrides that, and setting it to 0 disables caching.
+   */
+  public static CacheStats regexCacheStats() {
+    return PATTERN_CACHE.stats();
+  }
+
+  static Pattern compile(String regex) {
+    Pattern pattern = PATTERN_CACHE.getIfPresent(regex);
+    if (pattern == null) {
+      // Compile outside the cache so that a PatternSyntaxException propagates as-is.
+      pattern = Pattern.compile(regex);
+      PATTERN_CACHE.put(regex, pattern);
+    }
+    return pattern;
+  }
+
   /**
    * Subject for {@link String} subjects which you can use to assert things about {@link
    * com.google.re2j.Pattern} regexes.
@@ -67,7 +136,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string does not match the given regex. */
     public void matches(String regex) {
-      if (!Pattern.matches(regex, actual())) {
+      if (!compile(regex).matcher(actual()).matches()) {
         fail("matches", regex);
       }
     }
@@ -82,7 +151,7 @@ public final class Re2jSubjects {
 
     /** Fails if the string matches the given regex. */
     public void doesNotMatch(String regex) {
-      if (Pattern.matches(regex, actual())) {
+      if (compile(regex).matcher(actual()).matches()) {
         fail("fails to match", regex);
       }
     }
@@ -133,7 +202,7 @@ public final class Re2jSubjects {
     }
 
     private static boolean doContainsMatch(String subject, String regex) {
-      return Pattern.compile(regex).matcher(subject).find();
+      return compile(regex).matcher(subject).find();
     }
   }
 
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018 Google, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.google.common.truth.extensions.re2j;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.extensions.re2j.Re2jSubjects.linesOf;
+import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jLines;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.truth.ExpectFailure;
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link Re2jLinesSubject}. */
+@RunWith(JUnit4.class)
+public class Re2jLinesSubjectTest {
+  private static final String LOG =
+      "INFO starting\r\n" + "WARN disk at 91%\n" + "INFO serving\n" + "ERROR lost connection\n";
+
+  @Rule public final ExpectFailure expectFailure = new ExpectFailure();
+
+  @Test
+  public void linesOf_charSequence() {
+    assertThat(linesOf(LOG)).hasSize(4);
+    assertThat(Iterables.transform(linesOf("a\r\n\nb\nc"), Functions.toStringFunction()))
+        .containsExactly("a", "", "b", "c")
+        .inOrder();
+    assertThat(linesOf("")).isEmpty();
+  }
+
+  @Test
+  public void linesOf_channel() {
+    Iterable<String> lines = linesOf(channel(LOG), UTF_8);
+    assertThat(lines)
+        .containsExactly(
+            "INFO starting", "WARN disk at 91%", "INFO serving", "ERROR lost connection")
+        .inOrder();
+    try {
+      lines.iterator();
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void eachLineContainsMatchForAnyOf_succeeds() {
+    assertAbout(re2jLines())
+        .that(linesOf(LOG))
+        .eachLineContainsMatchForAnyOf("^INFO ", "^WARN ", "^ERROR ");
+    assertAbout(re2jLines())
+        .that(linesOf(channel(LOG), UTF_8))
+        .eachLineContainsMatchForAnyIn(ImmutableList.of("^[A-Z]+ "));
+  }
+
+  @Test
+  public void eachLineContainsMatchForAnyOf_fails() {
+    expectFailure
+        .whenTesting()
+        .about(re2jLines())
+        .that(linesOf(LOG))
+        .eachLineContainsMatchForAnyOf("^INFO ", "^DEBUG ");
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that each line contains a match for any of <[^INFO , ^DEBUG ]>. "
+                + "2 of 4 lines did not:\n"
+                + "  line 2: \"WARN disk at 91%\"\n"
+                + "  line 4: \"ERROR lost connection\"");
+  }
+
+  @Test
+  public void eachLineContainsMatchForAnyOf_reportsOnlyFirstLines() {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < 15; i++) {
+      text.append("line").append(i).append('\n');
+    }
+    expectFailure
+        .whenTesting()
+        .about(re2jLines())
+        .that(linesOf(text))
+        .eachLineContainsMatchForAnyOf("x");
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .contains("  line 10: \"line9\"\n  ... and 5 more");
+    assertThat(expectFailure.getFailure()).hasMessageThat().doesNotContain("line10");
+  }
+
+  @Test
+  public void noLineContainsMatchForAnyOf_succeeds() {
+    assertAbout(re2jLines()).that(linesOf(LOG)).noLineContainsMatchForAnyOf("FATAL", "panic");
+  }
+
+  @Test
+  public void noLineContainsMatchForAnyOf_fails() {
+    expectFailure
+        .whenTesting()
+        .about(re2jLines())
+        .that(ImmutableList.of("ok", "ERROR x", "WARN y", "ERROR WARN z"))
+        .noLineContainsMatchForAnyOf("ERROR", "WARN", "FATAL");
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that no line contains a match for any of <[ERROR, WARN, FATAL]>. "
+                + "First matching line for each regex that matched: {ERROR=2, WARN=3}. "
+                + "3 of 4 lines matched:\n"
+                + "  line 2: \"ERROR x\" (matched [ERROR])\n"
+                + "  line 3: \"WARN y\" (matched [WARN])\n"
+                + "  line 4: \"ERROR WARN z\" (matched [ERROR, WARN])");
+  }
+
+  @Test
+  public void containsMatchForEachOf_succeeds() {
+    assertAbout(re2jLines()).that(linesOf(LOG)).containsMatchForEachOf("serving", "(?i)warn");
+  }
+
+  @Test
+  public void containsMatchForEachOf_stopsReadingOnceAllMatched() {
+    Iterable<String> unreadable =
+        new Iterable<String>() {
+          @Override
+          public Iterator<String> iterator() {
+            throw new AssertionError("read too far");
+          }
+        };
+    assertAbout(re2jLines())
+        .that(Iterables.concat(ImmutableList.of("INFO starting", "WARN disk"), unreadable))
+        .containsMatchForEachOf("starting", "disk");
+  }
+
+  @Test
+  public void containsMatchForEachOf_fails() {
+    expectFailure
+        .whenTesting()
+        .about(re2jLines())
+        .that(linesOf(LOG))
+        .containsMatchForEachOf("INFO", "FATAL", "lost", "panic");
+    assertThat(expectFailure.getFailure())
+        .hasMessageThat()
+        .isEqualTo(
+            "Not true that the lines contain a match for each of <[INFO, FATAL, lost, panic]>. "
+                + "No line contained a match for <[FATAL, panic]>. "
+                + "First matching line for each regex that matched: {INFO=1, lost=4} (of 4 lines)");
+  }
+
+  private static ReadableByteChannel channel(String text) {
+    return Channels.newChannel(new ByteArrayInputStream(text.getBytes(UTF_8)));
+  }
+}
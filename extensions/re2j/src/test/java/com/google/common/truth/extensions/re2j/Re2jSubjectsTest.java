@@ -16,9 +16,13 @@
 package com.google.common.truth.extensions.re2j;
 
 import static com.google.common.truth.Truth.assertAbout;
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.extensions.re2j.Re2jSubjects.re2jString;
+import static org.junit.Assert.fail;
 
+import com.google.common.cache.CacheStats;
 import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -68,4 +72,25 @@ public class Re2jSubjectsTest {
   public void doesNotContainMatch_pattern_succeeds() {
     assertAbout(re2jString()).that("hello cruel world").doesNotContainMatch(PATTERN);
   }
+
+  @Test
+  public void regexCacheStats() {
+    String regex = "cached\\d+ regex";
+    CacheStats before = Re2jSubjects.regexCacheStats();
+    assertAbout(re2jString()).that("cached1 regex").matches(regex);
+    assertAbout(re2jString()).that("a cached2 regex").containsMatch(regex);
+    assertAbout(re2jString()).that("uncached").doesNotMatch(regex);
+    CacheStats delta = Re2jSubjects.regexCacheStats().minus(before);
+    assertThat(delta.missCount()).isEqualTo(1);
+    assertThat(delta.hitCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void invalidRegex_throwsPatternSyntaxException() {
+    try {
+      assertAbout(re2jString()).that("abc").matches("(");
+      fail();
+    } catch (PatternSyntaxException expected) {
+    }
+  }
 }